@@ -2,8 +2,10 @@ package api.meli.com.co.application;
 
 import api.meli.com.co.domain.aggregate.CouponAggregate;
 import api.meli.com.co.domain.exceptions.ItemsNotFoundException;
+import api.meli.com.co.domain.repositories.CouponSolutionRepository;
 import api.meli.com.co.domain.services.ItemFinderService;
 import api.meli.com.co.domain.vo.CalculatedCoupon;
+import api.meli.com.co.domain.vo.CouponSettings;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.concurrent.CompletionStage;
@@ -24,6 +26,16 @@ public class CouponUseCases {
 	 */
 	private final ItemFinderService itemService;
 
+	/**
+	 * The store of the optimal solutions already calculated
+	 */
+	private final CouponSolutionRepository solutionRepository;
+
+	/**
+	 * The settings used to calculate the coupons
+	 */
+	private final CouponSettings settings;
+
 	/**
 	 * Get the list of items that can be purchased given the coupon amount
 	 *
@@ -34,9 +46,26 @@ public class CouponUseCases {
 	 */
 	public CompletionStage<CalculatedCoupon> calculateMaximumBenefit(final BigDecimal coupon,
 		final List<String> items) {
+		return calculateMaximumBenefit(coupon, items, null);
+	}
+
+	/**
+	 * Get the list of items that can be purchased given the coupon amount, accepting a benefit up
+	 * to {@code epsilon} times below the maximum one when it is cheaper to find
+	 *
+	 * @param coupon The coupon amount
+	 * @param items list of items where you want to perform the analysis
+	 * @param epsilon the accuracy, or null to get the maximum benefit
+	 *
+	 * @return list of items that can be purchased
+	 */
+	public CompletionStage<CalculatedCoupon> calculateMaximumBenefit(final BigDecimal coupon,
+		final List<String> items, final BigDecimal epsilon) {
 
-		final CouponAggregate couponAggregate = CouponAggregate.create(itemService);
+		final CouponAggregate couponAggregate = CouponAggregate
+			.create(itemService, solutionRepository, settings);
 		couponAggregate.addCouponAmount(coupon);
+		couponAggregate.addEpsilon(epsilon);
 		couponAggregate.addItems(items);
 
 		return couponAggregate.calculateMaximumBenefit()
@@ -47,4 +76,31 @@ public class CouponUseCases {
 				return response;
 			});
 	}
+
+	/**
+	 * Get, for several coupon amounts, the list of items that can be purchased with each one. The
+	 * items are queried and analyzed once for all the amounts
+	 *
+	 * @param coupons The coupon amounts
+	 * @param items list of items where you want to perform the analysis
+	 *
+	 * @return for every coupon amount, in order, the list of items that can be purchased
+	 */
+	public CompletionStage<List<CalculatedCoupon>> calculateMaximumBenefits(
+		final List<BigDecimal> coupons, final List<String> items) {
+
+		final CouponAggregate couponAggregate = CouponAggregate
+			.create(itemService, solutionRepository, settings);
+		couponAggregate.addCouponAmounts(coupons);
+		couponAggregate.addItems(items);
+
+		return couponAggregate.calculateMaximumBenefits()
+			.thenApply(response -> {
+				if (response.stream()
+					.allMatch(coupon -> CollectionUtils.isEmpty(coupon.getAppliedItems()))) {
+					throw new ItemsNotFoundException();
+				}
+				return response;
+			});
+	}
 }
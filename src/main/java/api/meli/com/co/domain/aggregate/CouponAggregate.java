@@ -1,15 +1,28 @@
 package api.meli.com.co.domain.aggregate;
 
 import api.meli.com.co.domain.exceptions.InvalidAmountException;
+import api.meli.com.co.domain.repositories.CouponSolutionRepository;
+import api.meli.com.co.domain.services.ApproximateCouponCalculator;
+import api.meli.com.co.domain.services.CouponCalculatorType;
+import api.meli.com.co.domain.services.CouponScale;
+import api.meli.com.co.domain.services.CouponSweepCalculator;
+import api.meli.com.co.domain.services.GreedyCouponCalculator;
 import api.meli.com.co.domain.services.ItemFinderService;
-import api.meli.com.co.domain.services.KnapsackCouponCalculator;
+import api.meli.com.co.domain.services.PriceGroups;
 import api.meli.com.co.domain.vo.CalculatedCoupon;
+import api.meli.com.co.domain.vo.CouponSettings;
+import api.meli.com.co.domain.vo.CouponSolution;
 import api.meli.com.co.domain.vo.Item;
+import api.meli.com.co.domain.vo.SolveDeadline;
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
-import java.util.stream.Stream;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
 
 /**
@@ -19,18 +32,32 @@ import org.apache.commons.collections4.CollectionUtils;
  * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
  * @since 1.0
  */
+@Slf4j
 public class CouponAggregate {
 
+	/**
+	 * Maximum number of coupon values analyzed in a single calculation
+	 */
+	public static final int MAX_COUPON_AMOUNTS = 1000;
+
 	private final ItemFinderService itemService;
+	private final CouponSolutionRepository solutionRepository;
+	private final CouponSettings settings;
 	private BigDecimal couponAmount;
+	private List<BigDecimal> couponAmounts;
 	private List<String> itemsToValidate;
+	private BigDecimal epsilon;
 
-	private CouponAggregate(final ItemFinderService itemService) {
+	private CouponAggregate(final ItemFinderService itemService,
+		final CouponSolutionRepository solutionRepository, final CouponSettings settings) {
 		this.itemService = itemService;
+		this.solutionRepository = solutionRepository;
+		this.settings = settings;
 	}
 
-	public static CouponAggregate create(final ItemFinderService itemService) {
-		return new CouponAggregate(itemService);
+	public static CouponAggregate create(final ItemFinderService itemService,
+		final CouponSolutionRepository solutionRepository, final CouponSettings settings) {
+		return new CouponAggregate(itemService, solutionRepository, settings);
 	}
 
 	/**
@@ -45,6 +72,35 @@ public class CouponAggregate {
 		this.couponAmount = couponAmount;
 	}
 
+	/**
+	 * Add the coupon values to be analyzed over the same items
+	 *
+	 * @param couponAmounts the coupon values
+	 */
+	public void addCouponAmounts(final List<BigDecimal> couponAmounts) {
+		if (CollectionUtils.isEmpty(couponAmounts) || couponAmounts.size() > MAX_COUPON_AMOUNTS) {
+			throw new InvalidAmountException(
+				"Between 1 and " + MAX_COUPON_AMOUNTS + " coupon values are allowed");
+		}
+		couponAmounts.forEach(this::addCouponAmount);
+		this.couponAmounts = couponAmounts;
+		couponAmount = Collections.max(couponAmounts);
+	}
+
+	/**
+	 * Accept an approximate benefit, at most {@code epsilon} times below the maximum one, when it is
+	 * cheaper to find than the exact benefit
+	 *
+	 * @param epsilon the accuracy, between 0 and 1 exclusive, or null to find the exact benefit
+	 */
+	public void addEpsilon(final BigDecimal epsilon) {
+		if (epsilon != null
+			&& (BigDecimal.ZERO.compareTo(epsilon) >= 0 || BigDecimal.ONE.compareTo(epsilon) <= 0)) {
+			throw new InvalidAmountException("Epsilon must be between 0 and 1");
+		}
+		this.epsilon = epsilon;
+	}
+
 	/**
 	 * Add the set of items to be analyzed
 	 *
@@ -56,22 +112,121 @@ public class CouponAggregate {
 
 	/**
 	 * Calculate the maximum profit that can be obtained having the items and the value of the
-	 * coupon
+	 * coupon. The optimal solutions are saved by the prices of the items and the coupon value, so
+	 * any later calculation with the same prices reuses them
 	 *
 	 * @return list of items that can be purchased and max value to used
 	 */
 	public CompletionStage<CalculatedCoupon> calculateMaximumBenefit() {
+		return itemService.findPricesByItemIds(itemsToValidate)
+			.thenCompose(items -> {
+					final Item[] filteredItems = items.stream()
+						.filter(item -> isLessOrEqualThanCoupon(item.getPrice()))
+						.toArray(Item[]::new);
+					final CouponScale scale = CouponScale
+						.create(filteredItems, couponAmount, settings);
+					final String key = CouponSolution
+						.key(scale.getItems(), scale.getCouponAmount());
+					return solutionRepository.findSolutionByKey(key)
+						.thenCompose(solution -> solution
+							.map(found -> CompletableFuture.completedFuture(
+								found.toCoupon(scale.getItems(), scale.getCouponAmount())))
+							.orElseGet(() -> solve(scale, key)))
+						.thenApply(scale::unscale);
+				}
+			);
+	}
+
+	/**
+	 * Calculate the maximum profit of every coupon value, fetching the items and solving the
+	 * reachable sums once for all of them
+	 *
+	 * @return for every coupon value, in order, the items that can be purchased and max value to
+	 * used
+	 */
+	public CompletionStage<List<CalculatedCoupon>> calculateMaximumBenefits() {
 		return itemService.findPricesByItemIds(itemsToValidate)
 			.thenApply(items -> {
-					final Stream<Item> filteredItems = items.stream()
-						.filter(item -> isLessOrEqualThanCoupon(item.getPrice()));
-					final KnapsackCouponCalculator calculator = KnapsackCouponCalculator
-						.create(filteredItems.toArray(Item[]::new), couponAmount);
-					return calculator.calculateMaximumBenefit();
+					final Item[] filteredItems = items.stream()
+						.filter(item -> isLessOrEqualThanCoupon(item.getPrice()))
+						.toArray(Item[]::new);
+					// The scaled prices only depend on the items, so every scale shares them
+					final List<CouponScale> scales = couponAmounts.stream()
+						.map(amount -> CouponScale.create(filteredItems, amount, settings))
+						.collect(Collectors.toList());
+					final int[] amounts = scales.stream()
+						.mapToInt(scale -> scale.getCouponAmount().intValue())
+						.toArray();
+					final PriceGroups groups = PriceGroups.create(scales.get(0).getItems(),
+						BigDecimal.valueOf(IntStream.of(amounts).max().orElse(0)));
+					final List<CalculatedCoupon> coupons = CouponSweepCalculator
+						.create(groups.getItems(), amounts, settings,
+							SolveDeadline.after(settings.getSolveTimeout()))
+						.calculateMaximumBenefits();
+					return IntStream.range(0, scales.size())
+						.mapToObj(i -> scales.get(i).unscale(groups.ungroup(coupons.get(i))))
+						.collect(Collectors.toList());
 				}
 			);
 	}
 
+	private CompletableFuture<CalculatedCoupon> solve(final CouponScale scale, final String key) {
+		final PriceGroups groups = PriceGroups.create(scale.getItems(), scale.getCouponAmount());
+		final CalculatedCoupon coupon = groups
+			.ungroup(calculate(groups.getItems(), scale.getCouponAmount()));
+		if (!coupon.isOptimal()) {
+			return CompletableFuture.completedFuture(coupon);
+		}
+		return solutionRepository
+			.persistSolution(key, CouponSolution.create(coupon, scale.getItems()))
+			.handle((saved, error) -> {
+				if (error != null) {
+					log.warn("The solution [{}] could not be saved", key, error);
+				}
+				return coupon;
+			})
+			.toCompletableFuture();
+	}
+
+	private CalculatedCoupon calculate(final Item[] items, final BigDecimal amount) {
+		final SolveDeadline deadline = SolveDeadline.after(settings.getSolveTimeout());
+		final CalculatedCoupon greedy = GreedyCouponCalculator.create(items, amount)
+			.calculateMaximumBenefit();
+		if (greedy.isOptimal()) {
+			return greedy;
+		}
+
+		final CouponCalculatorType type = CouponCalculatorType
+			.cheapest(items.length, amount.intValue(), settings);
+		if (epsilon != null && ApproximateCouponCalculator
+			.estimateCost(items.length, amount.intValue(), epsilon.doubleValue())
+			< type.estimateCost(items.length, amount.intValue(), settings)) {
+			log.info(
+				"The approximation with epsilon [{}] was chosen to analyze [{}] items with a coupon of [{}] units",
+				epsilon, items.length, amount);
+			return better(ApproximateCouponCalculator.create(items, amount, epsilon)
+				.calculateMaximumBenefit(), greedy);
+		}
+
+		log.info("The engine [{}] was chosen to analyze [{}] items with a coupon of [{}] units",
+			type, items.length, amount);
+		final CalculatedCoupon coupon = type.create(items, amount, settings, deadline)
+			.calculateMaximumBenefit();
+		if (coupon.isOptimal()) {
+			return coupon;
+		}
+
+		log.warn(
+			"The engine [{}] ran out of time for a coupon of [{}] units, best profit found: [{}], greedy profit: [{}]",
+			type, amount, coupon.getMaximumBenefit(), greedy.getMaximumBenefit());
+		return better(coupon, greedy);
+	}
+
+	private CalculatedCoupon better(final CalculatedCoupon coupon, final CalculatedCoupon other) {
+		return coupon.getMaximumBenefit().compareTo(other.getMaximumBenefit()) >= 0 ?
+			coupon : other;
+	}
+
 	private boolean isLessOrEqualThanCoupon(final BigDecimal price) {
 		return price != null && couponAmount.compareTo(price) >= 0;
 	}
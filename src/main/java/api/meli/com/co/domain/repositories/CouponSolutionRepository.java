@@ -0,0 +1,33 @@
+package api.meli.com.co.domain.repositories;
+
+import api.meli.com.co.domain.vo.CouponSolution;
+import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * This repository manages the storage of the optimal solutions of the coupon calculations
+ *
+ * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
+ * @since 1.0
+ */
+public interface CouponSolutionRepository {
+
+	/**
+	 * Get a solution given its key from the data store
+	 *
+	 * @param key the key of the calculation, see {@link CouponSolution#key}
+	 *
+	 * @return the found solution
+	 */
+	CompletionStage<Optional<CouponSolution>> findSolutionByKey(String key);
+
+	/**
+	 * Persist a solution on storage
+	 *
+	 * @param key the key of the calculation
+	 * @param solution the solution to save
+	 *
+	 * @return the solution persisted
+	 */
+	CompletionStage<CouponSolution> persistSolution(String key, CouponSolution solution);
+}
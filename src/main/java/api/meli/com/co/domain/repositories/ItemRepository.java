@@ -1,7 +1,11 @@
 package api.meli.com.co.domain.repositories;
 
 import api.meli.com.co.domain.vo.Item;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 
 /**
@@ -21,6 +25,15 @@ public interface ItemRepository {
 	 */
 	CompletionStage<Optional<Item>> findItemById(String id);
 
+	/**
+	 * Get several items given their ids from the data store in a single query
+	 *
+	 * @param ids the item ids
+	 *
+	 * @return the found items by id, the ids not found are not included
+	 */
+	CompletionStage<Map<String, Item>> findItemsByIds(Collection<String> ids);
+
 	/**
 	 * Persist item on storage
 	 *
@@ -29,4 +42,33 @@ public interface ItemRepository {
 	 * @return the item persisted
 	 */
 	CompletionStage<Item> persistItem(final Item item);
+
+	/**
+	 * Persist item on storage, along with the time it took to get it. The data stores that do not
+	 * use this time just persist the item
+	 *
+	 * @param item the item to save
+	 * @param computeTime the time it took to get the item
+	 *
+	 * @return the item persisted
+	 */
+	default CompletionStage<Item> persistItem(final Item item, final Duration computeTime) {
+		return persistItem(item);
+	}
+
+	/**
+	 * Persist several items on storage, along with the time it took to get them. The data stores
+	 * that cannot save them in a single operation persist them one by one
+	 *
+	 * @param items the items to save
+	 * @param computeTime the time it took to get the items
+	 *
+	 * @return the stage completed once all the items are persisted
+	 */
+	default CompletionStage<Void> persistItems(final Collection<Item> items,
+		final Duration computeTime) {
+		return CompletableFuture.allOf(items.stream()
+			.map(item -> persistItem(item, computeTime).toCompletableFuture())
+			.toArray(CompletableFuture[]::new));
+	}
 }
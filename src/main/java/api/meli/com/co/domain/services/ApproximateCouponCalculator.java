@@ -0,0 +1,183 @@
+package api.meli.com.co.domain.services;
+
+import api.meli.com.co.domain.vo.CalculatedCoupon;
+import api.meli.com.co.domain.vo.Item;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * This service approximates the maximum benefit of the coupon within a factor {@code (1 - epsilon)}
+ * of the optimum. It keeps the sorted list of reachable sums, but after adding each item the sums
+ * closer than {@code epsilon / 2n} to the previous one kept are trimmed, so the list never holds
+ * more than {@code O(n log W / epsilon)} sums and the time is bounded by the number of items and
+ * the accuracy instead of the coupon amount. Every sum kept remembers the item and the sum it was
+ * built from, so the applied items are rebuilt following those links
+ *
+ * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
+ * @since 1.0
+ */
+@Slf4j
+public class ApproximateCouponCalculator implements CouponCalculator {
+
+	/**
+	 * Initial capacity of the arrays of sums
+	 */
+	private static final int INITIAL_CAPACITY = 64;
+
+	/**
+	 * List of elements to be analyzed
+	 */
+	private final Item[] items;
+	/**
+	 * the coupon amount
+	 */
+	private final int couponAmount;
+	/**
+	 * The maximum relative distance between the benefit returned and the optimal one
+	 */
+	private final double epsilon;
+	/**
+	 * Value of every sum kept
+	 */
+	private long[] sums;
+	/**
+	 * Position in {@link #items} of the item added to reach every sum, or -1 for the empty sum
+	 */
+	private int[] addedItems;
+	/**
+	 * The sum every sum was reached from, or -1 for the empty sum
+	 */
+	private int[] previousSums;
+	/**
+	 * Number of sums kept
+	 */
+	private int sumCount;
+
+	private ApproximateCouponCalculator(final Item[] items, final int couponAmount,
+		final double epsilon) {
+		this.items = items;
+		this.couponAmount = couponAmount;
+		this.epsilon = epsilon;
+		sums = new long[INITIAL_CAPACITY];
+		addedItems = new int[INITIAL_CAPACITY];
+		previousSums = new int[INITIAL_CAPACITY];
+	}
+
+	public static ApproximateCouponCalculator create(final Item[] items,
+		final BigDecimal couponAmount, final BigDecimal epsilon) {
+		return new ApproximateCouponCalculator(items, couponAmount.intValue(),
+			epsilon.doubleValue());
+	}
+
+	/**
+	 * Estimate the number of elementary operations needed to approximate a problem
+	 *
+	 * @param itemCount the number of items
+	 * @param couponAmount the coupon amount
+	 * @param epsilon the accuracy
+	 *
+	 * @return the estimated cost
+	 */
+	public static double estimateCost(final int itemCount, final int couponAmount,
+		final double epsilon) {
+		final double listSize = 2 * itemCount * Math.log(Math.max(couponAmount, 2)) / epsilon;
+		return itemCount * Math.min(listSize, couponAmount + 1.0);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CalculatedCoupon calculateMaximumBenefit() {
+
+		log.info(
+			"Starting analysis to approximate with epsilon [{}] the maximum benefit for the coupon with amount: [{}] and items: {}",
+			epsilon, couponAmount, items);
+
+		final double delta = epsilon / (2.0 * Math.max(items.length, 1));
+		int[] list = new int[]{addSum(0, -1, -1)};
+		for (int i = 0; i < items.length; i++) {
+			final int price = items[i].getRoundedPrice();
+			if (price > 0 && price <= couponAmount) {
+				list = mergeAndTrim(list, i, price, delta);
+			}
+		}
+
+		final int best = list[list.length - 1];
+		final long maxBenefit = sums[best];
+		final int[] selected = new int[items.length];
+		int selectedCount = 0;
+		for (int sum = best; addedItems[sum] >= 0; sum = previousSums[sum]) {
+			selected[selectedCount++] = addedItems[sum];
+		}
+		final List<String> itemsApplied = IntStream.of(Arrays.copyOf(selected, selectedCount))
+			.sorted()
+			.mapToObj(i -> items[i].getId())
+			.collect(Collectors.toList());
+
+		log.info(
+			"The approximation of the maximum benefit for the coupon with amount: [{}], and items: {} has been completed. The profit found is: [{}], adding the items: {}",
+			couponAmount, items, maxBenefit, itemsApplied);
+
+		return CalculatedCoupon.builder()
+			.couponAmount(BigDecimal.valueOf(couponAmount))
+			.maximumBenefit(BigDecimal.valueOf(maxBenefit))
+			.appliedItems(itemsApplied)
+			.optimal(maxBenefit == couponAmount)
+			.build();
+	}
+
+	/**
+	 * Merge the sorted sums with the same sums plus the price, dropping the ones above the coupon
+	 * and the ones too close to the previous sum kept
+	 */
+	private int[] mergeAndTrim(final int[] list, final int item, final int price,
+		final double delta) {
+
+		final int[] merged = new int[list.length * 2];
+		int mergedCount = 0;
+		long last = -1;
+		int withoutItem = 0;
+		int withItem = 0;
+		while (withoutItem < list.length || withItem < list.length) {
+			final long sumWithout = withoutItem < list.length ?
+				sums[list[withoutItem]] : Long.MAX_VALUE;
+			final long sumWith = withItem < list.length ?
+				sums[list[withItem]] + price : Long.MAX_VALUE;
+			if (Math.min(sumWithout, sumWith) > couponAmount) {
+				break;
+			}
+			final boolean keep = last < 0 || Math.min(sumWithout, sumWith) > last * (1 + delta);
+			if (sumWithout <= sumWith) {
+				if (keep) {
+					merged[mergedCount++] = list[withoutItem];
+					last = sumWithout;
+				}
+				withoutItem++;
+			} else {
+				if (keep) {
+					merged[mergedCount++] = addSum(sumWith, item, list[withItem]);
+					last = sumWith;
+				}
+				withItem++;
+			}
+		}
+		return Arrays.copyOf(merged, mergedCount);
+	}
+
+	private int addSum(final long sum, final int item, final int previousSum) {
+		if (sumCount == sums.length) {
+			sums = Arrays.copyOf(sums, sumCount * 2);
+			addedItems = Arrays.copyOf(addedItems, sumCount * 2);
+			previousSums = Arrays.copyOf(previousSums, sumCount * 2);
+		}
+		sums[sumCount] = sum;
+		addedItems[sumCount] = item;
+		previousSums[sumCount] = previousSum;
+		return sumCount++;
+	}
+}
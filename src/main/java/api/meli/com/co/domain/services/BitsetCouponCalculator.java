@@ -0,0 +1,125 @@
+package api.meli.com.co.domain.services;
+
+import api.meli.com.co.domain.vo.CalculatedCoupon;
+import api.meli.com.co.domain.vo.Item;
+import api.meli.com.co.domain.vo.SolveDeadline;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * This service calculates the maximum benefit of the coupon as a subset-sum problem, since the
+ * weight and the value of each item are both its price. Instead of the benefit matrix of {@link
+ * KnapsackCouponCalculator}, it keeps for every prefix of items the bitset of reachable sums, which
+ * is built with a shift-or per item and takes one bit per amount instead of one int. The applied
+ * items are the same ones {@link KnapsackCouponCalculator} selects. When the deadline expires, the
+ * best combination of the items already added is returned as not proven optimal
+ *
+ * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
+ * @since 1.0
+ */
+@Slf4j
+public class BitsetCouponCalculator implements CouponCalculator {
+
+	/**
+	 * List of elements to be analyzed
+	 */
+	private final Item[] items;
+	/**
+	 * the coupon amount
+	 */
+	private final int couponAmount;
+	/**
+	 * The reachable sums using the first n items. Rows are shared when an item does not change them
+	 */
+	private final long[][] reachableSums;
+	/**
+	 * Composition of the optimal solution
+	 */
+	private final List<Item> bestSolution;
+	/**
+	 * The instant the calculation has to stop
+	 */
+	private final SolveDeadline deadline;
+
+	private BitsetCouponCalculator(final Item[] items, final int couponAmount,
+		final SolveDeadline deadline) {
+		this.items = items;
+		this.couponAmount = couponAmount;
+		this.deadline = deadline;
+		reachableSums = new long[items.length + 1][];
+		bestSolution = new ArrayList<>();
+	}
+
+	public static BitsetCouponCalculator create(final Item[] items, final BigDecimal couponAmount) {
+		return create(items, couponAmount, SolveDeadline.none());
+	}
+
+	public static BitsetCouponCalculator create(final Item[] items, final BigDecimal couponAmount,
+		final SolveDeadline deadline) {
+		return new BitsetCouponCalculator(items, couponAmount.intValue(), deadline);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CalculatedCoupon calculateMaximumBenefit() {
+
+		log.info(
+			"Starting analysis to calculate the maximum benefit for the coupon with amount: [{}] and items: {}",
+			couponAmount, items);
+
+		final int addedItems = fillReachableSums();
+		final int maxBenefit = ReachableSums.highest(reachableSums[addedItems], couponAmount);
+		updateBestSolution(addedItems, maxBenefit);
+
+		final List<String> itemsApplied = bestSolution.stream().map(Item::getId)
+			.collect(Collectors.toList());
+
+		log.info(
+			"The analysis for the calculation of the maximum benefit for the coupon with amount: [{}], and items: {} has been completed. The maximum profit found is: [{}], adding the items: {}",
+			couponAmount, items, maxBenefit, itemsApplied);
+
+		return CalculatedCoupon.builder()
+			.couponAmount(BigDecimal.valueOf(couponAmount))
+			.maximumBenefit(BigDecimal.valueOf(maxBenefit))
+			.appliedItems(itemsApplied)
+			.optimal(addedItems == items.length)
+			.build();
+	}
+
+	private int fillReachableSums() {
+		reachableSums[0] = ReachableSums.initial(couponAmount);
+		for (int i = 1; i <= items.length; i++) {
+			if (deadline.isExpired()) {
+				log.warn("The deadline expired after adding [{}] of [{}] items", i - 1,
+					items.length);
+				return i - 1;
+			}
+			final int price = items[i - 1].getRoundedPrice();
+			if (price <= 0 || price > couponAmount) {
+				// The item cannot add a new sum, so the previous snapshot is reused
+				reachableSums[i] = reachableSums[i - 1];
+			} else {
+				reachableSums[i] = new long[reachableSums[i - 1].length];
+				ReachableSums.add(reachableSums[i - 1], reachableSums[i], price, couponAmount);
+			}
+		}
+		return items.length;
+	}
+
+	private void updateBestSolution(final int addedItems, final int maxBenefit) {
+		// Walking backwards, the i-th item belongs to the solution only when the remaining amount
+		// cannot be reached with the first i-1 items, the same rule as the benefit matrix
+		int remaining = maxBenefit;
+		for (int i = addedItems; i >= 1 && remaining > 0; i--) {
+			if (!ReachableSums.contains(reachableSums[i - 1], remaining)) {
+				bestSolution.add(items[i - 1]);
+				remaining -= items[i - 1].getRoundedPrice();
+			}
+		}
+	}
+}
@@ -0,0 +1,164 @@
+package api.meli.com.co.domain.services;
+
+import api.meli.com.co.domain.vo.CalculatedCoupon;
+import api.meli.com.co.domain.vo.Item;
+import api.meli.com.co.domain.vo.SolveDeadline;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * This service calculates the maximum benefit of the coupon exploring the subsets of items from the
+ * most expensive one, discarding every branch whose remaining items cannot beat the best benefit
+ * found so far. It does not depend on the coupon amount and uses memory proportional to the number
+ * of items, so it fits carts with few items and large coupons. The first branch explored is the
+ * greedy fill from the most expensive item, and every later branch can only improve it, so when
+ * the deadline expires the best solution found so far is returned as not proven optimal
+ *
+ * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
+ * @since 1.0
+ */
+@Slf4j
+public class BranchAndBoundCouponCalculator implements CouponCalculator {
+
+	/**
+	 * Nodes explored between two checks of the deadline, minus one
+	 */
+	private static final int DEADLINE_CHECK_MASK = (1 << 10) - 1;
+
+	/**
+	 * List of elements to be analyzed
+	 */
+	private final Item[] items;
+	/**
+	 * the coupon amount
+	 */
+	private final int couponAmount;
+	/**
+	 * Positions in {@link #items} of the items that fit in the coupon, from the most expensive
+	 */
+	private final int[] candidates;
+	/**
+	 * Sum of the prices of the candidates from each position to the end
+	 */
+	private final long[] remainingSums;
+	/**
+	 * Candidates taken in the branch being explored
+	 */
+	private final boolean[] selection;
+	/**
+	 * Candidates taken in the best solution found
+	 */
+	private final boolean[] bestSelection;
+	/**
+	 * Benefit of the best solution found
+	 */
+	private long bestBenefit;
+	/**
+	 * The instant the search has to stop
+	 */
+	private final SolveDeadline deadline;
+	/**
+	 * Number of nodes explored
+	 */
+	private long exploredNodes;
+	/**
+	 * Whether the search was stopped by the deadline
+	 */
+	private boolean expired;
+
+	private BranchAndBoundCouponCalculator(final Item[] items, final int couponAmount,
+		final SolveDeadline deadline) {
+		this.items = items;
+		this.couponAmount = couponAmount;
+		this.deadline = deadline;
+		candidates = IntStream.range(0, items.length)
+			.filter(i -> items[i].getRoundedPrice() > 0
+				&& items[i].getRoundedPrice() <= couponAmount)
+			.boxed()
+			.sorted(Comparator.comparingInt((Integer i) -> items[i].getRoundedPrice()).reversed())
+			.mapToInt(Integer::intValue)
+			.toArray();
+		remainingSums = new long[candidates.length + 1];
+		for (int k = candidates.length - 1; k >= 0; k--) {
+			remainingSums[k] = remainingSums[k + 1] + items[candidates[k]].getRoundedPrice();
+		}
+		selection = new boolean[candidates.length];
+		bestSelection = new boolean[candidates.length];
+	}
+
+	public static BranchAndBoundCouponCalculator create(final Item[] items,
+		final BigDecimal couponAmount) {
+		return create(items, couponAmount, SolveDeadline.none());
+	}
+
+	public static BranchAndBoundCouponCalculator create(final Item[] items,
+		final BigDecimal couponAmount, final SolveDeadline deadline) {
+		return new BranchAndBoundCouponCalculator(items, couponAmount.intValue(), deadline);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CalculatedCoupon calculateMaximumBenefit() {
+
+		log.info(
+			"Starting analysis to calculate the maximum benefit for the coupon with amount: [{}] and items: {}",
+			couponAmount, items);
+
+		search(0, 0);
+
+		final List<String> itemsApplied = IntStream.range(0, candidates.length)
+			.filter(k -> bestSelection[k])
+			.map(k -> candidates[k])
+			.sorted()
+			.mapToObj(i -> items[i].getId())
+			.collect(Collectors.toList());
+
+		log.info(
+			"The analysis for the calculation of the maximum benefit for the coupon with amount: [{}], and items: {} has been completed. The maximum profit found is: [{}], adding the items: {}",
+			couponAmount, items, bestBenefit, itemsApplied);
+
+		return CalculatedCoupon.builder()
+			.couponAmount(BigDecimal.valueOf(couponAmount))
+			.maximumBenefit(BigDecimal.valueOf(bestBenefit))
+			.appliedItems(itemsApplied)
+			.optimal(!expired)
+			.build();
+	}
+
+	private void search(final int depth, final long sum) {
+		if (expired || bestBenefit == couponAmount || sum + remainingSums[depth] <= bestBenefit) {
+			return;
+		}
+		if ((++exploredNodes & DEADLINE_CHECK_MASK) == 0 && deadline.isExpired()) {
+			expired = true;
+			return;
+		}
+		if (sum + remainingSums[depth] <= couponAmount) {
+			// Every remaining item fits, so taking all of them is the best of this branch
+			System.arraycopy(selection, 0, bestSelection, 0, depth);
+			Arrays.fill(bestSelection, depth, candidates.length, true);
+			bestBenefit = sum + remainingSums[depth];
+			return;
+		}
+
+		final int price = items[candidates[depth]].getRoundedPrice();
+		if (sum + price <= couponAmount) {
+			selection[depth] = true;
+			if (sum + price > bestBenefit) {
+				System.arraycopy(selection, 0, bestSelection, 0, depth + 1);
+				Arrays.fill(bestSelection, depth + 1, candidates.length, false);
+				bestBenefit = sum + price;
+			}
+			search(depth + 1, sum + price);
+		}
+		selection[depth] = false;
+		search(depth + 1, sum);
+	}
+}
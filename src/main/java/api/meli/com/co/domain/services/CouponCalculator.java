@@ -0,0 +1,20 @@
+package api.meli.com.co.domain.services;
+
+import api.meli.com.co.domain.vo.CalculatedCoupon;
+
+/**
+ * This port describes an engine that calculates the maximum benefit of a coupon for the items it
+ * was created with
+ *
+ * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
+ * @since 1.0
+ */
+public interface CouponCalculator {
+
+	/**
+	 * Calculate the items to apply and the maximum amount of the coupon that can be used
+	 *
+	 * @return the calculated coupon
+	 */
+	CalculatedCoupon calculateMaximumBenefit();
+}
@@ -0,0 +1,213 @@
+package api.meli.com.co.domain.services;
+
+import api.meli.com.co.domain.vo.CouponSettings;
+import api.meli.com.co.domain.vo.Item;
+import api.meli.com.co.domain.vo.SolveDeadline;
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * The engines available to calculate the maximum benefit of a coupon. Each one estimates the number
+ * of elementary operations it needs for a given number of items and coupon amount, so the cheapest
+ * can be chosen for every request
+ *
+ * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
+ * @since 1.0
+ */
+public enum CouponCalculatorType {
+
+	/**
+	 * Pruned exploration of the subsets, for very few items
+	 */
+	BRANCH_AND_BOUND {
+		@Override
+		public double estimateCost(final int itemCount, final int couponAmount,
+			final CouponSettings settings) {
+			return itemCount <= MeetInTheMiddleCouponCalculator.MAX_ITEMS ?
+				Math.pow(2, itemCount) : Double.POSITIVE_INFINITY;
+		}
+
+		@Override
+		public CouponCalculator create(final Item[] items, final BigDecimal couponAmount,
+			final CouponSettings settings, final SolveDeadline deadline) {
+			return BranchAndBoundCouponCalculator.create(items, couponAmount, deadline);
+		}
+	},
+
+	/**
+	 * Enumeration of the subset sums of two halves, for few items and large coupons
+	 */
+	MEET_IN_THE_MIDDLE {
+		@Override
+		public double estimateCost(final int itemCount, final int couponAmount,
+			final CouponSettings settings) {
+			if (itemCount > MeetInTheMiddleCouponCalculator.MAX_ITEMS) {
+				return Double.POSITIVE_INFINITY;
+			}
+			final int half = (itemCount + 1) / 2;
+			return Math.pow(2, half) * (half + 1) * 2;
+		}
+
+		@Override
+		public CouponCalculator create(final Item[] items, final BigDecimal couponAmount,
+			final CouponSettings settings, final SolveDeadline deadline) {
+			return MeetInTheMiddleCouponCalculator.create(items, couponAmount, deadline);
+		}
+	},
+
+	/**
+	 * Bitsets of reachable sums with a snapshot per item, while the snapshots stay small
+	 */
+	BITSET {
+		@Override
+		public double estimateCost(final int itemCount, final int couponAmount,
+			final CouponSettings settings) {
+			return settings.getBufferPool() == null ?
+				snapshotCost(itemCount, couponAmount) : Double.POSITIVE_INFINITY;
+		}
+
+		@Override
+		public CouponCalculator create(final Item[] items, final BigDecimal couponAmount,
+			final CouponSettings settings, final SolveDeadline deadline) {
+			return BitsetCouponCalculator.create(items, couponAmount, deadline);
+		}
+	},
+
+	/**
+	 * Like {@link #BITSET}, reusing the working arrays of a pool
+	 */
+	POOLED_BITSET {
+		@Override
+		public double estimateCost(final int itemCount, final int couponAmount,
+			final CouponSettings settings) {
+			return settings.getBufferPool() != null ?
+				snapshotCost(itemCount, couponAmount) : Double.POSITIVE_INFINITY;
+		}
+
+		@Override
+		public CouponCalculator create(final Item[] items, final BigDecimal couponAmount,
+			final CouponSettings settings, final SolveDeadline deadline) {
+			return PooledBitsetCouponCalculator
+				.create(items, couponAmount, settings.getBufferPool(), deadline);
+		}
+	},
+
+	/**
+	 * Bitsets of reachable sums keeping a row per recursion level, for any size
+	 */
+	LINEAR_SPACE {
+		@Override
+		public double estimateCost(final int itemCount, final int couponAmount,
+			final CouponSettings settings) {
+			return linearSpaceCost(itemCount, couponAmount);
+		}
+
+		@Override
+		public CouponCalculator create(final Item[] items, final BigDecimal couponAmount,
+			final CouponSettings settings, final SolveDeadline deadline) {
+			return LinearSpaceCouponCalculator.create(items, couponAmount, null, deadline);
+		}
+	},
+
+	/**
+	 * Like {@link #LINEAR_SPACE}, splitting the words of each row across a fork-join pool. Only
+	 * used when the number of items times the coupon amount reaches the parallel threshold
+	 */
+	PARALLEL_LINEAR_SPACE {
+		@Override
+		public double estimateCost(final int itemCount, final int couponAmount,
+			final CouponSettings settings) {
+			if (settings.getParallelPool() == null
+				|| (long) itemCount * couponAmount < settings.getParallelThreshold()) {
+				return Double.POSITIVE_INFINITY;
+			}
+			return linearSpaceCost(itemCount, couponAmount)
+				/ settings.getParallelPool().getParallelism();
+		}
+
+		@Override
+		public CouponCalculator create(final Item[] items, final BigDecimal couponAmount,
+			final CouponSettings settings, final SolveDeadline deadline) {
+			return LinearSpaceCouponCalculator
+				.create(items, couponAmount, settings.getParallelPool(), deadline);
+		}
+	};
+
+	/**
+	 * Largest table of reachable sums, in bits, solved keeping one snapshot per item
+	 */
+	static final long MAX_SNAPSHOT_BITS = 1L << 25;
+
+	/**
+	 * Estimate the number of elementary operations needed to solve a problem
+	 *
+	 * @param itemCount the number of items
+	 * @param couponAmount the coupon amount
+	 * @param settings the calculation settings
+	 *
+	 * @return the estimated cost, infinite when the engine cannot be used for the problem
+	 */
+	public abstract double estimateCost(int itemCount, int couponAmount,
+		CouponSettings settings);
+
+	/**
+	 * Create a calculator of this type
+	 *
+	 * @param items the items to analyze
+	 * @param couponAmount the coupon amount
+	 * @param settings the calculation settings
+	 * @param deadline the instant the calculator has to return its best answer so far
+	 *
+	 * @return the calculator
+	 */
+	public abstract CouponCalculator create(Item[] items, BigDecimal couponAmount,
+		CouponSettings settings, SolveDeadline deadline);
+
+	/**
+	 * Create a calculator of this type without time limit
+	 *
+	 * @param items the items to analyze
+	 * @param couponAmount the coupon amount
+	 * @param settings the calculation settings
+	 *
+	 * @return the calculator
+	 */
+	public CouponCalculator create(final Item[] items, final BigDecimal couponAmount,
+		final CouponSettings settings) {
+		return create(items, couponAmount, settings, SolveDeadline.none());
+	}
+
+	/**
+	 * Choose the engine with the lowest estimated cost
+	 *
+	 * @param itemCount the number of items
+	 * @param couponAmount the coupon amount
+	 * @param settings the calculation settings
+	 *
+	 * @return the cheapest engine
+	 */
+	public static CouponCalculatorType cheapest(final int itemCount, final int couponAmount,
+		final CouponSettings settings) {
+		return Stream.of(values())
+			.min(Comparator.comparingDouble(
+				type -> type.estimateCost(itemCount, couponAmount, settings)))
+			.orElse(LINEAR_SPACE);
+	}
+
+	private static double snapshotCost(final int itemCount, final int couponAmount) {
+		if ((itemCount + 1L) * (couponAmount + 1L) > MAX_SNAPSHOT_BITS) {
+			return Double.POSITIVE_INFINITY;
+		}
+		return itemCount * words(couponAmount);
+	}
+
+	private static double linearSpaceCost(final int itemCount, final int couponAmount) {
+		final double levels = Math.ceil(Math.log(Math.max(itemCount, 1)) / Math.log(2));
+		return itemCount * words(couponAmount) * (1 + levels / 2);
+	}
+
+	private static double words(final int couponAmount) {
+		return ReachableSums.words(couponAmount);
+	}
+}
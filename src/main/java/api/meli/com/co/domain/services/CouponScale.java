@@ -0,0 +1,125 @@
+package api.meli.com.co.domain.services;
+
+import api.meli.com.co.domain.vo.CalculatedCoupon;
+import api.meli.com.co.domain.vo.CouponSettings;
+import api.meli.com.co.domain.vo.Item;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * This service reduces the amounts of a coupon calculation to the smallest unit that keeps the
+ * result unchanged. When every price and the coupon amount are exact multiples of the granularity
+ * of their site, they are expressed in it, otherwise they are truncated to whole money units as the
+ * calculators always did. Then they are divided by the greatest common divisor of all the prices,
+ * so the calculators work over a much smaller range without any rounding. The benefit returned is
+ * the sum of the real prices of the selected items
+ *
+ * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
+ * @since 1.0
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class CouponScale {
+
+	/**
+	 * The items with their prices expressed in units
+	 */
+	private final Item[] items;
+	/**
+	 * The coupon amount expressed in units
+	 */
+	private final BigDecimal couponAmount;
+	/**
+	 * The money value of one unit
+	 */
+	private final BigDecimal unit;
+	/**
+	 * The coupon amount truncated to the units the prices are expressed in
+	 */
+	private final BigDecimal truncatedCouponAmount;
+	/**
+	 * The real price of every item id
+	 */
+	private final Map<String, BigDecimal> prices;
+
+	public static CouponScale create(final Item[] items, final BigDecimal couponAmount,
+		final CouponSettings settings) {
+
+		final BigDecimal granularity = Stream.of(items)
+			.map(item -> settings.getGranularity(item.getId()))
+			.min(BigDecimal::compareTo)
+			.orElse(settings.getDefaultGranularity());
+
+		// A granularity that does not divide every amount would round them, and the best subset
+		// of the rounded prices is not always the best one of the real prices
+		final BigDecimal base = isMultiple(couponAmount, granularity)
+			&& Stream.of(items).allMatch(item -> isMultiple(item.getPrice(), granularity)) ?
+			granularity : BigDecimal.ONE;
+
+		final long[] prices = new long[items.length];
+		final Map<String, BigDecimal> realPrices = new HashMap<>();
+		long divisor = 0;
+		for (int i = 0; i < items.length; i++) {
+			prices[i] = toUnits(items[i].getPrice(), base);
+			realPrices.putIfAbsent(items[i].getId(), items[i].getPrice());
+			divisor = greatestCommonDivisor(divisor, prices[i]);
+		}
+		// Every subset sum is a multiple of the divisor, so dividing the coupon amount rounding
+		// down keeps the same best subset
+		final long step = divisor > 0 ? divisor : 1;
+		final long couponUnits = toUnits(couponAmount, base);
+
+		final Item[] scaledItems = new Item[items.length];
+		for (int i = 0; i < items.length; i++) {
+			scaledItems[i] = Item.create(items[i].getId(), BigDecimal.valueOf(prices[i] / step));
+		}
+
+		return new CouponScale(scaledItems, BigDecimal.valueOf(couponUnits / step),
+			base.multiply(BigDecimal.valueOf(step)),
+			BigDecimal.valueOf(couponUnits).multiply(base), realPrices);
+	}
+
+	/**
+	 * Express a coupon calculated over the scaled items in money again. The benefit is the sum of
+	 * the real prices of the applied items
+	 *
+	 * @param coupon the coupon calculated in units
+	 *
+	 * @return the coupon in money
+	 */
+	public CalculatedCoupon unscale(final CalculatedCoupon coupon) {
+		return CalculatedCoupon.builder()
+			.couponAmount(truncatedCouponAmount)
+			.maximumBenefit(coupon.getAppliedItems().stream()
+				.map(prices::get)
+				.reduce(BigDecimal.ZERO, BigDecimal::add))
+			.appliedItems(coupon.getAppliedItems())
+			.optimal(coupon.isOptimal())
+			.build();
+	}
+
+	private static long toUnits(final BigDecimal amount, final BigDecimal base) {
+		return amount.divide(base, 0, RoundingMode.DOWN).longValue();
+	}
+
+	private static boolean isMultiple(final BigDecimal amount, final BigDecimal granularity) {
+		return amount.remainder(granularity).signum() == 0;
+	}
+
+	private static long greatestCommonDivisor(final long a, final long b) {
+		long x = Math.abs(a);
+		long y = Math.abs(b);
+		while (y != 0) {
+			final long rest = x % y;
+			x = y;
+			y = rest;
+		}
+		return x;
+	}
+}
@@ -0,0 +1,160 @@
+package api.meli.com.co.domain.services;
+
+import api.meli.com.co.domain.vo.CalculatedCoupon;
+import api.meli.com.co.domain.vo.CouponSettings;
+import api.meli.com.co.domain.vo.Item;
+import api.meli.com.co.domain.vo.SolveDeadline;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * This service calculates the maximum benefit of several coupon amounts over the same items. The
+ * reachable sums are built once for the largest amount, and the last snapshot already answers
+ * every smaller amount: its best benefit is the highest reachable sum under it, and the applied
+ * items are rebuilt from the same snapshots. When the snapshots would be too large, each amount
+ * is solved with the cheapest {@link CouponCalculatorType}, until the deadline expires or the
+ * estimated work of the request reaches {@link #MAX_FALLBACK_COST}; the remaining amounts get the
+ * greedy answer
+ *
+ * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
+ * @since 1.0
+ */
+@Slf4j
+public class CouponSweepCalculator {
+
+	/**
+	 * Estimated elementary operations spent solving the amounts on their own in a single request
+	 */
+	static final double MAX_FALLBACK_COST = 1L << 30;
+
+	/**
+	 * List of elements to be analyzed
+	 */
+	private final Item[] items;
+	/**
+	 * The coupon amounts, in the order the results are returned
+	 */
+	private final int[] couponAmounts;
+	/**
+	 * The settings used when each amount has to be solved on its own
+	 */
+	private final CouponSettings settings;
+	/**
+	 * The instant the amounts solved on their own have to stop
+	 */
+	private final SolveDeadline deadline;
+	/**
+	 * Estimated elementary operations already spent solving amounts on their own
+	 */
+	private double spentCost;
+
+	private CouponSweepCalculator(final Item[] items, final int[] couponAmounts,
+		final CouponSettings settings, final SolveDeadline deadline) {
+		this.items = items;
+		this.couponAmounts = couponAmounts;
+		this.settings = settings;
+		this.deadline = deadline;
+	}
+
+	public static CouponSweepCalculator create(final Item[] items, final int[] couponAmounts,
+		final CouponSettings settings) {
+		return create(items, couponAmounts, settings, SolveDeadline.none());
+	}
+
+	public static CouponSweepCalculator create(final Item[] items, final int[] couponAmounts,
+		final CouponSettings settings, final SolveDeadline deadline) {
+		return new CouponSweepCalculator(items, couponAmounts, settings, deadline);
+	}
+
+	/**
+	 * Calculate the maximum benefit of every coupon amount
+	 *
+	 * @return the calculated coupons, in the same order as the amounts
+	 */
+	public List<CalculatedCoupon> calculateMaximumBenefits() {
+
+		final int capacity = IntStream.of(couponAmounts).max().orElse(0);
+		log.info(
+			"Starting analysis to calculate the maximum benefit for the coupons with amounts: {} and items: {}",
+			couponAmounts, items);
+
+		if ((items.length + 1L) * (capacity + 1L) > CouponCalculatorType.MAX_SNAPSHOT_BITS) {
+			log.info("The reachable sums up to [{}] are too large, each amount is solved on its own",
+				capacity);
+			return IntStream.of(couponAmounts)
+				.mapToObj(this::calculateMaximumBenefit)
+				.collect(Collectors.toList());
+		}
+
+		final long[][] reachableSums = fillReachableSums(capacity);
+		return IntStream.of(couponAmounts)
+			.mapToObj(amount -> buildCoupon(reachableSums, amount))
+			.collect(Collectors.toList());
+	}
+
+	private CalculatedCoupon calculateMaximumBenefit(final int couponAmount) {
+		final BigDecimal amount = BigDecimal.valueOf(couponAmount);
+		final CalculatedCoupon greedy = GreedyCouponCalculator.create(items, amount)
+			.calculateMaximumBenefit();
+		if (greedy.isOptimal()) {
+			return greedy;
+		}
+		final CouponCalculatorType type = CouponCalculatorType
+			.cheapest(items.length, couponAmount, settings);
+		final double cost = type.estimateCost(items.length, couponAmount, settings);
+		if (deadline.isExpired() || spentCost + cost > MAX_FALLBACK_COST) {
+			log.warn(
+				"The time or work limit of the request was reached, the coupon with amount: [{}] gets the greedy profit: [{}]",
+				couponAmount, greedy.getMaximumBenefit());
+			return greedy;
+		}
+		spentCost += cost;
+		final CalculatedCoupon coupon = type.create(items, amount, settings, deadline)
+			.calculateMaximumBenefit();
+		return coupon.getMaximumBenefit().compareTo(greedy.getMaximumBenefit()) >= 0 ?
+			coupon : greedy;
+	}
+
+	private long[][] fillReachableSums(final int capacity) {
+		final long[][] reachableSums = new long[items.length + 1][];
+		reachableSums[0] = ReachableSums.initial(capacity);
+		for (int i = 1; i <= items.length; i++) {
+			final int price = items[i - 1].getRoundedPrice();
+			if (price <= 0 || price > capacity) {
+				reachableSums[i] = reachableSums[i - 1];
+			} else {
+				reachableSums[i] = new long[reachableSums[i - 1].length];
+				ReachableSums.add(reachableSums[i - 1], reachableSums[i], price, capacity);
+			}
+		}
+		return reachableSums;
+	}
+
+	private CalculatedCoupon buildCoupon(final long[][] reachableSums, final int couponAmount) {
+		// Sums above the amount never reach the walk, so it selects the items a calculation with
+		// only this amount would select
+		final int maxBenefit = ReachableSums.highest(reachableSums[items.length], couponAmount);
+		final List<String> itemsApplied = new ArrayList<>();
+		int remaining = maxBenefit;
+		for (int i = items.length; i >= 1 && remaining > 0; i--) {
+			if (!ReachableSums.contains(reachableSums[i - 1], remaining)) {
+				itemsApplied.add(items[i - 1].getId());
+				remaining -= items[i - 1].getRoundedPrice();
+			}
+		}
+
+		log.info(
+			"The maximum profit found for the coupon with amount: [{}] is: [{}], adding the items: {}",
+			couponAmount, maxBenefit, itemsApplied);
+
+		return CalculatedCoupon.builder()
+			.couponAmount(BigDecimal.valueOf(couponAmount))
+			.maximumBenefit(BigDecimal.valueOf(maxBenefit))
+			.appliedItems(itemsApplied)
+			.build();
+	}
+}
@@ -0,0 +1,85 @@
+package api.meli.com.co.domain.services;
+
+import api.meli.com.co.domain.vo.CalculatedCoupon;
+import api.meli.com.co.domain.vo.Item;
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * This service gives a fast approximation of the maximum benefit of the coupon, adding the items
+ * from the most expensive one while they fit. It takes {@code O(n log n)} time whatever the coupon
+ * amount, so it is the answer of last resort when an exact calculation runs out of time. The result
+ * is only marked as optimal when it uses the whole coupon or every item fits
+ *
+ * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
+ * @since 1.0
+ */
+@Slf4j
+public class GreedyCouponCalculator implements CouponCalculator {
+
+	/**
+	 * List of elements to be analyzed
+	 */
+	private final Item[] items;
+	/**
+	 * the coupon amount
+	 */
+	private final int couponAmount;
+
+	private GreedyCouponCalculator(final Item[] items, final int couponAmount) {
+		this.items = items;
+		this.couponAmount = couponAmount;
+	}
+
+	public static GreedyCouponCalculator create(final Item[] items, final BigDecimal couponAmount) {
+		return new GreedyCouponCalculator(items, couponAmount.intValue());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CalculatedCoupon calculateMaximumBenefit() {
+
+		final int[] candidates = IntStream.range(0, items.length)
+			.filter(i -> items[i].getRoundedPrice() > 0
+				&& items[i].getRoundedPrice() <= couponAmount)
+			.boxed()
+			.sorted(Comparator.comparingInt((Integer i) -> items[i].getRoundedPrice()).reversed())
+			.mapToInt(Integer::intValue)
+			.toArray();
+
+		long benefit = 0;
+		boolean allFit = true;
+		final boolean[] selected = new boolean[items.length];
+		for (final int candidate : candidates) {
+			final int price = items[candidate].getRoundedPrice();
+			if (benefit + price <= couponAmount) {
+				selected[candidate] = true;
+				benefit += price;
+			} else {
+				allFit = false;
+			}
+		}
+
+		final List<String> itemsApplied = IntStream.range(0, items.length)
+			.filter(i -> selected[i])
+			.mapToObj(i -> items[i].getId())
+			.collect(Collectors.toList());
+
+		log.info(
+			"The greedy approximation for the coupon with amount: [{}] found a profit of: [{}], adding the items: {}",
+			couponAmount, benefit, itemsApplied);
+
+		return CalculatedCoupon.builder()
+			.couponAmount(BigDecimal.valueOf(couponAmount))
+			.maximumBenefit(BigDecimal.valueOf(benefit))
+			.appliedItems(itemsApplied)
+			.optimal(allFit || benefit == couponAmount)
+			.build();
+	}
+}
@@ -16,7 +16,7 @@ import lombok.extern.slf4j.Slf4j;
  * @since 1.0
  */
 @Slf4j
-public class KnapsackCouponCalculator {
+public class KnapsackCouponCalculator implements CouponCalculator {
 
 	/**
 	 * List of elements to be analyzed
@@ -51,6 +51,7 @@ public class KnapsackCouponCalculator {
 	 * Solve the backpack problem with the first n backpacks with a given total weight of total
 	 * weight
 	 */
+	@Override
 	public CalculatedCoupon calculateMaximumBenefit() {
 
 		log.info(
@@ -0,0 +1,242 @@
+package api.meli.com.co.domain.services;
+
+import api.meli.com.co.domain.vo.CalculatedCoupon;
+import api.meli.com.co.domain.vo.Item;
+import api.meli.com.co.domain.vo.SolveDeadline;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * This service calculates the maximum benefit of the coupon keeping a single row of reachable sums
+ * at a time, so the memory of that pass depends on the coupon amount and not on the number of
+ * items. The applied items are rebuilt by divide and conquer: the right half of the items is
+ * decided from the reachable sums of the left half, and then the left half is solved for the
+ * amount left over. The recursion reuses one row allocated per level, so the reconstruction takes
+ * {@code O(W log n)} bits rather than linear space, and selects the same items as {@link
+ * KnapsackCouponCalculator}. For very large coupons the words of each row can be computed in
+ * parallel on a fork-join pool. The items are only known at the end of the reconstruction, so when
+ * the deadline expires the calculation is abandoned and an empty coupon not proven optimal is
+ * returned
+ *
+ * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
+ * @since 1.0
+ */
+@Slf4j
+public class LinearSpaceCouponCalculator implements CouponCalculator {
+
+	/**
+	 * Rows up to this length, in words, are updated by the calling thread
+	 */
+	private static final int PARALLEL_CHUNK_WORDS = 1 << 12;
+
+	/**
+	 * List of elements to be analyzed
+	 */
+	private final Item[] items;
+	/**
+	 * the coupon amount
+	 */
+	private final int couponAmount;
+	/**
+	 * Composition of the optimal solution
+	 */
+	private final List<Item> bestSolution;
+	/**
+	 * Pool that updates the words of each row in parallel, or null to use the calling thread
+	 */
+	private final ForkJoinPool pool;
+	/**
+	 * The instant the calculation has to stop
+	 */
+	private final SolveDeadline deadline;
+	/**
+	 * The row of every recursion level of the reconstruction, reused by the calls of that level
+	 */
+	private final List<long[]> levelRows = new ArrayList<>();
+	/**
+	 * Whether the calculation was stopped by the deadline
+	 */
+	private boolean expired;
+
+	private LinearSpaceCouponCalculator(final Item[] items, final int couponAmount,
+		final ForkJoinPool pool, final SolveDeadline deadline) {
+		this.items = items;
+		this.couponAmount = couponAmount;
+		this.pool = pool;
+		this.deadline = deadline;
+		bestSolution = new ArrayList<>();
+	}
+
+	public static LinearSpaceCouponCalculator create(final Item[] items,
+		final BigDecimal couponAmount) {
+		return create(items, couponAmount, null, SolveDeadline.none());
+	}
+
+	public static LinearSpaceCouponCalculator create(final Item[] items,
+		final BigDecimal couponAmount, final ForkJoinPool pool) {
+		return create(items, couponAmount, pool, SolveDeadline.none());
+	}
+
+	public static LinearSpaceCouponCalculator create(final Item[] items,
+		final BigDecimal couponAmount, final ForkJoinPool pool, final SolveDeadline deadline) {
+		return new LinearSpaceCouponCalculator(items, couponAmount.intValue(), pool, deadline);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CalculatedCoupon calculateMaximumBenefit() {
+
+		log.info(
+			"Starting analysis to calculate the maximum benefit for the coupon with amount: [{}] and items: {}",
+			couponAmount, items);
+
+		final long[] allSums = addItems(ReachableSums.initial(couponAmount), 0, items.length);
+		final int maxBenefit = ReachableSums.highest(allSums, couponAmount);
+		if (items.length > 0) {
+			updateBestSolution(ReachableSums.initial(couponAmount), 0, items.length, maxBenefit, 0);
+		}
+		if (expired) {
+			log.warn(
+				"The deadline expired before the analysis for the coupon with amount: [{}] was completed",
+				couponAmount);
+			return CalculatedCoupon.builder()
+				.couponAmount(BigDecimal.valueOf(couponAmount))
+				.maximumBenefit(BigDecimal.ZERO)
+				.appliedItems(Collections.emptyList())
+				.optimal(false)
+				.build();
+		}
+
+		final List<String> itemsApplied = bestSolution.stream().map(Item::getId)
+			.collect(Collectors.toList());
+
+		log.info(
+			"The analysis for the calculation of the maximum benefit for the coupon with amount: [{}], and items: {} has been completed. The maximum profit found is: [{}], adding the items: {}",
+			couponAmount, items, maxBenefit, itemsApplied);
+
+		return CalculatedCoupon.builder()
+			.couponAmount(BigDecimal.valueOf(couponAmount))
+			.maximumBenefit(BigDecimal.valueOf(maxBenefit))
+			.appliedItems(itemsApplied)
+			.build();
+	}
+
+	/**
+	 * Decide which items in {@code [from, to)} belong to the solution
+	 *
+	 * @param prefixSums the reachable sums using the items before {@code from}
+	 * @param from the first item to decide, inclusive
+	 * @param to the last item to decide, exclusive
+	 * @param target the amount reached with the items before {@code to}
+	 * @param level the recursion level
+	 *
+	 * @return the amount still to be reached with the items before {@code from}
+	 */
+	private int updateBestSolution(final long[] prefixSums, final int from, final int to,
+		final int target, final int level) {
+
+		if (target == 0 || expired) {
+			return 0;
+		}
+		if (to - from == 1) {
+			if (ReachableSums.contains(prefixSums, target)) {
+				return target;
+			}
+			bestSolution.add(items[from]);
+			return target - items[from].getRoundedPrice();
+		}
+
+		final int middle = (from + to) >>> 1;
+		final int remaining = updateBestSolution(
+			addItems(copyToLevel(prefixSums, level), from, middle), middle, to, target, level + 1);
+		return updateBestSolution(prefixSums, from, middle, remaining, level + 1);
+	}
+
+	/**
+	 * Copy a row into the row of a recursion level, allocating it the first time the level is
+	 * reached
+	 */
+	private long[] copyToLevel(final long[] sums, final int level) {
+		if (levelRows.size() <= level) {
+			levelRows.add(new long[sums.length]);
+		}
+		final long[] row = levelRows.get(level);
+		System.arraycopy(sums, 0, row, 0, sums.length);
+		return row;
+	}
+
+	private long[] addItems(final long[] sums, final int from, final int to) {
+		if (pool == null || sums.length <= PARALLEL_CHUNK_WORDS) {
+			for (int i = from; i < to && !isExpired(); i++) {
+				final int price = items[i].getRoundedPrice();
+				if (price > 0 && price <= couponAmount) {
+					ReachableSums.add(sums, sums, price, couponAmount);
+				}
+			}
+			return sums;
+		}
+
+		// The chunks of a row read words owned by other chunks, so rows alternate between two
+		// arrays instead of being updated in place
+		long[] source = sums;
+		long[] target = new long[sums.length];
+		for (int i = from; i < to && !isExpired(); i++) {
+			final int price = items[i].getRoundedPrice();
+			if (price > 0 && price <= couponAmount) {
+				pool.invoke(new AddItemTask(source, target, price, couponAmount, 0, sums.length));
+				final long[] previous = source;
+				source = target;
+				target = previous;
+			}
+		}
+		return source;
+	}
+
+	private boolean isExpired() {
+		expired = expired || deadline.isExpired();
+		return expired;
+	}
+
+	/**
+	 * Adds an item to a range of words of a row, splitting the range while it is large
+	 */
+	private static final class AddItemTask extends RecursiveAction {
+
+		private final long[] source;
+		private final long[] target;
+		private final int price;
+		private final int couponAmount;
+		private final int fromWord;
+		private final int toWord;
+
+		private AddItemTask(final long[] source, final long[] target, final int price,
+			final int couponAmount, final int fromWord, final int toWord) {
+			this.source = source;
+			this.target = target;
+			this.price = price;
+			this.couponAmount = couponAmount;
+			this.fromWord = fromWord;
+			this.toWord = toWord;
+		}
+
+		@Override
+		protected void compute() {
+			if (toWord - fromWord <= PARALLEL_CHUNK_WORDS) {
+				ReachableSums
+					.add(source, 0, target, 0, price, couponAmount, fromWord, toWord);
+				return;
+			}
+			final int middle = (fromWord + toWord) >>> 1;
+			invokeAll(new AddItemTask(source, target, price, couponAmount, fromWord, middle),
+				new AddItemTask(source, target, price, couponAmount, middle, toWord));
+		}
+	}
+}
@@ -0,0 +1,160 @@
+package api.meli.com.co.domain.services;
+
+import api.meli.com.co.domain.vo.CalculatedCoupon;
+import api.meli.com.co.domain.vo.Item;
+import api.meli.com.co.domain.vo.SolveDeadline;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * This service calculates the maximum benefit of the coupon splitting the items in two halves. All
+ * the subset sums of each half are enumerated, the sums of the second half are sorted and, for every
+ * sum of the first half, the best complement is found with a binary search. The time grows with
+ * {@code 2^(n/2)} and not with the coupon amount, so it fits carts with up to {@link #MAX_ITEMS}
+ * items and large coupons. When the deadline expires, the best combination found among the sums of
+ * the first half already visited is returned as not proven optimal
+ *
+ * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
+ * @since 1.0
+ */
+@Slf4j
+public class MeetInTheMiddleCouponCalculator implements CouponCalculator {
+
+	/**
+	 * Maximum number of items that fit in the coupon this calculator can analyze
+	 */
+	public static final int MAX_ITEMS = 40;
+	/**
+	 * Bits reserved for the subset mask when the sums of the second half are packed with it
+	 */
+	private static final int MASK_BITS = 21;
+	/**
+	 * Sums of the first half visited between two checks of the deadline, minus one
+	 */
+	private static final int DEADLINE_CHECK_MASK = (1 << 10) - 1;
+
+	/**
+	 * List of elements to be analyzed
+	 */
+	private final Item[] items;
+	/**
+	 * the coupon amount
+	 */
+	private final int couponAmount;
+	/**
+	 * Positions in {@link #items} of the items that fit in the coupon
+	 */
+	private final int[] candidates;
+	/**
+	 * The instant the search has to stop
+	 */
+	private final SolveDeadline deadline;
+
+	private MeetInTheMiddleCouponCalculator(final Item[] items, final int couponAmount,
+		final SolveDeadline deadline) {
+		this.items = items;
+		this.couponAmount = couponAmount;
+		this.deadline = deadline;
+		candidates = IntStream.range(0, items.length)
+			.filter(i -> items[i].getRoundedPrice() > 0
+				&& items[i].getRoundedPrice() <= couponAmount)
+			.toArray();
+		if (candidates.length > MAX_ITEMS) {
+			throw new IllegalArgumentException(
+				"Too many items for the meet in the middle calculator: " + candidates.length);
+		}
+	}
+
+	public static MeetInTheMiddleCouponCalculator create(final Item[] items,
+		final BigDecimal couponAmount) {
+		return create(items, couponAmount, SolveDeadline.none());
+	}
+
+	public static MeetInTheMiddleCouponCalculator create(final Item[] items,
+		final BigDecimal couponAmount, final SolveDeadline deadline) {
+		return new MeetInTheMiddleCouponCalculator(items, couponAmount.intValue(), deadline);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CalculatedCoupon calculateMaximumBenefit() {
+
+		log.info(
+			"Starting analysis to calculate the maximum benefit for the coupon with amount: [{}] and items: {}",
+			couponAmount, items);
+
+		final int firstSize = candidates.length / 2;
+		final int secondSize = candidates.length - firstSize;
+		final long[] firstSums = subsetSums(0, firstSize);
+		final long[] secondSums = subsetSums(firstSize, secondSize);
+
+		// Each sum of the second half carries its mask in the low bits, so sorting keeps both
+		final long[] packedSeconds = new long[secondSums.length];
+		for (int mask = 0; mask < secondSums.length; mask++) {
+			packedSeconds[mask] = (secondSums[mask] << MASK_BITS) | mask;
+		}
+		Arrays.sort(packedSeconds);
+
+		long maxBenefit = 0;
+		int bestFirstMask = 0;
+		int bestSecondMask = 0;
+		boolean expired = false;
+		for (int mask = 0; mask < firstSums.length && maxBenefit < couponAmount; mask++) {
+			if ((mask & DEADLINE_CHECK_MASK) == DEADLINE_CHECK_MASK && deadline.isExpired()) {
+				expired = true;
+				break;
+			}
+			if (firstSums[mask] > couponAmount) {
+				continue;
+			}
+			final long key = (couponAmount - firstSums[mask] + 1) << MASK_BITS;
+			final int position = Arrays.binarySearch(packedSeconds, key);
+			// The key is never present because its mask bits are zero and the mask 0 is the empty
+			// subset, so the insertion point minus one is the best complement
+			final long complement = packedSeconds[-position - 2];
+			final long benefit = firstSums[mask] + (complement >>> MASK_BITS);
+			if (benefit > maxBenefit) {
+				maxBenefit = benefit;
+				bestFirstMask = mask;
+				bestSecondMask = (int) (complement & ((1L << MASK_BITS) - 1));
+			}
+		}
+
+		final long firstMask = bestFirstMask;
+		final long secondMask = bestSecondMask;
+		final List<String> itemsApplied = IntStream.range(0, candidates.length)
+			.filter(k -> k < firstSize ?
+				(firstMask & (1L << k)) != 0 : (secondMask & (1L << (k - firstSize))) != 0)
+			.mapToObj(k -> items[candidates[k]].getId())
+			.collect(Collectors.toList());
+
+		log.info(
+			"The analysis for the calculation of the maximum benefit for the coupon with amount: [{}], and items: {} has been completed. The maximum profit found is: [{}], adding the items: {}",
+			couponAmount, items, maxBenefit, itemsApplied);
+
+		return CalculatedCoupon.builder()
+			.couponAmount(BigDecimal.valueOf(couponAmount))
+			.maximumBenefit(BigDecimal.valueOf(maxBenefit))
+			.appliedItems(itemsApplied)
+			.optimal(!expired)
+			.build();
+	}
+
+	private long[] subsetSums(final int from, final int size) {
+		final long[] sums = new long[1 << size];
+		for (int k = 0; k < size; k++) {
+			final int price = items[candidates[from + k]].getRoundedPrice();
+			final int bit = 1 << k;
+			for (int mask = 0; mask < bit; mask++) {
+				sums[mask | bit] = sums[mask] + price;
+			}
+		}
+		return sums;
+	}
+}
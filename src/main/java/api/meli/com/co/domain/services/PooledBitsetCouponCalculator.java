@@ -0,0 +1,152 @@
+package api.meli.com.co.domain.services;
+
+import api.meli.com.co.domain.vo.CalculatedCoupon;
+import api.meli.com.co.domain.vo.Item;
+import api.meli.com.co.domain.vo.SolveDeadline;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * This service calculates the maximum benefit of the coupon like {@link BitsetCouponCalculator},
+ * but the prices, the snapshots of reachable sums and the selected positions live in primitive
+ * arrays taken from a {@link SolverBufferPool}. Once the pool has warmed up, the only memory
+ * allocated per request is the response. Like {@link BitsetCouponCalculator}, when the deadline
+ * expires the best combination of the items already added is returned as not proven optimal
+ *
+ * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
+ * @since 1.0
+ */
+@Slf4j
+public class PooledBitsetCouponCalculator implements CouponCalculator {
+
+	/**
+	 * List of elements to be analyzed
+	 */
+	private final Item[] items;
+	/**
+	 * the coupon amount
+	 */
+	private final int couponAmount;
+	/**
+	 * The pool of working arrays
+	 */
+	private final SolverBufferPool pool;
+	/**
+	 * The instant the calculation has to stop
+	 */
+	private final SolveDeadline deadline;
+
+	private PooledBitsetCouponCalculator(final Item[] items, final int couponAmount,
+		final SolverBufferPool pool, final SolveDeadline deadline) {
+		this.items = items;
+		this.couponAmount = couponAmount;
+		this.pool = pool;
+		this.deadline = deadline;
+	}
+
+	public static PooledBitsetCouponCalculator create(final Item[] items,
+		final BigDecimal couponAmount, final SolverBufferPool pool) {
+		return create(items, couponAmount, pool, SolveDeadline.none());
+	}
+
+	public static PooledBitsetCouponCalculator create(final Item[] items,
+		final BigDecimal couponAmount, final SolverBufferPool pool, final SolveDeadline deadline) {
+		return new PooledBitsetCouponCalculator(items, couponAmount.intValue(), pool, deadline);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CalculatedCoupon calculateMaximumBenefit() {
+
+		log.info(
+			"Starting analysis to calculate the maximum benefit for the coupon with amount: [{}] and items: {}",
+			couponAmount, items);
+
+		final int count = items.length;
+		final int[] prices = pool.ints(2 * count);
+		for (int i = 0; i < count; i++) {
+			prices[i] = items[i].getRoundedPrice();
+		}
+		final long[] table = pool
+			.words(Math.multiplyExact(count + 1, ReachableSums.words(couponAmount)));
+		final int addedCount = fill(table, prices, count);
+		final int selectedCount = select(table, prices, count, addedCount);
+
+		int maxBenefit = 0;
+		final List<String> itemsApplied = new ArrayList<>(selectedCount);
+		for (int k = count; k < count + selectedCount; k++) {
+			maxBenefit += prices[prices[k]];
+			itemsApplied.add(items[prices[k]].getId());
+		}
+
+		log.info(
+			"The analysis for the calculation of the maximum benefit for the coupon with amount: [{}], and items: {} has been completed. The maximum profit found is: [{}], adding the items: {}",
+			couponAmount, items, maxBenefit, itemsApplied);
+
+		return CalculatedCoupon.builder()
+			.couponAmount(BigDecimal.valueOf(couponAmount))
+			.maximumBenefit(BigDecimal.valueOf(maxBenefit))
+			.appliedItems(itemsApplied)
+			.optimal(addedCount == count)
+			.build();
+	}
+
+	/**
+	 * Fill the table of reachable sums until every price is added or the deadline expires
+	 *
+	 * @param table the table, with room for a row per price plus the empty row
+	 * @param prices the prices in {@code [0, count)}
+	 * @param count the number of prices
+	 *
+	 * @return the number of prices added
+	 */
+	private int fill(final long[] table, final int[] prices, final int count) {
+		final int words = ReachableSums.words(couponAmount);
+		Arrays.fill(table, 0, words, 0L);
+		table[0] = 1L;
+		for (int i = 1; i <= count; i++) {
+			if (deadline.isExpired()) {
+				log.warn("The deadline expired after adding [{}] of [{}] items", i - 1, count);
+				return i - 1;
+			}
+			final int price = prices[i - 1];
+			if (price <= 0 || price > couponAmount) {
+				System.arraycopy(table, (i - 1) * words, table, i * words, words);
+			} else {
+				ReachableSums.add(table, (i - 1) * words, table, i * words, price, couponAmount, 0,
+					words);
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Select the best combination of the prices added to the table
+	 *
+	 * @param table the table filled by {@link #fill}
+	 * @param prices the prices in {@code [0, count)}, followed by room for {@code count} positions
+	 * @param count the number of prices
+	 * @param addedCount the number of prices added to the table
+	 *
+	 * @return the number of selected positions, written from {@code prices[count]} onwards
+	 */
+	private int select(final long[] table, final int[] prices, final int count,
+		final int addedCount) {
+
+		final int words = ReachableSums.words(couponAmount);
+		int remaining = ReachableSums.highest(table, addedCount * words, couponAmount);
+		int selectedCount = 0;
+		for (int i = addedCount; i >= 1 && remaining > 0; i--) {
+			if (!ReachableSums.contains(table, (i - 1) * words, remaining)) {
+				prices[count + selectedCount++] = i - 1;
+				remaining -= prices[i - 1];
+			}
+		}
+		return selectedCount;
+	}
+}
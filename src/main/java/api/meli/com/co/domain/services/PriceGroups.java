@@ -0,0 +1,114 @@
+package api.meli.com.co.domain.services;
+
+import api.meli.com.co.domain.vo.CalculatedCoupon;
+import api.meli.com.co.domain.vo.Item;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * This service collapses the items that share a price before a coupon is calculated. The {@code c}
+ * items of a price become the bundles of 1, 2, 4... items plus the rest, whose sums reach any count
+ * from 0 to {@code c}, so the calculators see {@code O(log c)} items per distinct price instead of
+ * {@code c}. The bundles of a calculated coupon are turned back into the first items of each price
+ *
+ * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
+ * @since 1.0
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class PriceGroups {
+
+	/**
+	 * The items to calculate the coupon with: the bundles, or the original items when no price is
+	 * repeated
+	 */
+	@Getter
+	private final Item[] items;
+	/**
+	 * The original items
+	 */
+	private final Item[] sourceItems;
+	/**
+	 * Price of one item of every bundle, or null when the items were not grouped
+	 */
+	private final int[] bundlePrices;
+	/**
+	 * Number of items of every bundle, or null when the items were not grouped
+	 */
+	private final int[] bundleSizes;
+
+	public static PriceGroups create(final Item[] items, final BigDecimal couponAmount) {
+		final Map<Integer, Integer> counts = new HashMap<>();
+		for (final Item item : items) {
+			counts.merge(item.getRoundedPrice(), 1, Integer::sum);
+		}
+		if (counts.size() == items.length) {
+			return new PriceGroups(items, items, null, null);
+		}
+
+		final long capacity = couponAmount.longValue();
+		final List<Item> bundles = new ArrayList<>();
+		final List<int[]> bundleShapes = new ArrayList<>();
+		counts.entrySet().stream()
+			.sorted(Map.Entry.comparingByKey())
+			.forEach(group -> {
+				final int price = group.getKey();
+				int remaining = group.getValue();
+				for (int size = 1; remaining > 0; size *= 2) {
+					final int bundleSize = Math.min(size, remaining);
+					remaining -= bundleSize;
+					final long bundlePrice = (long) price * bundleSize;
+					// A count that fits in the coupon only needs bundles that fit in it too
+					if (bundlePrice <= capacity) {
+						bundles.add(Item.create(String.valueOf(bundles.size()),
+							BigDecimal.valueOf(bundlePrice)));
+						bundleShapes.add(new int[]{price, bundleSize});
+					}
+				}
+			});
+
+		return new PriceGroups(bundles.toArray(new Item[0]), items,
+			bundleShapes.stream().mapToInt(shape -> shape[0]).toArray(),
+			bundleShapes.stream().mapToInt(shape -> shape[1]).toArray());
+	}
+
+	/**
+	 * Replace the bundles applied to a coupon by the original items
+	 *
+	 * @param coupon the coupon calculated with {@link #getItems()}
+	 *
+	 * @return the coupon with the original items
+	 */
+	public CalculatedCoupon ungroup(final CalculatedCoupon coupon) {
+		if (bundlePrices == null) {
+			return coupon;
+		}
+
+		final Map<Integer, Integer> counts = new HashMap<>();
+		coupon.getAppliedItems().stream()
+			.mapToInt(Integer::parseInt)
+			.forEach(bundle -> counts
+				.merge(bundlePrices[bundle], bundleSizes[bundle], Integer::sum));
+
+		final List<String> itemsApplied = new ArrayList<>();
+		for (final Item item : sourceItems) {
+			final int remaining = counts.getOrDefault(item.getRoundedPrice(), 0);
+			if (remaining > 0) {
+				itemsApplied.add(item.getId());
+				counts.put(item.getRoundedPrice(), remaining - 1);
+			}
+		}
+
+		return CalculatedCoupon.builder()
+			.couponAmount(coupon.getCouponAmount())
+			.maximumBenefit(coupon.getMaximumBenefit())
+			.appliedItems(itemsApplied)
+			.optimal(coupon.isOptimal())
+			.build();
+	}
+}
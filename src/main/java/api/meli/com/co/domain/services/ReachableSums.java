@@ -0,0 +1,159 @@
+package api.meli.com.co.domain.services;
+
+/**
+ * Bitset operations over the set of reachable sums of a subset-sum problem. Bit {@code s} of a
+ * row is set when some subset of the items processed so far adds up exactly to {@code s}
+ *
+ * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
+ * @since 1.0
+ */
+final class ReachableSums {
+
+	private static final int WORD_BITS = 64;
+	private static final int WORD_SHIFT = 6;
+
+	private ReachableSums() {
+	}
+
+	/**
+	 * Number of words needed to hold the sums from zero up to the capacity
+	 *
+	 * @param capacity the maximum sum tracked
+	 *
+	 * @return the row length in words
+	 */
+	static int words(final int capacity) {
+		return (capacity >>> WORD_SHIFT) + 1;
+	}
+
+	/**
+	 * Create the row where only the empty subset (sum zero) is reachable
+	 *
+	 * @param capacity the maximum sum tracked
+	 *
+	 * @return the initial row
+	 */
+	static long[] initial(final int capacity) {
+		final long[] row = new long[words(capacity)];
+		row[0] = 1L;
+		return row;
+	}
+
+	/**
+	 * Add an item to the reachable sums: {@code target = source | (source << price)}, discarding
+	 * the sums above the capacity. The source and target may be the same array
+	 *
+	 * @param source the reachable sums before adding the item
+	 * @param target the row where the result is written
+	 * @param price the item price
+	 * @param capacity the maximum sum tracked
+	 */
+	static void add(final long[] source, final long[] target, final int price, final int capacity) {
+		add(source, 0, target, 0, price, capacity, 0, words(capacity));
+	}
+
+	/**
+	 * Add an item to the word range {@code [fromWord, toWord)} of the reachable sums. Each target
+	 * word depends only on source words, so disjoint ranges may be computed independently when the
+	 * source and target are different arrays
+	 *
+	 * @param source the array holding the reachable sums before adding the item
+	 * @param sourceOffset the index of the first word of the source row
+	 * @param target the array where the result is written
+	 * @param targetOffset the index of the first word of the target row
+	 * @param price the item price
+	 * @param capacity the maximum sum tracked
+	 * @param fromWord the first word to compute, inclusive
+	 * @param toWord the last word to compute, exclusive
+	 */
+	static void add(final long[] source, final int sourceOffset, final long[] target,
+		final int targetOffset, final int price, final int capacity, final int fromWord,
+		final int toWord) {
+
+		final int wordShift = price >>> WORD_SHIFT;
+		final int bitShift = price & (WORD_BITS - 1);
+		final int lastWord = words(capacity) - 1;
+
+		// Walk downwards so that an in-place update never reads a word it has already written
+		for (int w = toWord - 1; w >= fromWord; w--) {
+			long shifted = 0L;
+			final int low = w - wordShift;
+			if (low >= 0) {
+				shifted = source[sourceOffset + low] << bitShift;
+				if (bitShift != 0 && low > 0) {
+					shifted |= source[sourceOffset + low - 1] >>> (WORD_BITS - bitShift);
+				}
+			}
+			long value = source[sourceOffset + w] | shifted;
+			if (w == lastWord) {
+				value &= lastWordMask(capacity);
+			}
+			target[targetOffset + w] = value;
+		}
+	}
+
+	/**
+	 * Check whether a sum is reachable
+	 *
+	 * @param row the reachable sums
+	 * @param sum the sum to check
+	 *
+	 * @return true if some subset adds up to the sum
+	 */
+	static boolean contains(final long[] row, final int sum) {
+		return contains(row, 0, sum);
+	}
+
+	/**
+	 * Check whether a sum is reachable in a row stored at an offset
+	 *
+	 * @param row the array holding the reachable sums
+	 * @param offset the index of the first word of the row
+	 * @param sum the sum to check
+	 *
+	 * @return true if some subset adds up to the sum
+	 */
+	static boolean contains(final long[] row, final int offset, final int sum) {
+		return (row[offset + (sum >>> WORD_SHIFT)] & (1L << (sum & (WORD_BITS - 1)))) != 0;
+	}
+
+	/**
+	 * Get the greatest reachable sum not above the capacity
+	 *
+	 * @param row the reachable sums
+	 * @param capacity the maximum sum allowed
+	 *
+	 * @return the greatest reachable sum
+	 */
+	static int highest(final long[] row, final int capacity) {
+		return highest(row, 0, capacity);
+	}
+
+	/**
+	 * Get the greatest reachable sum not above the capacity, for a row stored at an offset
+	 *
+	 * @param row the array holding the reachable sums
+	 * @param offset the index of the first word of the row
+	 * @param capacity the maximum sum allowed
+	 *
+	 * @return the greatest reachable sum
+	 */
+	static int highest(final long[] row, final int offset, final int capacity) {
+		final int lastWord = capacity >>> WORD_SHIFT;
+		for (int w = lastWord; w >= 0; w--) {
+			long value = row[offset + w];
+			if (w == lastWord) {
+				value &= lastWordMask(capacity);
+			}
+			if (value != 0) {
+				return (w << WORD_SHIFT) + (WORD_BITS - 1 - Long.numberOfLeadingZeros(value));
+			}
+		}
+		return 0;
+	}
+
+	private static long lastWordMask(final int capacity) {
+		final int bits = (capacity & (WORD_BITS - 1)) + 1;
+		return bits == WORD_BITS ? -1L : (1L << bits) - 1;
+	}
+}
@@ -0,0 +1,90 @@
+package api.meli.com.co.domain.services;
+
+/**
+ * This pool keeps per thread the working arrays of the calculators, so a thread that solves coupon
+ * after coupon reuses the same memory. Each array grows to the largest recent request and is
+ * retained only while it stays under the configured cap; bigger requests get a temporary array. An
+ * array that has been much larger than the requests for a while is released
+ *
+ * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
+ * @since 1.0
+ */
+public final class SolverBufferPool {
+
+	/**
+	 * Consecutive requests using less than a quarter of an array before it is released
+	 */
+	private static final int SHRINK_AFTER_USES = 256;
+
+	/**
+	 * Maximum number of longs retained per thread
+	 */
+	private final int maxRetainedWords;
+
+	/**
+	 * The arrays of each thread
+	 */
+	private final ThreadLocal<Buffers> buffers = ThreadLocal.withInitial(Buffers::new);
+
+	public SolverBufferPool(final int maxRetainedWords) {
+		this.maxRetainedWords = maxRetainedWords;
+	}
+
+	/**
+	 * Get an array of longs of at least the given size. Its content is undefined and it must not be
+	 * used after the next call from the same thread
+	 *
+	 * @param size the minimum length
+	 *
+	 * @return the array
+	 */
+	public long[] words(final int size) {
+		final Buffers current = buffers.get();
+		if (size > maxRetainedWords) {
+			return new long[size];
+		}
+		if (current.words.length < size || current.shouldShrinkWords(size)) {
+			current.words = new long[size];
+			current.smallWordUses = 0;
+		}
+		return current.words;
+	}
+
+	/**
+	 * Get an array of ints of at least the given size. Its content is undefined and it must not be
+	 * used after the next call from the same thread
+	 *
+	 * @param size the minimum length
+	 *
+	 * @return the array
+	 */
+	public int[] ints(final int size) {
+		final Buffers current = buffers.get();
+		if (size > maxRetainedWords * 2L) {
+			return new int[size];
+		}
+		if (current.ints.length < size || current.shouldShrinkInts(size)) {
+			current.ints = new int[size];
+			current.smallIntUses = 0;
+		}
+		return current.ints;
+	}
+
+	private static final class Buffers {
+
+		private long[] words = new long[0];
+		private int[] ints = new int[0];
+		private int smallWordUses;
+		private int smallIntUses;
+
+		private boolean shouldShrinkWords(final int size) {
+			smallWordUses = size < words.length / 4 ? smallWordUses + 1 : 0;
+			return smallWordUses > SHRINK_AFTER_USES;
+		}
+
+		private boolean shouldShrinkInts(final int size) {
+			smallIntUses = size < ints.length / 4 ? smallIntUses + 1 : 0;
+			return smallIntUses > SHRINK_AFTER_USES;
+		}
+	}
+}
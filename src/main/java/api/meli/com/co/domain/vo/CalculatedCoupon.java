@@ -20,4 +20,10 @@ public final class CalculatedCoupon {
 	private final BigDecimal couponAmount;
 	private final BigDecimal maximumBenefit;
 	private final List<String> appliedItems;
+	/**
+	 * Whether no other combination of items can use more of the coupon. It is false when the
+	 * calculation was stopped by its deadline
+	 */
+	@Builder.Default
+	private final boolean optimal = true;
 }
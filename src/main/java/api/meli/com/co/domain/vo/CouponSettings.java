@@ -0,0 +1,75 @@
+package api.meli.com.co.domain.vo;
+
+import api.meli.com.co.domain.services.SolverBufferPool;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * This value object describes the settings used to calculate the maximum benefit of a coupon
+ *
+ * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
+ * @since 1.0
+ */
+@Getter
+@Builder
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class CouponSettings {
+
+	/**
+	 * Length of the site prefix of the item ids, for example MCO or MLA
+	 */
+	private static final int SITE_ID_LENGTH = 3;
+
+	/**
+	 * Price step used for sites without a specific granularity
+	 */
+	@Builder.Default
+	private final BigDecimal defaultGranularity = BigDecimal.ONE;
+
+	/**
+	 * Price step by site id. Prices are truncated to a multiple of this step before solving
+	 */
+	@Builder.Default
+	private final Map<String, BigDecimal> siteGranularity = Collections.emptyMap();
+
+	/**
+	 * Pool of working arrays shared by the calculators, or null to allocate them per request
+	 */
+	private final SolverBufferPool bufferPool;
+
+	/**
+	 * Pool used to split the largest calculations across threads, or null to solve every request in
+	 * the calling thread
+	 */
+	private final ForkJoinPool parallelPool;
+
+	/**
+	 * Minimum number of items times the coupon amount solved on {@link #parallelPool}
+	 */
+	private final long parallelThreshold;
+
+	/**
+	 * Time a calculation may spend improving its answer, or null to always find the optimal one
+	 */
+	private final Duration solveTimeout;
+
+	/**
+	 * Get the price step of the site the item belongs to
+	 *
+	 * @param itemId the item id, prefixed by its site id
+	 *
+	 * @return the price granularity
+	 */
+	public BigDecimal getGranularity(final String itemId) {
+		final String siteId = itemId.length() > SITE_ID_LENGTH ?
+			itemId.substring(0, SITE_ID_LENGTH) : itemId;
+		return siteGranularity.getOrDefault(siteId, defaultGranularity);
+	}
+}
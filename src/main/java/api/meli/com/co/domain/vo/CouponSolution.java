@@ -0,0 +1,109 @@
+package api.meli.com.co.domain.vo;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * This value object describes the optimal solution of a coupon calculation by the prices of the
+ * applied items instead of their ids, so it can be shared by every request whose items have the
+ * same prices and whose coupon has the same amount, whatever the items are
+ *
+ * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
+ * @since 1.0
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class CouponSolution {
+
+	private static final String KEY_PREFIX = "coupon-solution:";
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+	private final long maximumBenefit;
+	private final List<Integer> appliedPrices;
+
+	public static CouponSolution create(final long maximumBenefit,
+		final List<Integer> appliedPrices) {
+		return new CouponSolution(maximumBenefit, appliedPrices);
+	}
+
+	/**
+	 * Describe a calculated coupon by the prices of its applied items
+	 *
+	 * @param coupon the calculated coupon
+	 * @param items the items the coupon was calculated with
+	 *
+	 * @return the solution
+	 */
+	public static CouponSolution create(final CalculatedCoupon coupon, final Item[] items) {
+		final Map<String, Integer> prices = new HashMap<>();
+		Stream.of(items).forEach(item -> prices.put(item.getId(), item.getRoundedPrice()));
+		return new CouponSolution(coupon.getMaximumBenefit().longValue(),
+			coupon.getAppliedItems().stream().map(prices::get).collect(Collectors.toList()));
+	}
+
+	/**
+	 * Get the key shared by every calculation with the same prices and coupon amount, regardless of
+	 * the order and the ids of the items
+	 *
+	 * @param items the items to calculate the coupon with
+	 * @param couponAmount the coupon amount
+	 *
+	 * @return the key
+	 */
+	public static String key(final Item[] items, final BigDecimal couponAmount) {
+		final String prices = Stream.of(items)
+			.mapToInt(Item::getRoundedPrice)
+			.sorted()
+			.mapToObj(String::valueOf)
+			.collect(Collectors.joining(","));
+		try {
+			final byte[] hash = MessageDigest.getInstance("SHA-256")
+				.digest((couponAmount.intValue() + ":" + prices).getBytes(StandardCharsets.UTF_8));
+			final StringBuilder key = new StringBuilder(KEY_PREFIX);
+			for (final byte value : hash) {
+				key.append(HEX_DIGITS[(value >> 4) & 0xF]).append(HEX_DIGITS[value & 0xF]);
+			}
+			return key.toString();
+		} catch (final NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+	}
+
+	/**
+	 * Build the calculated coupon of this solution for a set of items with the same prices it was
+	 * found with. Every applied price takes the first item of that price not taken yet
+	 *
+	 * @param items the items to calculate the coupon with
+	 * @param couponAmount the coupon amount
+	 *
+	 * @return the calculated coupon
+	 */
+	public CalculatedCoupon toCoupon(final Item[] items, final BigDecimal couponAmount) {
+		final Map<Integer, Deque<String>> itemsByPrice = new HashMap<>();
+		Stream.of(items).forEach(item -> itemsByPrice
+			.computeIfAbsent(item.getRoundedPrice(), price -> new ArrayDeque<>())
+			.add(item.getId()));
+
+		final List<String> itemsApplied = new ArrayList<>(appliedPrices.size());
+		appliedPrices.forEach(price -> itemsApplied.add(itemsByPrice.get(price).poll()));
+
+		return CalculatedCoupon.builder()
+			.couponAmount(couponAmount)
+			.maximumBenefit(BigDecimal.valueOf(maximumBenefit))
+			.appliedItems(itemsApplied)
+			.build();
+	}
+}
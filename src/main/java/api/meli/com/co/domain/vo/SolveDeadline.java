@@ -0,0 +1,55 @@
+package api.meli.com.co.domain.vo;
+
+import java.time.Duration;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+
+/**
+ * This value object describes the instant a coupon calculation has to stop improving its answer
+ *
+ * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
+ * @since 1.0
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class SolveDeadline {
+
+	private static final SolveDeadline NONE = new SolveDeadline(false, 0);
+
+	/**
+	 * Whether the calculation has a time limit
+	 */
+	private final boolean bounded;
+	/**
+	 * Value of {@link System#nanoTime()} when the time limit is reached
+	 */
+	private final long expiresAt;
+
+	/**
+	 * Get a deadline that never expires
+	 *
+	 * @return the deadline
+	 */
+	public static SolveDeadline none() {
+		return NONE;
+	}
+
+	/**
+	 * Get a deadline that expires once the timeout has elapsed from now
+	 *
+	 * @param timeout the time limit, or null for no limit
+	 *
+	 * @return the deadline
+	 */
+	public static SolveDeadline after(final Duration timeout) {
+		return timeout == null ? NONE : new SolveDeadline(true, System.nanoTime() + timeout.toNanos());
+	}
+
+	/**
+	 * Check if the time limit has been reached
+	 *
+	 * @return true when the calculation has to stop
+	 */
+	public boolean isExpired() {
+		return bounded && System.nanoTime() - expiresAt >= 0;
+	}
+}
@@ -6,15 +6,23 @@ import static io.vavr.API.Match;
 import static io.vavr.Predicates.instanceOf;
 
 import api.meli.com.co.application.CouponUseCases;
+import api.meli.com.co.domain.aggregate.CouponAggregate;
 import api.meli.com.co.domain.exceptions.InvalidAmountException;
 import api.meli.com.co.domain.exceptions.ItemsNotFoundException;
 import api.meli.com.co.infrastructure.adapters.api.contracts.CouponRequest;
 import api.meli.com.co.infrastructure.adapters.api.contracts.CouponResponse;
+import api.meli.com.co.infrastructure.adapters.api.contracts.CouponSweepRequest;
+import api.meli.com.co.infrastructure.adapters.api.contracts.CouponSweepResponse;
 import java.math.BigDecimal;
 import java.security.Principal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import javax.validation.Valid;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.collections4.CollectionUtils;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -61,16 +69,66 @@ public class CouponController {
 					"A request has been received to calculate the maximum coupon benefit for the user: [{}] with coupon value: [{}]",
 					user, request.getAmount());
 
-				return couponUseCases
-					.calculateMaximumBenefit(request.getAmount(), request.getItemIds());
+				return couponUseCases.calculateMaximumBenefit(request.getAmount(),
+					request.getItemIds(), request.getEpsilon());
 			})
 			.flatMap(Mono::fromCompletionStage)
-			.map(coupon -> new CouponResponse(coupon.getAppliedItems(), coupon.getMaximumBenefit()))
+			.map(coupon -> new CouponResponse(coupon.getAppliedItems(), coupon.getMaximumBenefit(),
+				coupon.isOptimal()))
 			.map(ResponseEntity::ok)
 			.onErrorResume(error -> Mono.just(buildResponseFromError(error, request.getAmount())));
 	}
 
-	private ResponseEntity<CouponResponse> buildResponseFromError(final Throwable error,
+	/**
+	 * This endpoint allows you to calculate the maximum benefit of several coupon amounts for a
+	 * customer given a list of products, querying and analyzing the products only once
+	 *
+	 * @param request the request with the coupon amounts, or their range, and items
+	 * @param principal the principal with auth
+	 *
+	 * @return the maximum benefit of every amount, in the requested order
+	 */
+	@PostMapping("/sweep")
+	public Mono<ResponseEntity<List<CouponSweepResponse>>> calculateItemsToBuyByAmount(
+		@Valid @RequestBody final CouponSweepRequest request, final Mono<Principal> principal) {
+
+		final List<BigDecimal> amounts = getAmounts(request);
+		return principal
+			.map(Principal::getName)
+			.map(user -> {
+				log.info(
+					"A request has been received to calculate the maximum coupon benefit for the user: [{}] with coupon values: {}",
+					user, amounts);
+
+				return couponUseCases.calculateMaximumBenefits(amounts, request.getItemIds());
+			})
+			.flatMap(Mono::fromCompletionStage)
+			.map(coupons -> IntStream.range(0, coupons.size())
+				.mapToObj(i -> new CouponSweepResponse(amounts.get(i),
+					coupons.get(i).getAppliedItems(), coupons.get(i).getMaximumBenefit(),
+					coupons.get(i).isOptimal()))
+				.collect(Collectors.toList()))
+			.map(ResponseEntity::ok)
+			.onErrorResume(error -> Mono.just(buildResponseFromError(error, request.getTo())));
+	}
+
+	private List<BigDecimal> getAmounts(final CouponSweepRequest request) {
+		if (CollectionUtils.isNotEmpty(request.getAmounts()) || request.getFrom() == null
+			|| request.getTo() == null || request.getStep() == null) {
+			return request.getAmounts();
+		}
+		// One amount past the limit is enough for the use case to reject the range
+		final List<BigDecimal> amounts = new ArrayList<>();
+		for (BigDecimal amount = request.getFrom();
+			amount.compareTo(request.getTo()) <= 0
+				&& amounts.size() <= CouponAggregate.MAX_COUPON_AMOUNTS;
+			amount = amount.add(request.getStep())) {
+			amounts.add(amount);
+		}
+		return amounts;
+	}
+
+	private <T> ResponseEntity<T> buildResponseFromError(final Throwable error,
 		final BigDecimal amount) {
 
 		return Match(error).of(
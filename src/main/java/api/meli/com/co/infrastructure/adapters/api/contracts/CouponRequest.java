@@ -6,6 +6,8 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import java.io.Serializable;
 import java.math.BigDecimal;
 import java.util.List;
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
@@ -14,7 +16,8 @@ import lombok.NoArgsConstructor;
 
 /**
  * This request contains the necessary data to consult the items that can be purchased given the
- * amount of the coupon
+ * amount of the coupon. When an epsilon is given, a total up to that fraction below the maximum one
+ * is accepted
  *
  * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
  * @since 1.0
@@ -32,4 +35,8 @@ public class CouponRequest implements Serializable {
 
 	@JsonProperty("item_ids")
 	private List<String> itemIds;
+
+	@DecimalMin(value = "0", inclusive = false)
+	@DecimalMax(value = "1", inclusive = false)
+	private BigDecimal epsilon;
 }
@@ -12,7 +12,8 @@ import lombok.NoArgsConstructor;
 
 /**
  * This response contains the items that can be purchased given the amount of the coupon and the
- * total purchase that can be made
+ * total purchase that can be made. The purchase is not optimal when the calculation ran out of time
+ * and the best combination found so far is returned
  *
  * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
  * @since 1.0
@@ -27,4 +28,5 @@ public class CouponResponse implements Serializable {
 	@JsonProperty("item_ids")
 	private List<String> itemIds;
 	private BigDecimal total;
+	private Boolean optimal;
 }
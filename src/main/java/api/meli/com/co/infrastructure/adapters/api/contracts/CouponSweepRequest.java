@@ -0,0 +1,42 @@
+package api.meli.com.co.infrastructure.adapters.api.contracts;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.List;
+import javax.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * This request contains the necessary data to consult the items that can be purchased with several
+ * coupon amounts. The amounts are given as a list or as a range from an amount to another one with
+ * a step
+ *
+ * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
+ * @since 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CouponSweepRequest implements Serializable {
+
+	private List<BigDecimal> amounts;
+
+	@Min(1)
+	private BigDecimal from;
+
+	@Min(1)
+	private BigDecimal to;
+
+	@Min(1)
+	private BigDecimal step;
+
+	@JsonProperty("item_ids")
+	private List<String> itemIds;
+}
@@ -0,0 +1,33 @@
+package api.meli.com.co.infrastructure.adapters.api.contracts;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * This response contains, for one of the requested coupon amounts, the items that can be purchased
+ * and the total purchase that can be made. The purchase is not optimal when the calculation ran out
+ * of time and the best combination found so far is returned
+ *
+ * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
+ * @since 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CouponSweepResponse implements Serializable {
+
+	private BigDecimal amount;
+	@JsonProperty("item_ids")
+	private List<String> itemIds;
+	private BigDecimal total;
+	private Boolean optimal;
+}
@@ -0,0 +1,101 @@
+package api.meli.com.co.infrastructure.adapters.clients;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * This policy decides when a slow remote request deserves a second identical request. The delay
+ * before hedging is a percentile of the latencies recently recorded, and every hedge spends a token
+ * of a budget that each request refills by a fraction, so hedging never adds more than that
+ * fraction of the requests to the remote service
+ *
+ * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
+ * @since 1.0
+ */
+public class HedgePolicy {
+
+	/**
+	 * Number of recent latencies kept
+	 */
+	static final int SAMPLES = 512;
+
+	/**
+	 * Number of latencies recorded before the delay is recalculated
+	 */
+	private static final int RECALCULATE_EVERY = SAMPLES / 8;
+
+	/**
+	 * Maximum number of hedges that can be saved up during quiet periods
+	 */
+	private static final double MAX_TOKENS = 10;
+
+	/**
+	 * The percentile of the latencies used as delay, between 0 and 1
+	 */
+	private final double percentile;
+
+	/**
+	 * The tokens each request adds to the budget
+	 */
+	private final double budget;
+
+	/**
+	 * The recent latencies in nanoseconds, used as a ring
+	 */
+	private final long[] latencies = new long[SAMPLES];
+
+	private long recorded;
+	private double tokens;
+	private Duration delay;
+
+	/**
+	 * Default constructor
+	 *
+	 * @param percentile the percentile of the latencies used as delay, between 0 and 1
+	 * @param budget the maximum fraction of the requests that can be hedged
+	 */
+	public HedgePolicy(final double percentile, final double budget) {
+		this.percentile = percentile;
+		this.budget = budget;
+	}
+
+	/**
+	 * Register a new request, refilling the budget
+	 *
+	 * @return the time to wait before hedging it, or empty until enough latencies are recorded
+	 */
+	public synchronized Optional<Duration> onRequest() {
+		tokens = Math.min(MAX_TOKENS, tokens + budget);
+		return Optional.ofNullable(delay);
+	}
+
+	/**
+	 * Take a token of the budget to send a hedge
+	 *
+	 * @return true when the hedge can be sent
+	 */
+	public synchronized boolean tryHedge() {
+		if (tokens < 1) {
+			return false;
+		}
+		tokens--;
+		return true;
+	}
+
+	/**
+	 * Record the time a request took to answer
+	 *
+	 * @param latency the latency
+	 */
+	public synchronized void record(final Duration latency) {
+		latencies[(int) (recorded % SAMPLES)] = latency.toNanos();
+		recorded++;
+		if (recorded % RECALCULATE_EVERY == 0) {
+			final long[] sorted = Arrays.copyOf(latencies, (int) Math.min(recorded, SAMPLES));
+			Arrays.sort(sorted);
+			delay = Duration.ofNanos(
+				sorted[(int) Math.min(sorted.length - 1, (long) (percentile * sorted.length))]);
+		}
+	}
+}
@@ -5,14 +5,20 @@ import api.meli.com.co.infrastructure.exceptions.RemoteServiceException;
 import java.io.Serializable;
 import java.math.BigDecimal;
 import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreakerFactory;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
@@ -25,6 +31,11 @@ import reactor.core.publisher.Mono;
 @Component
 public class MeliItemRestClient {
 
+	/**
+	 * Maximum number of ids the remote service accepts in a multiget request
+	 */
+	public static final int MAX_IDS_PER_REQUEST = 20;
+
 	/**
 	 * Web client to interact with the Meli Items Api
 	 */
@@ -40,17 +51,35 @@ public class MeliItemRestClient {
 	 */
 	private final int timeout;
 
+	/**
+	 * The policy to hedge the slow requests of a single item, or null to never hedge them
+	 */
+	private final HedgePolicy hedgePolicy;
+
+	/**
+	 * The policy to hedge the slow multiget requests, or null to never hedge them. Their latencies
+	 * and budget are kept apart from the ones of a single item
+	 */
+	private final HedgePolicy chunkHedgePolicy;
+
 	public MeliItemRestClient(final WebClient webClient,
 		final ReactiveCircuitBreakerFactory circuitBreakerFactory,
-		@Value("${api.clients.meli.items.timeout}") final int timeout) {
+		@Value("${api.clients.meli.items.timeout}") final int timeout,
+		@Value("${api.clients.meli.items.hedge.percentile:0.95}") final double hedgePercentile,
+		@Value("${api.clients.meli.items.hedge.budget:0}") final double hedgeBudget) {
 
 		this.webClient = webClient;
 		this.circuitBreakerFactory = circuitBreakerFactory;
 		this.timeout = timeout;
+		this.hedgePolicy = hedgeBudget > 0 ? new HedgePolicy(hedgePercentile, hedgeBudget) : null;
+		this.chunkHedgePolicy =
+			hedgeBudget > 0 ? new HedgePolicy(hedgePercentile, hedgeBudget) : null;
 	}
 
 	/**
-	 * Obtain the information of a purchase item from the item id
+	 * Obtain the information of a purchase item from the item id. When hedging is enabled and the
+	 * response takes longer than the usual ones, a second request is sent while the budget allows
+	 * it, and the first response wins
 	 *
 	 * @param itemId the item id to get
 	 *
@@ -59,9 +88,10 @@ public class MeliItemRestClient {
 	public Mono<Item> getItemPriceById(final String itemId) {
 		log.info("Searching information for the item id: [{}] from the remote items service",
 			itemId);
-		return webClient.get()
+		final Mono<GetItemResponse> request = webClient.get()
 			.uri(itemId)
-			.exchangeToMono(response -> response.bodyToMono(GetItemResponse.class))
+			.exchangeToMono(response -> response.bodyToMono(GetItemResponse.class));
+		return (hedgePolicy == null ? request : hedge(hedgePolicy, itemId, request))
 			.timeout(Duration.ofMillis(timeout))
 			.transform(it ->
 				circuitBreakerFactory.create("items").run(it, throwable -> {
@@ -73,6 +103,119 @@ public class MeliItemRestClient {
 			.map(response -> Item.create(response.getId(), response.getPrice()));
 	}
 
+	/**
+	 * Send the request and, if it has not answered after the hedge delay, an identical one. The
+	 * first response is used and the other request is cancelled. Only the latency of the request
+	 * that answers first is recorded, measured since that request was sent
+	 *
+	 * @param policy the hedge policy of the request
+	 * @param itemIds the item ids asked, for logging
+	 * @param request the request to send
+	 *
+	 * @return the first response
+	 */
+	private <T> Mono<T> hedge(final HedgePolicy policy, final Object itemIds,
+		final Mono<T> request) {
+		return Mono.defer(() -> {
+			final Optional<Duration> delay = policy.onRequest();
+			final AtomicBoolean answered = new AtomicBoolean();
+			final Mono<T> primary = recordLatency(policy, answered, request);
+			if (!delay.isPresent()) {
+				return primary;
+			}
+			final Mono<T> hedged = Mono.delay(delay.get())
+				.filter(tick -> policy.tryHedge())
+				.doOnNext(tick -> log.warn(
+					"The request of the items :{} took more than [{}] ms, sending a hedged request",
+					itemIds, delay.get().toMillis()))
+				.flatMap(tick -> recordLatency(policy, answered, request));
+			return Mono.firstWithValue(primary, hedged);
+		});
+	}
+
+	/**
+	 * Record the latency of the request when it is the first one to answer
+	 */
+	private static <T> Mono<T> recordLatency(final HedgePolicy policy,
+		final AtomicBoolean answered, final Mono<T> request) {
+		return Mono.defer(() -> {
+			final long start = System.nanoTime();
+			return request.doOnNext(response -> {
+				if (answered.compareAndSet(false, true)) {
+					policy.record(Duration.ofNanos(System.nanoTime() - start));
+				}
+			});
+		});
+	}
+
+	/**
+	 * Obtain the information of several purchase items, asking the remote service for up to
+	 * {@link #MAX_IDS_PER_REQUEST} of them in every request. The items the remote service answers
+	 * as not found or invalid are returned without price, the other items it cannot return are
+	 * logged and left out, and a failed request leaves out all its items. Every request is hedged
+	 * like the ones of a single item
+	 *
+	 * @param itemIds the item ids to get
+	 *
+	 * @return the information of the items found
+	 */
+	public Flux<Item> getItemPricesByIds(final Collection<String> itemIds) {
+		return Flux.fromIterable(itemIds)
+			.buffer(MAX_IDS_PER_REQUEST)
+			.flatMap(this::getItemPricesByChunk);
+	}
+
+	private Flux<Item> getItemPricesByChunk(final List<String> itemIds) {
+		log.info("Searching information for the item ids: {} from the remote items service",
+			itemIds);
+		final Mono<List<MultiGetItemResponse>> request = webClient.get()
+			.uri(builder -> builder.queryParam("ids", String.join(",", itemIds)).build())
+			.exchangeToFlux(response -> response.bodyToFlux(MultiGetItemResponse.class))
+			.collectList();
+		return (chunkHedgePolicy == null ? request : hedge(chunkHedgePolicy, itemIds, request))
+			.timeout(Duration.ofMillis(timeout))
+			.transform(it ->
+				circuitBreakerFactory.create("items").run(it, throwable -> {
+					log.error("Error getting items :{} from remote service", itemIds,
+						throwable.getCause());
+					return Mono.error(new RemoteServiceException(throwable));
+				})
+			)
+			// A failed request only leaves out its own items, the other requests go on
+			.onErrorResume(error -> Mono.empty())
+			.flatMapIterable(responses -> responses)
+			.index()
+			.handle((entry, sink) -> {
+				final MultiGetItemResponse response = entry.getT2();
+				final GetItemResponse body = response.getBody();
+				if (response.getCode() == HttpStatus.OK.value() && body != null) {
+					sink.next(Item.create(body.getId(), body.getPrice()));
+				} else if (isClientError(response.getCode()) && entry.getT1() < itemIds.size()) {
+					// The remote service answers the ids in the order they were asked
+					final String itemId = itemIds.get(entry.getT1().intValue());
+					log.warn("The item :[{}] was not found in remote service, code: [{}]", itemId,
+						response.getCode());
+					sink.next(Item.create(itemId));
+				} else {
+					log.error("An item of :{} could not be obtained from remote service, code: [{}]",
+						itemIds, response.getCode());
+				}
+			});
+	}
+
+	private static boolean isClientError(final int code) {
+		return HttpStatus.Series.resolve(code) == HttpStatus.Series.CLIENT_ERROR;
+	}
+
+	@Data
+	@AllArgsConstructor
+	@NoArgsConstructor
+	public static class MultiGetItemResponse implements Serializable {
+
+		private int code;
+		private GetItemResponse body;
+	}
+
 	@Data
 	@AllArgsConstructor
 	@NoArgsConstructor
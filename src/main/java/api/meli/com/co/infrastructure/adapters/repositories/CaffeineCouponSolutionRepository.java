@@ -0,0 +1,76 @@
+package api.meli.com.co.infrastructure.adapters.repositories;
+
+import api.meli.com.co.domain.repositories.CouponSolutionRepository;
+import api.meli.com.co.domain.vo.CouponSolution;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * This repository keeps the coupon solutions in the memory of the node with caffeine
+ *
+ * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
+ * @since 1.0
+ */
+@Slf4j
+public class CaffeineCouponSolutionRepository implements CouponSolutionRepository {
+
+	/**
+	 * The caffeine cache
+	 */
+	private final Cache<String, CouponSolution> cache;
+
+	/**
+	 * Default constructor
+	 *
+	 * @param timeToLife the expire after write value, in minutes
+	 * @param maximumSize the maximum size value
+	 */
+	public CaffeineCouponSolutionRepository(final Integer timeToLife, final Integer maximumSize) {
+		cache = Caffeine.newBuilder()
+			.expireAfterWrite(timeToLife, TimeUnit.MINUTES)
+			.maximumSize(maximumSize)
+			.build();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletionStage<Optional<CouponSolution>> findSolutionByKey(final String key) {
+		log.info("Searching coupon solution [{}] from memory", key);
+		try {
+			final CouponSolution solution = cache.getIfPresent(key);
+			if (solution == null) {
+				log.info("The coupon solution [{}] was not found in memory", key);
+				return CompletableFuture.completedFuture(Optional.empty());
+			}
+			log.info("The coupon solution [{}] was obtained from memory", key);
+			return CompletableFuture.completedFuture(Optional.of(solution));
+		} catch (final RuntimeException error) {
+			log.error("Error getting coupon solution :[{}] from memory", key, error);
+			return CompletableFuture.completedFuture(Optional.empty());
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletionStage<CouponSolution> persistSolution(final String key,
+		final CouponSolution solution) {
+		log.info("Saving coupon solution [{}] in memory", key);
+		final CompletableFuture<CouponSolution> response = new CompletableFuture<>();
+		try {
+			cache.put(key, solution);
+			response.complete(solution);
+		} catch (final RuntimeException error) {
+			response.completeExceptionally(error);
+		}
+		return response;
+	}
+}
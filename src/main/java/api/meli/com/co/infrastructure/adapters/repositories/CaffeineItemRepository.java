@@ -1,41 +1,114 @@
 package api.meli.com.co.infrastructure.adapters.repositories;
 
-import api.meli.com.co.domain.repositories.ItemRepository;
 import api.meli.com.co.domain.vo.Item;
-import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.AsyncCache;
 import com.github.benmanes.caffeine.cache.Caffeine;
-import java.math.BigDecimal;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 /**
- * This repository allows to get item prices from caffeine
+ * This repository allows to get item prices from caffeine. The prices are kept as fixed-point
+ * numbers with {@link #PRICE_SCALE} decimals, and a cache hit completes in the calling thread. With
+ * a {@link RefreshPolicy}, a price read after its refresh time is returned as it is while a new
+ * price is loaded in the background. Every price expires its time to life after it was obtained,
+ * also when it is restored from elsewhere
  *
  * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
  * @since 1.0
  */
 @Slf4j
-public class CaffeineItemRepository implements ItemRepository {
+public class CaffeineItemRepository implements EvictableItemRepository {
+
+	/**
+	 * Number of decimals kept for every price
+	 */
+	public static final int PRICE_SCALE = PriceCodec.PRICE_SCALE;
 
 	/**
 	 * The caffeine cache
 	 */
-	private final Cache<String, Float> cache;
+	private final AsyncCache<String, PriceEntry> cache;
+
+	/**
+	 * The time source of the cache and the refresh times
+	 */
+	private final Ticker ticker;
 
 	/**
-	 * Default constructor
+	 * Time in nanoseconds since a price is obtained until it expires
+	 */
+	private final long timeToLife;
+
+	/**
+	 * The refresh policy, or null to keep the prices until they expire
+	 */
+	private final RefreshPolicy refreshPolicy;
+
+	/**
+	 * The ids whose price is being refreshed
+	 */
+	private final Set<String> refreshingIds = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Default constructor, running the cache maintenance in the calling thread
 	 *
 	 * @param timeToLife the expire after write value
 	 * @param maximumSize the maximum size value
 	 */
 	public CaffeineItemRepository(final Integer timeToLife, final Integer maximumSize) {
+		this(timeToLife, maximumSize, Runnable::run);
+	}
+
+	/**
+	 * Constructor with the executor of the asynchronous loads and the cache maintenance
+	 *
+	 * @param timeToLife the expire after write value
+	 * @param maximumSize the maximum size value
+	 * @param executor the executor of the cache
+	 */
+	public CaffeineItemRepository(final Integer timeToLife, final Integer maximumSize,
+		final Executor executor) {
+		this(timeToLife, maximumSize, executor, Ticker.systemTicker(), null);
+	}
+
+	/**
+	 * Constructor with the time source and the refresh policy
+	 *
+	 * @param timeToLife the expire after write value
+	 * @param maximumSize the maximum size value
+	 * @param executor the executor of the cache
+	 * @param ticker the time source
+	 * @param refreshPolicy the refresh policy, or null to keep the prices until they expire
+	 */
+	public CaffeineItemRepository(final Integer timeToLife, final Integer maximumSize,
+		final Executor executor, final Ticker ticker, final RefreshPolicy refreshPolicy) {
+		this.timeToLife = TimeUnit.MINUTES.toNanos(timeToLife);
 		cache = Caffeine.newBuilder()
-			.expireAfterWrite(timeToLife, TimeUnit.MINUTES)
+			.executor(executor)
+			.ticker(ticker)
+			.expireAfter(new PriceExpiry())
 			.maximumSize(maximumSize)
-			.build();
+			.buildAsync();
+		this.ticker = ticker;
+		this.refreshPolicy = refreshPolicy;
 	}
 
 	/**
@@ -44,28 +117,140 @@ public class CaffeineItemRepository implements ItemRepository {
 	@Override
 	public CompletionStage<Optional<Item>> findItemById(final String id) {
 		log.info("Searching item value for item id: [{}] from cache", id);
-		return CompletableFuture.supplyAsync(() -> cache.getIfPresent(id))
-			.thenApply(value -> {
-				if (value == null) {
-					return buildNotFoundResponse(id);
-				}
+		final CompletableFuture<PriceEntry> value;
+		try {
+			value = cache.getIfPresent(id);
+		} catch (final RuntimeException error) {
+			return CompletableFuture.completedFuture(buildErrorResponse(id, error));
+		}
+		if (value == null) {
+			return CompletableFuture.completedFuture(buildNotFoundResponse(id));
+		}
+		return value
+			.thenApply(entry -> {
 				log.info("The item : [{}] was obtained from cache", id);
-				return Optional.of(Item.create(id, new BigDecimal(value)));
+				refreshIfStale(id, entry);
+				return Optional.of(Item.create(id, PriceCodec.toPrice(entry.units)));
 			})
 			.exceptionally(error -> buildErrorResponse(id, error));
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletionStage<Map<String, Item>> findItemsByIds(final Collection<String> ids) {
+		log.info("Searching item values for item ids: {} from cache", ids);
+		try {
+			final Map<String, Item> items = new HashMap<>();
+			cache.synchronous().getAllPresent(ids)
+				.forEach((id, entry) -> {
+					refreshIfStale(id, entry);
+					items.put(id, Item.create(id, PriceCodec.toPrice(entry.units)));
+				});
+			log.info("The items : {} were obtained from cache", items.keySet());
+			return CompletableFuture.completedFuture(items);
+		} catch (final RuntimeException error) {
+			log.error("Error getting items :{} from cache", ids, error);
+			return CompletableFuture.completedFuture(Collections.emptyMap());
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
 	public CompletionStage<Item> persistItem(final Item item) {
-		return CompletableFuture
-			.supplyAsync(() -> {
-				log.info("Saving item value for item id: [{}] on cache", item.getId());
-				cache.put(item.getId(), item.getPrice().floatValue());
-				return item;
-			});
+		log.info("Saving item value for item id: [{}] on cache", item.getId());
+		final CompletableFuture<Item> response = new CompletableFuture<>();
+		try {
+			cache.put(item.getId(), CompletableFuture.completedFuture(toEntry(item)));
+			response.complete(item);
+		} catch (final RuntimeException error) {
+			response.completeExceptionally(error);
+		}
+		return response;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void evictItem(final String id) {
+		log.info("Removing item value for item id: [{}] from cache", id);
+		cache.synchronous().invalidate(id);
+	}
+
+	/**
+	 * Visit every price in the cache
+	 *
+	 * @param action receives the item id, its price and the time since it was obtained
+	 */
+	public void forEachPrice(final PriceConsumer action) {
+		final long now = ticker.read();
+		cache.synchronous().asMap().forEach((id, entry) ->
+			action.accept(id, entry.units, Duration.ofNanos(Math.max(0, now - entry.writtenAt))));
+	}
+
+	/**
+	 * Save a price kept elsewhere, which expires when the rest of its time to life is over
+	 *
+	 * @param id the item id
+	 * @param units the price in units of 10^-{@link #PRICE_SCALE}
+	 * @param age the time since the price was obtained
+	 *
+	 * @return false when the price is already expired and is not saved
+	 */
+	public boolean restorePrice(final String id, final long units, final Duration age) {
+		if (age.toNanos() >= timeToLife) {
+			return false;
+		}
+		final long writtenAt = ticker.read() - age.toNanos();
+		cache.put(id, CompletableFuture.completedFuture(toEntry(units, writtenAt)));
+		return true;
+	}
+
+	private void refreshIfStale(final String id, final PriceEntry entry) {
+		if (refreshPolicy == null || ticker.read() < entry.refreshAt || !refreshingIds.add(id)) {
+			return;
+		}
+		log.info("Refreshing item value for item id: [{}] in the background", id);
+		try {
+			refreshPolicy.loader.apply(id)
+				.whenComplete((item, error) -> {
+					try {
+						if (error != null) {
+							log.error("Error refreshing item :[{}], the cached value is kept", id,
+								error);
+						} else if (item == null || item.getPrice() == null) {
+							log.warn("The item :[{}] has no price anymore, removing it from cache",
+								id);
+							cache.synchronous().invalidate(id);
+						} else {
+							cache.put(id, CompletableFuture.completedFuture(toEntry(item)));
+						}
+					} finally {
+						refreshingIds.remove(id);
+					}
+				});
+		} catch (final RuntimeException error) {
+			log.error("Error refreshing item :[{}], the cached value is kept", id, error);
+			refreshingIds.remove(id);
+		}
+	}
+
+	private PriceEntry toEntry(final Item item) {
+		return toEntry(PriceCodec.toUnits(item.getPrice()), ticker.read());
+	}
+
+	private PriceEntry toEntry(final long units, final long writtenAt) {
+		long refreshAt = Long.MAX_VALUE;
+		if (refreshPolicy != null) {
+			final double jitter = refreshPolicy.jitter == 0 ? 0 :
+				ThreadLocalRandom.current().nextDouble(-refreshPolicy.jitter, refreshPolicy.jitter);
+			refreshAt = writtenAt + (long) (refreshPolicy.refreshAfter.toNanos() * (1 + jitter));
+		}
+		return new PriceEntry(units, writtenAt, refreshAt);
 	}
 
 	private Optional<Item> buildNotFoundResponse(final String id) {
@@ -74,7 +259,83 @@ public class CaffeineItemRepository implements ItemRepository {
 	}
 
 	private Optional<Item> buildErrorResponse(final String id, final Throwable error) {
-		log.error("Error getting item :[{}] from cache", id, error.getCause());
+		log.error("Error getting item :[{}] from cache", id, error);
 		return Optional.empty();
 	}
+
+	/**
+	 * Describes when and how the cached prices are refreshed
+	 */
+	@Getter
+	@AllArgsConstructor(staticName = "create")
+	public static final class RefreshPolicy {
+
+		/**
+		 * Time since a price is saved until it is refreshed on its next read
+		 */
+		private final Duration refreshAfter;
+
+		/**
+		 * Fraction of {@link #refreshAfter} randomly added or removed for every price, so prices
+		 * saved together are not refreshed together
+		 */
+		private final double jitter;
+
+		/**
+		 * Loads the current price of an item
+		 */
+		private final Function<String, CompletionStage<Item>> loader;
+	}
+
+	/**
+	 * Receives the prices of the cache
+	 */
+	@FunctionalInterface
+	public interface PriceConsumer {
+
+		/**
+		 * Receive a price
+		 *
+		 * @param id the item id
+		 * @param units the price in units of 10^-{@link #PRICE_SCALE}
+		 * @param age the time since the price was obtained
+		 */
+		void accept(String id, long units, Duration age);
+	}
+
+	/**
+	 * A cached price, in units of 10^-{@link #PRICE_SCALE}, the instant it was obtained and the
+	 * instant it must be refreshed
+	 */
+	@AllArgsConstructor(access = AccessLevel.PRIVATE)
+	private static final class PriceEntry {
+
+		private final long units;
+		private final long writtenAt;
+		private final long refreshAt;
+	}
+
+	/**
+	 * Expires every price its time to life after it was obtained
+	 */
+	private final class PriceExpiry implements Expiry<String, PriceEntry> {
+
+		@Override
+		public long expireAfterCreate(final String id, final PriceEntry entry,
+			final long currentTime) {
+			return Math.max(0, entry.writtenAt + timeToLife - currentTime);
+		}
+
+		@Override
+		public long expireAfterUpdate(final String id, final PriceEntry entry,
+			final long currentTime, final long currentDuration) {
+			return expireAfterCreate(id, entry, currentTime);
+		}
+
+		@Override
+		public long expireAfterRead(final String id, final PriceEntry entry,
+			final long currentTime, final long currentDuration) {
+			return currentDuration;
+		}
+	}
 }
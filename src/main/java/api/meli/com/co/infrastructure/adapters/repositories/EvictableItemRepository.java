@@ -0,0 +1,20 @@
+package api.meli.com.co.infrastructure.adapters.repositories;
+
+import api.meli.com.co.domain.repositories.ItemRepository;
+
+/**
+ * An item repository in the memory of the node, whose items can be removed when they change in
+ * another node
+ *
+ * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
+ * @since 1.0
+ */
+public interface EvictableItemRepository extends ItemRepository {
+
+	/**
+	 * Remove an item from the repository
+	 *
+	 * @param id the item id
+	 */
+	void evictItem(String id);
+}
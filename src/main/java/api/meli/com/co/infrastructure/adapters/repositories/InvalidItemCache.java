@@ -0,0 +1,175 @@
+package api.meli.com.co.infrastructure.adapters.repositories;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * This cache remembers for a short time the item ids the remote service could not return, so they
+ * are not searched again on every request. Optionally, a Bloom filter of the remembered ids answers
+ * most lookups of valid ids without touching the cache. The filter cannot forget ids, so a new one
+ * is started every time to live and the previous one is kept for another time to live
+ *
+ * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
+ * @since 1.0
+ */
+@Slf4j
+public class InvalidItemCache {
+
+	private static final int HASH_FUNCTIONS = 4;
+
+	/**
+	 * The remembered ids
+	 */
+	private final Cache<String, Boolean> invalidIds;
+
+	/**
+	 * The time source of the cache and the filter rotation
+	 */
+	private final Ticker ticker;
+
+	/**
+	 * Time an id is remembered
+	 */
+	private final long timeToLiveNanos;
+
+	/**
+	 * Number of bits of every filter, 0 to not use filters
+	 */
+	private final int filterBits;
+
+	/**
+	 * The filter of the ids added since {@link #filterStartedAt}, and the one before it
+	 */
+	private volatile BloomFilter currentFilter;
+	private volatile BloomFilter previousFilter;
+	private volatile long filterStartedAt;
+
+	/**
+	 * Default constructor
+	 *
+	 * @param timeToLive the time an id is remembered
+	 * @param maximumSize the maximum number of ids remembered
+	 * @param filterBits the number of bits of the Bloom filter, 0 to not use it
+	 */
+	public InvalidItemCache(final Duration timeToLive, final long maximumSize,
+		final int filterBits) {
+		this(timeToLive, maximumSize, filterBits, Ticker.systemTicker());
+	}
+
+	/**
+	 * Constructor with the time source
+	 *
+	 * @param timeToLive the time an id is remembered
+	 * @param maximumSize the maximum number of ids remembered
+	 * @param filterBits the number of bits of the Bloom filter, 0 to not use it
+	 * @param ticker the time source
+	 */
+	public InvalidItemCache(final Duration timeToLive, final long maximumSize,
+		final int filterBits, final Ticker ticker) {
+		this.invalidIds = Caffeine.newBuilder()
+			.expireAfterWrite(timeToLive.toNanos(), TimeUnit.NANOSECONDS)
+			.maximumSize(maximumSize)
+			.ticker(ticker)
+			.build();
+		this.ticker = ticker;
+		this.timeToLiveNanos = timeToLive.toNanos();
+		this.filterBits = filterBits;
+		if (filterBits > 0) {
+			this.currentFilter = new BloomFilter(filterBits);
+			this.previousFilter = new BloomFilter(filterBits);
+			this.filterStartedAt = ticker.read();
+		}
+	}
+
+	/**
+	 * Check whether an item id was recently reported as invalid
+	 *
+	 * @param id the item id
+	 *
+	 * @return true if the id has to be skipped
+	 */
+	public boolean contains(final String id) {
+		if (filterBits > 0 && !currentFilter.mightContain(id) && !previousFilter.mightContain(id)) {
+			return false;
+		}
+		return invalidIds.getIfPresent(id) != null;
+	}
+
+	/**
+	 * Remember item ids the remote service could not return
+	 *
+	 * @param ids the item ids
+	 */
+	public void addAll(final Collection<String> ids) {
+		if (ids.isEmpty()) {
+			return;
+		}
+		log.info("The items :{} could not be obtained, they will be skipped for a while", ids);
+		if (filterBits > 0) {
+			rotateFilterIfExpired();
+			ids.forEach(currentFilter::put);
+		}
+		ids.forEach(id -> invalidIds.put(id, Boolean.TRUE));
+	}
+
+	private synchronized void rotateFilterIfExpired() {
+		final long now = ticker.read();
+		if (now - filterStartedAt >= timeToLiveNanos) {
+			previousFilter = currentFilter;
+			currentFilter = new BloomFilter(filterBits);
+			filterStartedAt = now;
+		}
+	}
+
+	/**
+	 * A Bloom filter of strings, safe to use from several threads
+	 */
+	private static final class BloomFilter {
+
+		private final AtomicLongArray words;
+		private final int bits;
+
+		private BloomFilter(final int bits) {
+			this.words = new AtomicLongArray((bits + Long.SIZE - 1) / Long.SIZE);
+			this.bits = bits;
+		}
+
+		private void put(final String value) {
+			final int first = value.hashCode();
+			final int second = mix(first);
+			for (int i = 0; i < HASH_FUNCTIONS; i++) {
+				final int bit = Math.floorMod(first + i * second, bits);
+				final long mask = 1L << bit;
+				final int index = bit >>> 6;
+				long word;
+				do {
+					word = words.get(index);
+				} while ((word & mask) == 0 && !words.compareAndSet(index, word, word | mask));
+			}
+		}
+
+		private boolean mightContain(final String value) {
+			final int first = value.hashCode();
+			final int second = mix(first);
+			for (int i = 0; i < HASH_FUNCTIONS; i++) {
+				final int bit = Math.floorMod(first + i * second, bits);
+				if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private static int mix(final int hash) {
+			int mixed = hash * 0x9E3779B9;
+			mixed ^= mixed >>> 16;
+			return mixed | 1;
+		}
+	}
+}
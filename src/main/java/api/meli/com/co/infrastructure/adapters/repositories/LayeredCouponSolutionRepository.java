@@ -0,0 +1,59 @@
+package api.meli.com.co.infrastructure.adapters.repositories;
+
+import api.meli.com.co.domain.repositories.CouponSolutionRepository;
+import api.meli.com.co.domain.vo.CouponSolution;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * This repository looks for the coupon solutions first in a local store and then in a shared one,
+ * copying to the local store the solutions found in the shared one. Solutions are saved in both
+ *
+ * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
+ * @since 1.0
+ */
+@Slf4j
+@AllArgsConstructor
+public class LayeredCouponSolutionRepository implements CouponSolutionRepository {
+
+	/**
+	 * The store of the node
+	 */
+	private final CouponSolutionRepository localRepository;
+
+	/**
+	 * The store shared by the nodes
+	 */
+	private final CouponSolutionRepository sharedRepository;
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletionStage<Optional<CouponSolution>> findSolutionByKey(final String key) {
+		return localRepository.findSolutionByKey(key)
+			.thenCompose(local -> {
+				if (local.isPresent()) {
+					return CompletableFuture.completedFuture(local);
+				}
+				return sharedRepository.findSolutionByKey(key)
+					.thenCompose(shared -> shared
+						.map(solution -> localRepository.persistSolution(key, solution)
+							.thenApply(Optional::of))
+						.orElseGet(() -> CompletableFuture.completedFuture(shared)));
+			});
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletionStage<CouponSolution> persistSolution(final String key,
+		final CouponSolution solution) {
+		return localRepository.persistSolution(key, solution)
+			.thenCompose(saved -> sharedRepository.persistSolution(key, solution));
+	}
+}
@@ -0,0 +1,189 @@
+package api.meli.com.co.infrastructure.adapters.repositories;
+
+import api.meli.com.co.domain.repositories.ItemRepository;
+import api.meli.com.co.domain.vo.Item;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+/**
+ * This repository keeps the items of the node in memory in front of a repository shared by all the
+ * nodes. The items not found in memory are searched in the shared repository and copied to memory.
+ * Every saved item is announced on a Redis channel, so the other nodes drop their copy in memory
+ *
+ * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
+ * @since 1.0
+ */
+@Slf4j
+public class LayeredItemRepository implements ItemRepository, AutoCloseable {
+
+	private static final String MESSAGE_SEPARATOR = ":";
+	private static final Duration MIN_RETRY_BACKOFF = Duration.ofSeconds(1);
+
+	/**
+	 * The store in the memory of the node
+	 */
+	private final EvictableItemRepository localRepository;
+
+	/**
+	 * The store shared by the nodes
+	 */
+	private final ItemRepository sharedRepository;
+
+	/**
+	 * This client allows to publish and listen the invalidation messages
+	 */
+	private final ReactiveStringRedisTemplate redisTemplate;
+
+	/**
+	 * The channel of the invalidation messages
+	 */
+	private final String channel;
+
+	/**
+	 * Identifies the messages published by this node, which are ignored when received
+	 */
+	private final String nodeId = UUID.randomUUID().toString();
+
+	/**
+	 * The subscription to the invalidation channel, or null if not listening
+	 */
+	private Disposable subscription;
+
+	public LayeredItemRepository(final EvictableItemRepository localRepository,
+		final ItemRepository sharedRepository, final ReactiveStringRedisTemplate redisTemplate,
+		final String channel) {
+		this.localRepository = localRepository;
+		this.sharedRepository = sharedRepository;
+		this.redisTemplate = redisTemplate;
+		this.channel = channel;
+	}
+
+	/**
+	 * Start dropping from memory the items saved by other nodes
+	 */
+	public void listenInvalidations() {
+		subscription = redisTemplate.listenToChannel(channel)
+			.doOnNext(message -> evict(message.getMessage()))
+			.doOnError(error -> log.error("Error listening the channel :[{}]", channel, error))
+			.retryWhen(Retry.backoff(Long.MAX_VALUE, MIN_RETRY_BACKOFF))
+			.subscribe();
+	}
+
+	/**
+	 * Stop listening the invalidation channel
+	 */
+	@Override
+	public void close() {
+		if (subscription != null) {
+			subscription.dispose();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletionStage<Optional<Item>> findItemById(final String id) {
+		return localRepository.findItemById(id)
+			.thenCompose(local -> {
+				if (local.isPresent()) {
+					return CompletableFuture.completedFuture(local);
+				}
+				return sharedRepository.findItemById(id)
+					.thenCompose(shared -> shared
+						.map(item -> localRepository.persistItem(item).thenApply(Optional::of))
+						.orElseGet(() -> CompletableFuture.completedFuture(shared)));
+			});
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletionStage<Map<String, Item>> findItemsByIds(final Collection<String> ids) {
+		return localRepository.findItemsByIds(ids)
+			.thenCompose(local -> {
+				final List<String> missingIds = ids.stream()
+					.filter(id -> !local.containsKey(id))
+					.distinct()
+					.collect(Collectors.toList());
+				if (missingIds.isEmpty()) {
+					return CompletableFuture.completedFuture(local);
+				}
+				return sharedRepository.findItemsByIds(missingIds)
+					.thenApply(shared -> {
+						shared.values().forEach(localRepository::persistItem);
+						final Map<String, Item> items = new HashMap<>(local);
+						items.putAll(shared);
+						return items;
+					});
+			});
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletionStage<Item> persistItem(final Item item) {
+		return persistItem(item, Duration.ZERO);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletionStage<Item> persistItem(final Item item, final Duration computeTime) {
+		return sharedRepository.persistItem(item, computeTime)
+			.thenCompose(localRepository::persistItem)
+			.thenCompose(this::announce);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletionStage<Void> persistItems(final Collection<Item> items,
+		final Duration computeTime) {
+		return sharedRepository.persistItems(items, computeTime)
+			.thenCompose(saved -> CompletableFuture.allOf(items.stream()
+				.map(item -> localRepository.persistItem(item)
+					.thenCompose(this::announce)
+					.toCompletableFuture())
+				.toArray(CompletableFuture[]::new)));
+	}
+
+	private CompletionStage<Item> announce(final Item saved) {
+		return redisTemplate
+			.convertAndSend(channel, nodeId + MESSAGE_SEPARATOR + saved.getId())
+			.map(receivers -> saved)
+			.onErrorResume(error -> {
+				log.error("Error announcing the item :[{}] on the channel :[{}]",
+					saved.getId(), channel, error);
+				return Mono.just(saved);
+			})
+			.toFuture();
+	}
+
+	private void evict(final String message) {
+		final int separator = message.indexOf(MESSAGE_SEPARATOR);
+		if (separator < 0 || nodeId.equals(message.substring(0, separator))) {
+			return;
+		}
+		final String id = message.substring(separator + 1);
+		log.info("The item :[{}] was saved by another node, removing it from memory", id);
+		localRepository.evictItem(id);
+	}
+}
@@ -0,0 +1,419 @@
+package api.meli.com.co.infrastructure.adapters.repositories;
+
+import api.meli.com.co.domain.vo.Item;
+import com.github.benmanes.caffeine.cache.Ticker;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * This repository keeps the item prices outside the Java heap, in open addressing hash tables
+ * stored in direct buffers, so millions of prices cost no garbage collection work. Every entry
+ * takes {@link #SLOT_BYTES} bytes: a 64-bit hash of the item id, a second independent 64-bit hash
+ * of it, the price in units of 10^-{@link PriceCodec#PRICE_SCALE} and the second it was saved with
+ * a reference bit. The ids are not kept, an entry matches an id when both hashes match, so two ids
+ * only share their price when both hashes collide, about once in 2^128 pairs of ids. The table is
+ * split in segments, each one with its own lock. When a segment is full, a CLOCK hand evicts the
+ * first entry that was not read since the hand last passed by. The tables take
+ * {@link #requiredBytes(long)} bytes of direct memory, which the JVM limits with
+ * -XX:MaxDirectMemorySize, or to the maximum heap size when it is not set. The limit must leave
+ * room for the other direct buffers, like the ones of the HTTP server
+ *
+ * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
+ * @since 1.0
+ */
+@Slf4j
+public class OffHeapItemRepository implements EvictableItemRepository {
+
+	/**
+	 * Size in bytes of every entry
+	 */
+	private static final int SLOT_BYTES = 28;
+
+	private static final int SEGMENT_BITS = 6;
+	private static final int CHECK_OFFSET = 8;
+	private static final int UNITS_OFFSET = 16;
+	private static final int STAMP_OFFSET = 24;
+	private static final int REFERENCED = 0x80000000;
+	private static final double MAX_LOAD = 0.75;
+	private static final int MIN_SEGMENT_CAPACITY = 16;
+	private static final String MAX_DIRECT_MEMORY_OPTION = "-XX:MaxDirectMemorySize=";
+
+	/**
+	 * The segments of the table, chosen by the highest bits of the hash
+	 */
+	private final Segment[] segments;
+
+	/**
+	 * Time in seconds a price is kept
+	 */
+	private final int timeToLiveSeconds;
+
+	/**
+	 * The time source
+	 */
+	private final Ticker ticker;
+
+	/**
+	 * The instant the repository was created, the stamps are seconds since it
+	 */
+	private final long startNanos;
+
+	/**
+	 * Default constructor
+	 *
+	 * @param timeToLive the time a price is kept
+	 * @param maximumSize the maximum number of prices
+	 */
+	public OffHeapItemRepository(final Duration timeToLive, final long maximumSize) {
+		this(timeToLive, maximumSize, Ticker.systemTicker());
+	}
+
+	/**
+	 * Constructor with the time source
+	 *
+	 * @param timeToLive the time a price is kept
+	 * @param maximumSize the maximum number of prices
+	 * @param ticker the time source
+	 */
+	public OffHeapItemRepository(final Duration timeToLive, final long maximumSize,
+		final Ticker ticker) {
+		final int segmentCount = 1 << SEGMENT_BITS;
+		final int segmentSize = segmentSize(maximumSize);
+		final int capacity = segmentCapacity(segmentSize);
+		this.segments = new Segment[segmentCount];
+		for (int i = 0; i < segmentCount; i++) {
+			segments[i] = new Segment(capacity, segmentSize);
+		}
+		this.timeToLiveSeconds = (int) Math.min(Integer.MAX_VALUE, timeToLive.getSeconds());
+		this.ticker = ticker;
+		this.startNanos = ticker.read();
+		log.info("Off heap price store created with [{}] bytes for [{}] prices",
+			(long) segmentCount * capacity * SLOT_BYTES, (long) segmentCount * segmentSize);
+	}
+
+	/**
+	 * Get the bytes of direct memory taken by a repository
+	 *
+	 * @param maximumSize the maximum number of prices of the repository
+	 *
+	 * @return the bytes of direct memory
+	 */
+	public static long requiredBytes(final long maximumSize) {
+		return (1L << SEGMENT_BITS) * segmentCapacity(segmentSize(maximumSize)) * SLOT_BYTES;
+	}
+
+	/**
+	 * Get the bytes of direct memory the running JVM allows
+	 *
+	 * @return the bytes of direct memory
+	 */
+	public static long maxDirectMemory() {
+		return maxDirectMemory(ManagementFactory.getRuntimeMXBean().getInputArguments(),
+			Runtime.getRuntime().maxMemory());
+	}
+
+	/**
+	 * Get the bytes of direct memory allowed by the arguments of a JVM, the last
+	 * -XX:MaxDirectMemorySize wins
+	 *
+	 * @param arguments the arguments of the JVM
+	 * @param maxHeap the maximum heap size of the JVM, the limit when it is not set
+	 *
+	 * @return the bytes of direct memory
+	 */
+	static long maxDirectMemory(final List<String> arguments, final long maxHeap) {
+		long maxDirectMemory = maxHeap;
+		for (final String argument : arguments) {
+			if (argument.startsWith(MAX_DIRECT_MEMORY_OPTION)) {
+				maxDirectMemory =
+					parseSize(argument.substring(MAX_DIRECT_MEMORY_OPTION.length()), maxHeap);
+			}
+		}
+		return maxDirectMemory;
+	}
+
+	/**
+	 * Parse a JVM memory size, with an optional k, m, g or t suffix
+	 *
+	 * @param size the size
+	 * @param maxHeap the maximum heap size of the JVM, used when the size is 0 or invalid
+	 *
+	 * @return the size in bytes
+	 */
+	private static long parseSize(final String size, final long maxHeap) {
+		final int shift;
+		switch (size.isEmpty() ? ' ' : Character.toLowerCase(size.charAt(size.length() - 1))) {
+			case 'k':
+				shift = 10;
+				break;
+			case 'm':
+				shift = 20;
+				break;
+			case 'g':
+				shift = 30;
+				break;
+			case 't':
+				shift = 40;
+				break;
+			default:
+				shift = 0;
+		}
+		try {
+			final long bytes =
+				Long.parseLong(shift == 0 ? size : size.substring(0, size.length() - 1)) << shift;
+			return bytes > 0 ? bytes : maxHeap;
+		} catch (final NumberFormatException error) {
+			return maxHeap;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletionStage<Optional<Item>> findItemById(final String id) {
+		log.info("Searching item value for item id: [{}] from cache", id);
+		final Optional<Item> item = find(id);
+		if (item.isPresent()) {
+			log.info("The item : [{}] was obtained from cache", id);
+		} else {
+			log.info("The item:[{}] was not found in cache", id);
+		}
+		return CompletableFuture.completedFuture(item);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletionStage<Map<String, Item>> findItemsByIds(final Collection<String> ids) {
+		log.info("Searching item values for item ids: {} from cache", ids);
+		final Map<String, Item> items = new HashMap<>();
+		ids.forEach(id -> find(id).ifPresent(item -> items.put(id, item)));
+		log.info("The items : {} were obtained from cache", items.keySet());
+		return CompletableFuture.completedFuture(items);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletionStage<Item> persistItem(final Item item) {
+		log.info("Saving item value for item id: [{}] on cache", item.getId());
+		final CompletableFuture<Item> response = new CompletableFuture<>();
+		try {
+			final long hash = hash(item.getId());
+			segmentOf(hash).put(hash, check(item.getId()), PriceCodec.toUnits(item.getPrice()),
+				now(), timeToLiveSeconds);
+			response.complete(item);
+		} catch (final RuntimeException error) {
+			response.completeExceptionally(error);
+		}
+		return response;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void evictItem(final String id) {
+		log.info("Removing item value for item id: [{}] from cache", id);
+		final long hash = hash(id);
+		segmentOf(hash).remove(hash, check(id));
+	}
+
+	private Optional<Item> find(final String id) {
+		final long hash = hash(id);
+		final long[] units = new long[1];
+		if (!segmentOf(hash).get(hash, check(id), now(), timeToLiveSeconds, units)) {
+			return Optional.empty();
+		}
+		return Optional.of(Item.create(id, PriceCodec.toPrice(units[0])));
+	}
+
+	private static int segmentSize(final long maximumSize) {
+		return (int) Math.max(1, maximumSize >> SEGMENT_BITS);
+	}
+
+	private static int segmentCapacity(final int segmentSize) {
+		int capacity = MIN_SEGMENT_CAPACITY;
+		while (capacity * MAX_LOAD < segmentSize) {
+			capacity <<= 1;
+		}
+		return capacity;
+	}
+
+	private Segment segmentOf(final long hash) {
+		return segments[(int) (hash >>> (Long.SIZE - SEGMENT_BITS))];
+	}
+
+	private int now() {
+		return (int) TimeUnit.NANOSECONDS.toSeconds(ticker.read() - startNanos);
+	}
+
+	/**
+	 * 64-bit FNV-1a hash of the id, mixed so every bit depends on every char. Never 0, which marks
+	 * the empty slots
+	 */
+	private static long hash(final String id) {
+		long hash = 0xcbf29ce484222325L;
+		for (int i = 0; i < id.length(); i++) {
+			hash ^= id.charAt(i);
+			hash *= 0x100000001b3L;
+		}
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		return hash == 0 ? 1 : hash;
+	}
+
+	/**
+	 * Second 64-bit hash of the id, with another multiplier and mixing per char so it does not
+	 * collide together with {@link #hash(String)}
+	 */
+	private static long check(final String id) {
+		long check = 0x9e3779b97f4a7c15L;
+		for (int i = 0; i < id.length(); i++) {
+			check = (check + id.charAt(i)) * 0xc2b2ae3d27d4eb4fL;
+			check ^= check >>> 29;
+		}
+		check *= 0x94d049bb133111ebL;
+		return check ^ (check >>> 32);
+	}
+
+	/**
+	 * A part of the table, with linear probing and removal by backward shifting
+	 */
+	private static final class Segment {
+
+		private final ByteBuffer slots;
+		private final int mask;
+		private final int maxEntries;
+		private int size;
+		private int hand;
+
+		private Segment(final int capacity, final int maxEntries) {
+			this.slots = ByteBuffer.allocateDirect(capacity * SLOT_BYTES);
+			this.mask = capacity - 1;
+			this.maxEntries = maxEntries;
+		}
+
+		private synchronized boolean get(final long hash, final long check, final int now,
+			final int timeToLive, final long[] units) {
+			final int index = indexOf(hash, check);
+			if (index < 0) {
+				return false;
+			}
+			final int stamp = slots.getInt(index * SLOT_BYTES + STAMP_OFFSET);
+			if (isExpired(stamp, now, timeToLive)) {
+				delete(index);
+				return false;
+			}
+			slots.putInt(index * SLOT_BYTES + STAMP_OFFSET, stamp | REFERENCED);
+			units[0] = slots.getLong(index * SLOT_BYTES + UNITS_OFFSET);
+			return true;
+		}
+
+		private synchronized void put(final long hash, final long check, final long units,
+			final int now, final int timeToLive) {
+			int index = indexOf(hash, check);
+			if (index < 0) {
+				if (size >= maxEntries) {
+					evict(now, timeToLive);
+				}
+				index = (int) hash & mask;
+				while (slots.getLong(index * SLOT_BYTES) != 0) {
+					index = (index + 1) & mask;
+				}
+				slots.putLong(index * SLOT_BYTES, hash);
+				slots.putLong(index * SLOT_BYTES + CHECK_OFFSET, check);
+				size++;
+			}
+			slots.putLong(index * SLOT_BYTES + UNITS_OFFSET, units);
+			slots.putInt(index * SLOT_BYTES + STAMP_OFFSET, now);
+		}
+
+		private synchronized void remove(final long hash, final long check) {
+			final int index = indexOf(hash, check);
+			if (index >= 0) {
+				delete(index);
+			}
+		}
+
+		private int indexOf(final long hash, final long check) {
+			int index = (int) hash & mask;
+			long current;
+			while ((current = slots.getLong(index * SLOT_BYTES)) != 0) {
+				if (current == hash && slots.getLong(index * SLOT_BYTES + CHECK_OFFSET) == check) {
+					return index;
+				}
+				index = (index + 1) & mask;
+			}
+			return -1;
+		}
+
+		/**
+		 * Move the hand until an entry expired or not referenced since the last pass is found, and
+		 * remove it. The references found on the way are cleared
+		 */
+		private void evict(final int now, final int timeToLive) {
+			while (true) {
+				final int position = hand * SLOT_BYTES;
+				if (slots.getLong(position) != 0) {
+					final int stamp = slots.getInt(position + STAMP_OFFSET);
+					if ((stamp & REFERENCED) == 0 || isExpired(stamp, now, timeToLive)) {
+						delete(hand);
+						return;
+					}
+					slots.putInt(position + STAMP_OFFSET, stamp & ~REFERENCED);
+				}
+				hand = (hand + 1) & mask;
+			}
+		}
+
+		/**
+		 * Empty a slot, moving back the following entries of its cluster that would not be found
+		 * anymore
+		 */
+		private void delete(final int index) {
+			int hole = index;
+			int next = index;
+			while (true) {
+				next = (next + 1) & mask;
+				final long hash = slots.getLong(next * SLOT_BYTES);
+				if (hash == 0) {
+					break;
+				}
+				final int home = (int) hash & mask;
+				final boolean stays = hole <= next ? hole < home && home <= next :
+					hole < home || home <= next;
+				if (!stays) {
+					slots.putLong(hole * SLOT_BYTES, hash);
+					slots.putLong(hole * SLOT_BYTES + CHECK_OFFSET,
+						slots.getLong(next * SLOT_BYTES + CHECK_OFFSET));
+					slots.putLong(hole * SLOT_BYTES + UNITS_OFFSET,
+						slots.getLong(next * SLOT_BYTES + UNITS_OFFSET));
+					slots.putInt(hole * SLOT_BYTES + STAMP_OFFSET,
+						slots.getInt(next * SLOT_BYTES + STAMP_OFFSET));
+					hole = next;
+				}
+			}
+			slots.putLong(hole * SLOT_BYTES, 0);
+			size--;
+		}
+
+		private static boolean isExpired(final int stamp, final int now, final int timeToLive) {
+			return now - (stamp & ~REFERENCED) >= timeToLive;
+		}
+	}
+}
@@ -0,0 +1,126 @@
+package api.meli.com.co.infrastructure.adapters.repositories;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * This codec turns the cached prices into fixed-point numbers and short strings. A price is kept
+ * as a number of units of 10^-{@link #PRICE_SCALE}, and is written in base 36 after
+ * {@link #MARKER}, optionally followed by the time it took to get it and the instant it expires,
+ * both in milliseconds. Reading a value only parses longs. Values written before this format, a
+ * plain decimal price optionally followed by the same fields, can still be read
+ *
+ * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
+ * @since 1.0
+ */
+public final class PriceCodec {
+
+	/**
+	 * Number of decimals kept for every price
+	 */
+	public static final int PRICE_SCALE = 4;
+
+	/**
+	 * Prefix of the values in the compact format
+	 */
+	static final char MARKER = '#';
+
+	private static final char SEPARATOR = '|';
+	private static final int RADIX = 36;
+
+	private PriceCodec() {
+	}
+
+	/**
+	 * Convert a price to units of 10^-{@link #PRICE_SCALE}
+	 *
+	 * @param price the price
+	 *
+	 * @return the units, rounding half even the extra decimals
+	 */
+	public static long toUnits(final BigDecimal price) {
+		return price.setScale(PRICE_SCALE, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+	}
+
+	/**
+	 * Convert units of 10^-{@link #PRICE_SCALE} to a price without trailing zeros
+	 *
+	 * @param units the units
+	 *
+	 * @return the price
+	 */
+	public static BigDecimal toPrice(final long units) {
+		long unscaled = units;
+		int scale = PRICE_SCALE;
+		while (scale > 0 && unscaled % 10 == 0) {
+			unscaled /= 10;
+			scale--;
+		}
+		return BigDecimal.valueOf(unscaled, scale);
+	}
+
+	/**
+	 * Encode a price without expiration
+	 *
+	 * @param price the price
+	 *
+	 * @return the encoded value
+	 */
+	public static String encode(final BigDecimal price) {
+		return MARKER + Long.toString(toUnits(price), RADIX);
+	}
+
+	/**
+	 * Encode a price with the time it took to get it and the instant it expires
+	 *
+	 * @param price the price
+	 * @param computeMillis the time it took to get the price
+	 * @param expiresAt the instant the price expires, in milliseconds since the epoch
+	 *
+	 * @return the encoded value
+	 */
+	public static String encode(final BigDecimal price, final long computeMillis,
+		final long expiresAt) {
+		return encode(price) + SEPARATOR + Long.toString(computeMillis, RADIX) + SEPARATOR
+			+ Long.toString(expiresAt, RADIX);
+	}
+
+	/**
+	 * Decode a value written by {@link #encode} or by the previous format
+	 *
+	 * @param value the encoded value
+	 *
+	 * @return the decoded price
+	 */
+	public static CachedPrice decode(final String value) {
+		final boolean compact = !value.isEmpty() && value.charAt(0) == MARKER;
+		final int radix = compact ? RADIX : 10;
+		final int first = value.indexOf(SEPARATOR);
+		final String price = value.substring(compact ? 1 : 0, first < 0 ? value.length() : first);
+		final BigDecimal decoded = compact ? toPrice(Long.parseLong(price, RADIX)) :
+			new BigDecimal(price);
+		if (first < 0) {
+			return new CachedPrice(decoded, 0, Long.MAX_VALUE);
+		}
+		final int second = value.indexOf(SEPARATOR, first + 1);
+		return new CachedPrice(decoded,
+			Long.parseLong(value.substring(first + 1, second), radix),
+			Long.parseLong(value.substring(second + 1), radix));
+	}
+
+	/**
+	 * A decoded price, with the time it took to get it, 0 if unknown, and the instant it expires,
+	 * {@link Long#MAX_VALUE} if it does not
+	 */
+	@Getter
+	@AllArgsConstructor(access = AccessLevel.PRIVATE)
+	public static final class CachedPrice {
+
+		private final BigDecimal price;
+		private final long computeMillis;
+		private final long expiresAt;
+	}
+}
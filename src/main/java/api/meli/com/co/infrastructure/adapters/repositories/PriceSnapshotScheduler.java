@@ -0,0 +1,98 @@
+package api.meli.com.co.infrastructure.adapters.repositories;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * This scheduler keeps the snapshot of the prices of a {@link CaffeineItemRepository} up to date.
+ * Starting it restores the prices of the last snapshot in the repository and saves a new snapshot
+ * every interval. Closing it stops the periodic saves and saves the snapshot a last time
+ *
+ * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
+ * @since 1.0
+ */
+@Slf4j
+public class PriceSnapshotScheduler implements AutoCloseable {
+
+	/**
+	 * The store of the snapshot
+	 */
+	private final PriceSnapshotStore store;
+
+	/**
+	 * Time between two saves of the snapshot
+	 */
+	private final Duration interval;
+
+	/**
+	 * Maximum age of a restored price
+	 */
+	private final Duration maxAge;
+
+	/**
+	 * The scheduler of the saves
+	 */
+	private final Scheduler scheduler;
+
+	/**
+	 * The repository whose prices are saved, once started
+	 */
+	private CaffeineItemRepository repository;
+
+	/**
+	 * The periodic save, once started
+	 */
+	private Disposable periodicSave;
+
+	public PriceSnapshotScheduler(final PriceSnapshotStore store, final Duration interval,
+		final Duration maxAge, final Scheduler scheduler) {
+		this.store = store;
+		this.interval = interval;
+		this.maxAge = maxAge;
+		this.scheduler = scheduler;
+	}
+
+	/**
+	 * Restore the last snapshot in a repository and save its prices every interval
+	 *
+	 * @param repository the repository
+	 *
+	 * @return the number of prices restored
+	 */
+	public synchronized int start(final CaffeineItemRepository repository) {
+		if (this.repository != null) {
+			throw new IllegalStateException("The price snapshot is already scheduled");
+		}
+		final int restored = store.restore(repository, maxAge);
+		this.repository = repository;
+		this.periodicSave = scheduler.schedulePeriodically(() -> save(repository),
+			interval.toNanos(), interval.toNanos(), TimeUnit.NANOSECONDS);
+		return restored;
+	}
+
+	/**
+	 * Stop the periodic saves and save the snapshot a last time
+	 */
+	@Override
+	public synchronized void close() {
+		if (repository == null) {
+			return;
+		}
+		periodicSave.dispose();
+		save(repository);
+		repository = null;
+	}
+
+	/**
+	 * Save the snapshot of the prices of a repository
+	 *
+	 * @param repository the repository
+	 */
+	private void save(final CaffeineItemRepository repository) {
+		final int saved = store.save(repository);
+		log.debug("[{}] prices were saved in the snapshot", saved);
+	}
+}
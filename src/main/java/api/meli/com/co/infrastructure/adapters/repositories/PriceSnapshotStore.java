@@ -0,0 +1,219 @@
+package api.meli.com.co.infrastructure.adapters.repositories;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * This store keeps in a memory-mapped file a snapshot of the prices of a
+ * {@link CaffeineItemRepository}, so a new node starts with the prices of the previous one. The
+ * file has a header, an open addressing table with a slot per bucket and the ids in UTF-8 after it.
+ * Every used slot has the position and length of its id, the price in units of
+ * 10^-{@link PriceCodec#PRICE_SCALE} and the instant it was obtained, and is found probing linearly
+ * from the hash of the id. A restored price only lives the rest of its time to life. A new snapshot
+ * is written to a temporary file that then replaces the previous one
+ *
+ * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
+ * @since 1.0
+ */
+@Slf4j
+public class PriceSnapshotStore {
+
+	private static final int MAGIC = 0x50524331;
+	private static final int VERSION = 2;
+	private static final int HEADER_BYTES = 24;
+	private static final int SLOT_BYTES = 24;
+	private static final int EMPTY_SLOT = -1;
+	private static final int MIN_CAPACITY = 16;
+
+	/**
+	 * The snapshot file
+	 */
+	private final Path file;
+
+	/**
+	 * The clock used to date the snapshots
+	 */
+	private final Clock clock;
+
+	public PriceSnapshotStore(final Path file) {
+		this(file, Clock.systemUTC());
+	}
+
+	public PriceSnapshotStore(final Path file, final Clock clock) {
+		this.file = file;
+		this.clock = clock;
+	}
+
+	/**
+	 * Write a snapshot of the prices of a repository
+	 *
+	 * @param repository the repository
+	 *
+	 * @return the number of prices written
+	 */
+	public int save(final CaffeineItemRepository repository) {
+		final Map<String, SavedPrice> prices = new LinkedHashMap<>();
+		final long now = clock.millis();
+		repository.forEachPrice((id, units, age) ->
+			prices.put(id, SavedPrice.create(units, now - age.toMillis())));
+		final int capacity = capacity(prices.size());
+		final byte[][] ids = new byte[prices.size()][];
+		long size = HEADER_BYTES + (long) capacity * SLOT_BYTES;
+		int index = 0;
+		for (final String id : prices.keySet()) {
+			ids[index] = id.getBytes(StandardCharsets.UTF_8);
+			size += ids[index++].length;
+		}
+		if (size > Integer.MAX_VALUE) {
+			log.warn("The snapshot of [{}] prices does not fit in a file, it is not written",
+				prices.size());
+			return 0;
+		}
+
+		final Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+		try {
+			Files.createDirectories(temporary.toAbsolutePath().getParent());
+		} catch (final IOException error) {
+			log.error("Error creating the directory of the price snapshot :[{}]", file, error);
+			return 0;
+		}
+		try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+			StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ,
+			StandardOpenOption.WRITE)) {
+			final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+			buffer.putInt(0, MAGIC);
+			buffer.putInt(4, VERSION);
+			buffer.putInt(8, capacity);
+			buffer.putInt(12, prices.size());
+			buffer.putLong(16, now);
+			for (int slot = 0; slot < capacity; slot++) {
+				buffer.putInt(slotAt(slot), EMPTY_SLOT);
+			}
+			final int idsStart = HEADER_BYTES + capacity * SLOT_BYTES;
+			int idPosition = 0;
+			index = 0;
+			for (final Map.Entry<String, SavedPrice> price : prices.entrySet()) {
+				int slot = bucket(price.getKey(), capacity);
+				while (buffer.getInt(slotAt(slot)) != EMPTY_SLOT) {
+					slot = (slot + 1) & (capacity - 1);
+				}
+				final byte[] id = ids[index++];
+				buffer.putInt(slotAt(slot), idPosition);
+				buffer.putInt(slotAt(slot) + 4, id.length);
+				buffer.putLong(slotAt(slot) + 8, price.getValue().getUnits());
+				buffer.putLong(slotAt(slot) + 16, price.getValue().getWrittenAt());
+				buffer.position(idsStart + idPosition);
+				buffer.put(id);
+				idPosition += id.length;
+			}
+			buffer.force();
+		} catch (final IOException | RuntimeException error) {
+			log.error("Error writing the price snapshot :[{}]", file, error);
+			return 0;
+		}
+		try {
+			Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING,
+				StandardCopyOption.ATOMIC_MOVE);
+		} catch (final IOException error) {
+			log.error("Error replacing the price snapshot :[{}]", file, error);
+			return 0;
+		}
+		log.info("The snapshot :[{}] was written with [{}] prices", file, prices.size());
+		return prices.size();
+	}
+
+	/**
+	 * Load the prices of the last snapshot into a repository, unless it is older than a given age.
+	 * The prices are restored with the age they had when they were saved, plus the age of the
+	 * snapshot
+	 *
+	 * @param repository the repository
+	 * @param maxAge the maximum age of the snapshot
+	 *
+	 * @return the number of prices loaded
+	 */
+	public int restore(final CaffeineItemRepository repository, final Duration maxAge) {
+		if (!Files.exists(file)) {
+			log.info("There is no price snapshot :[{}] to restore", file);
+			return 0;
+		}
+		int restored = 0;
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			final MappedByteBuffer buffer = channel
+				.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC
+				|| buffer.getInt(4) != VERSION) {
+				log.warn("The price snapshot :[{}] has an unknown format, it is ignored", file);
+				return 0;
+			}
+			final long now = clock.millis();
+			final long age = now - buffer.getLong(16);
+			if (age > maxAge.toMillis()) {
+				log.info("The price snapshot :[{}] is [{}] ms old, it is ignored", file, age);
+				return 0;
+			}
+			final int capacity = buffer.getInt(8);
+			final int idsStart = HEADER_BYTES + capacity * SLOT_BYTES;
+			for (int slot = 0; slot < capacity; slot++) {
+				final int idPosition = buffer.getInt(slotAt(slot));
+				if (idPosition == EMPTY_SLOT) {
+					continue;
+				}
+				final byte[] id = new byte[buffer.getInt(slotAt(slot) + 4)];
+				((ByteBuffer) buffer.duplicate().position(idsStart + idPosition)).get(id);
+				final Duration priceAge =
+					Duration.ofMillis(Math.max(0, now - buffer.getLong(slotAt(slot) + 16)));
+				if (repository.restorePrice(new String(id, StandardCharsets.UTF_8),
+					buffer.getLong(slotAt(slot) + 8), priceAge)) {
+					restored++;
+				}
+			}
+		} catch (final IOException | RuntimeException error) {
+			log.error("Error reading the price snapshot :[{}]", file, error);
+		}
+		log.info("[{}] prices were restored from the snapshot :[{}]", restored, file);
+		return restored;
+	}
+
+	private static int capacity(final int count) {
+		int capacity = MIN_CAPACITY;
+		while (capacity < count * 2L) {
+			capacity <<= 1;
+		}
+		return capacity;
+	}
+
+	private static int bucket(final String id, final int capacity) {
+		final int hash = id.hashCode() * 0x9E3779B9;
+		return (hash ^ (hash >>> 16)) & (capacity - 1);
+	}
+
+	private static int slotAt(final int slot) {
+		return HEADER_BYTES + slot * SLOT_BYTES;
+	}
+
+	/**
+	 * A price to save and the instant in milliseconds it was obtained
+	 */
+	@Getter
+	@AllArgsConstructor(staticName = "create")
+	private static final class SavedPrice {
+
+		private final long units;
+		private final long writtenAt;
+	}
+}
@@ -0,0 +1,89 @@
+package api.meli.com.co.infrastructure.adapters.repositories;
+
+import api.meli.com.co.domain.repositories.CouponSolutionRepository;
+import api.meli.com.co.domain.vo.CouponSolution;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+import java.util.stream.Collectors;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import reactor.core.publisher.Mono;
+
+/**
+ * This repository shares the coupon solutions between the nodes through Redis. A solution is
+ * stored as its maximum benefit followed by the applied prices, for example {@code 480:100,210}
+ *
+ * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
+ * @since 1.0
+ */
+@Slf4j
+@AllArgsConstructor
+public class RedisCouponSolutionRepository implements CouponSolutionRepository {
+
+	private static final String BENEFIT_SEPARATOR = ":";
+	private static final String PRICE_SEPARATOR = ",";
+
+	/**
+	 * This client allows to get redis values
+	 */
+	private final ReactiveStringRedisTemplate redisTemplate;
+
+	/**
+	 * Time a solution is kept
+	 */
+	private final Duration timeToLive;
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletionStage<Optional<CouponSolution>> findSolutionByKey(final String key) {
+		log.info("Searching coupon solution [{}] from cache", key);
+		return redisTemplate.opsForValue().get(key)
+			.map(value -> {
+				log.info("The coupon solution [{}] was obtained from cache", key);
+				return Optional.of(decode(value));
+			})
+			.onErrorResume(error -> {
+				log.error("Error getting coupon solution :[{}] from cache", key, error);
+				return Mono.just(Optional.empty());
+			})
+			.defaultIfEmpty(Optional.empty())
+			.toFuture();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletionStage<CouponSolution> persistSolution(final String key,
+		final CouponSolution solution) {
+		log.info("Saving coupon solution [{}] on cache", key);
+		return redisTemplate.opsForValue().set(key, encode(solution), timeToLive)
+			.map(response -> solution)
+			.toFuture();
+	}
+
+	private static String encode(final CouponSolution solution) {
+		return solution.getMaximumBenefit() + BENEFIT_SEPARATOR + solution.getAppliedPrices()
+			.stream()
+			.map(String::valueOf)
+			.collect(Collectors.joining(PRICE_SEPARATOR));
+	}
+
+	private static CouponSolution decode(final String value) {
+		final int separator = value.indexOf(BENEFIT_SEPARATOR);
+		final String prices = value.substring(separator + 1);
+		final List<Integer> appliedPrices = prices.isEmpty() ? Collections.emptyList() :
+			Arrays.stream(prices.split(PRICE_SEPARATOR))
+				.map(Integer::valueOf)
+				.collect(Collectors.toList());
+		return CouponSolution
+			.create(Long.parseLong(value.substring(0, separator)), appliedPrices);
+	}
+}
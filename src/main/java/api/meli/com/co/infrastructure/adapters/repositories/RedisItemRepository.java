@@ -2,57 +2,369 @@ package api.meli.com.co.infrastructure.adapters.repositories;
 
 import api.meli.com.co.domain.repositories.ItemRepository;
 import api.meli.com.co.domain.vo.Item;
-import java.math.BigDecimal;
+import api.meli.com.co.infrastructure.adapters.repositories.PriceCodec.CachedPrice;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.UUID;
 import java.util.concurrent.CompletionStage;
-import lombok.AllArgsConstructor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveHashOperations;
 import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
- * This repository allows to obtain an item given its id from the Redis data store
+ * This repository allows to obtain an item given its id from the Redis data store. The prices are
+ * written in the compact format of {@link PriceCodec}, either each one in its own key or grouped in
+ * hashes by the id without its last digits, which Redis stores much more compactly than the same
+ * number of keys. Every price is saved with the time it took to get it and the instant it expires,
+ * and is kept in Redis for twice its time to live so it can still be served once expired. When a
+ * price is about to expire, each read decides at random whether to refresh it, with a probability
+ * that grows with the time it took to get it and with the proximity of the expiration. The node
+ * that decides to refresh it has to take a short lease on the item: if it gets the lease it
+ * reports the item as not found so the price is searched again, otherwise another node is already
+ * refreshing it and the saved price is returned. A hash that keeps being written never expires, so
+ * the prices in it older than twice their time to live are removed when they are read, and every
+ * write sweeps its hash with probability {@link #SWEEP_PROBABILITY}. Hashes therefore require a
+ * time to live. A value that cannot be decoded is ignored
  *
  * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
  * @since 1.0
  */
 @Slf4j
-@AllArgsConstructor
 public class RedisItemRepository implements ItemRepository {
 
+	private static final String LEASE_PREFIX = "lease:";
+	private static final String BUCKET_PREFIX = "items:";
+
+	/**
+	 * Probability that a write to a hash also removes its prices older than twice their time to
+	 * live
+	 */
+	static final double SWEEP_PROBABILITY = 1.0 / 16;
+
 	/**
 	 * This client allows to get redis values
 	 */
 	private final ReactiveStringRedisTemplate redisTemplate;
 
+	/**
+	 * Time a price is considered fresh, or null to keep the prices without expiration
+	 */
+	private final Duration timeToLive;
+
+	/**
+	 * Time a node holds the lease to refresh an item
+	 */
+	private final Duration leaseTime;
+
+	/**
+	 * Factor applied to the time it took to get a price, greater values refresh earlier
+	 */
+	private final double beta;
+
+	/**
+	 * Number of trailing digits of the ids that share a hash, 0 to save every price in its own key
+	 */
+	private final int bucketDigits;
+
+	/**
+	 * The clock used to expire the prices
+	 */
+	private final Clock clock;
+
+	/**
+	 * Random numbers in (0, 1] used to decide whether to refresh a price
+	 */
+	private final DoubleSupplier random;
+
+	/**
+	 * Identifies the leases taken by this node
+	 */
+	private final String nodeId = UUID.randomUUID().toString();
+
+	public RedisItemRepository(final ReactiveStringRedisTemplate redisTemplate) {
+		this(redisTemplate, null, Duration.ZERO, 0, 0);
+	}
+
+	public RedisItemRepository(final ReactiveStringRedisTemplate redisTemplate,
+		final Duration timeToLive, final Duration leaseTime, final double beta,
+		final int bucketDigits) {
+		this(redisTemplate, timeToLive, leaseTime, beta, bucketDigits, Clock.systemUTC(),
+			() -> 1 - ThreadLocalRandom.current().nextDouble());
+	}
+
+	public RedisItemRepository(final ReactiveStringRedisTemplate redisTemplate,
+		final Duration timeToLive, final Duration leaseTime, final double beta,
+		final int bucketDigits, final Clock clock, final DoubleSupplier random) {
+		if (bucketDigits > 0 && timeToLive == null) {
+			throw new IllegalArgumentException(
+				"The prices can only be grouped in hashes with a time to live");
+		}
+		this.redisTemplate = redisTemplate;
+		this.timeToLive = timeToLive;
+		this.leaseTime = leaseTime;
+		this.beta = beta;
+		this.bucketDigits = bucketDigits;
+		this.clock = clock;
+		this.random = random;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
 	public CompletionStage<Optional<Item>> findItemById(final String id) {
 		log.info("Searching item value for item id: [{}] from cache", id);
-		return redisTemplate.opsForValue().get(id)
-			.map(value -> {
-				if (value == null) {
-					return buildNotFoundResponse(id);
-				}
-				log.info("The item : [{}] was obtained from cache", id);
-				return Optional.of(Item.create(id, new BigDecimal(value)));
-			})
+		final Mono<String> value = bucketDigits == 0 ? redisTemplate.opsForValue().get(id) :
+			hashes().get(bucketOf(id), fieldOf(id));
+		return value
+			.flatMap(found -> fromCachedValue(id, found))
 			.onErrorResume(error -> Mono.just(buildErrorResponse(id, error)))
 			.defaultIfEmpty(buildNotFoundResponse(id))
 			.toFuture();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletionStage<Map<String, Item>> findItemsByIds(final Collection<String> ids) {
+		if (ids.isEmpty()) {
+			return Mono.just(Collections.<String, Item>emptyMap()).toFuture();
+		}
+		log.info("Searching item values for item ids: {} from cache", ids);
+		return findValues(new ArrayList<>(ids))
+			.concatMap(found -> fromCachedValue(found.getKey(), found.getValue()))
+			.filter(Optional::isPresent)
+			.map(Optional::get)
+			.collectMap(Item::getId)
+			.doOnNext(items -> log.info("The items : {} were obtained from cache", items.keySet()))
+			.onErrorResume(error -> {
+				log.error("Error getting items :{} from cache", ids, error.getCause());
+				return Mono.just(Collections.<String, Item>emptyMap());
+			})
+			.toFuture();
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
 	public CompletionStage<Item> persistItem(final Item item) {
+		return persistItem(item, Duration.ZERO);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletionStage<Item> persistItem(final Item item, final Duration computeTime) {
 		log.info("Saving item value for item id: [{}] on cache", item.getId());
-		return redisTemplate
-			.opsForValue().set(item.getId(), item.getPrice().toString())
-			.map(response -> item).toFuture();
+		if (bucketDigits > 0) {
+			return persistItems(Collections.singletonList(item), computeTime)
+				.thenApply(saved -> item);
+		}
+		final String value = encode(item, computeTime);
+		final Mono<Boolean> saved = timeToLive == null ?
+			redisTemplate.opsForValue().set(item.getId(), value) :
+			redisTemplate.opsForValue().set(item.getId(), value, timeToLive.multipliedBy(2));
+		return saved.map(response -> item).toFuture();
+	}
+
+	/**
+	 * {@inheritDoc}. Without time to live and hashes the items are saved with a single MSET.
+	 * Otherwise every item, or every hash, is saved with its own command, sent together through
+	 * the shared connection
+	 */
+	@Override
+	public CompletionStage<Void> persistItems(final Collection<Item> items,
+		final Duration computeTime) {
+		log.info("Saving [{}] item values on cache", items.size());
+		if (bucketDigits > 0) {
+			final Map<String, Map<String, String>> buckets = new LinkedHashMap<>();
+			items.forEach(item -> buckets
+				.computeIfAbsent(bucketOf(item.getId()), bucket -> new HashMap<>())
+				.put(fieldOf(item.getId()), encode(item, computeTime)));
+			return Flux.fromIterable(buckets.entrySet())
+				.flatMap(bucket -> hashes().putAll(bucket.getKey(), bucket.getValue())
+					.flatMap(saved ->
+						redisTemplate.expire(bucket.getKey(), timeToLive.multipliedBy(2)))
+					.then(random.getAsDouble() <= SWEEP_PROBABILITY ?
+						sweepBucket(bucket.getKey()) : Mono.empty()))
+				.then().toFuture();
+		}
+		if (timeToLive == null) {
+			final Map<String, String> values = new HashMap<>();
+			items.forEach(item -> values.put(item.getId(), encode(item, computeTime)));
+			return redisTemplate.opsForValue().multiSet(values).then().toFuture();
+		}
+		return Flux.fromIterable(items)
+			.flatMap(item -> redisTemplate.opsForValue()
+				.set(item.getId(), encode(item, computeTime), timeToLive.multipliedBy(2)))
+			.then().toFuture();
+	}
+
+	/**
+	 * Get the saved values of several items, with a single query per key or hash involved
+	 *
+	 * @param ids the item ids
+	 *
+	 * @return the saved values by id, the ids not found are not included
+	 */
+	private Flux<Entry<String, String>> findValues(final List<String> ids) {
+		if (bucketDigits == 0) {
+			return redisTemplate.opsForValue().multiGet(ids)
+				.flatMapIterable(values -> zip(ids, values));
+		}
+		final Map<String, List<String>> buckets = new LinkedHashMap<>();
+		ids.forEach(id -> buckets.computeIfAbsent(bucketOf(id), bucket -> new ArrayList<>())
+			.add(id));
+		return Flux.fromIterable(buckets.entrySet())
+			.concatMap(bucket -> {
+				final List<String> fields = new ArrayList<>();
+				bucket.getValue().forEach(id -> fields.add(fieldOf(id)));
+				return hashes().multiGet(bucket.getKey(), fields)
+					.flatMapIterable(values -> zip(bucket.getValue(), values));
+			});
+	}
+
+	/**
+	 * Remove the prices of a hash older than twice their time to live, or that cannot be decoded
+	 *
+	 * @param bucket the hash
+	 *
+	 * @return the number of prices removed
+	 */
+	private Mono<Long> sweepBucket(final String bucket) {
+		return hashes().entries(bucket)
+			.filter(entry -> isDead(entry.getValue()))
+			.map(Entry::getKey)
+			.collectList()
+			.flatMap(fields -> fields.isEmpty() ? Mono.just(0L) :
+				hashes().remove(bucket, fields.toArray()))
+			.doOnNext(removed -> {
+				if (removed > 0) {
+					log.info("[{}] expired prices were removed from :[{}]", removed, bucket);
+				}
+			})
+			.onErrorResume(error -> {
+				log.error("Error removing the expired prices of :[{}]", bucket, error);
+				return Mono.empty();
+			});
+	}
+
+	private boolean isDead(final String value) {
+		try {
+			return isDead(PriceCodec.decode(value));
+		} catch (final RuntimeException error) {
+			return true;
+		}
+	}
+
+	/**
+	 * Whether a price is past the time it is kept after expiring, which only happens in a hash
+	 */
+	private boolean isDead(final CachedPrice cached) {
+		return bucketDigits > 0 && cached.getExpiresAt() != Long.MAX_VALUE
+			&& clock.millis() >= cached.getExpiresAt() + timeToLive.toMillis();
+	}
+
+	private static List<Entry<String, String>> zip(final List<String> ids,
+		final List<String> values) {
+		final List<Entry<String, String>> found = new ArrayList<>();
+		for (int i = 0; i < ids.size(); i++) {
+			if (values.get(i) != null) {
+				found.add(new SimpleEntry<>(ids.get(i), values.get(i)));
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * Build the item from its saved value, or report it as not found when this node has to refresh
+	 * it
+	 *
+	 * @param id the item id
+	 * @param value the saved value
+	 *
+	 * @return the item, empty if this node has to refresh it or the value is not valid
+	 */
+	private Mono<Optional<Item>> fromCachedValue(final String id, final String value) {
+		final CachedPrice cached;
+		try {
+			cached = PriceCodec.decode(value);
+		} catch (final RuntimeException error) {
+			log.error("The cached value :[{}] of the item :[{}] is not valid", value, id, error);
+			return Mono.just(Optional.empty());
+		}
+		if (isDead(cached)) {
+			log.info("The item : [{}] expired long ago, removing it from cache", id);
+			return hashes().remove(bucketOf(id), fieldOf(id))
+				.onErrorResume(error -> Mono.empty())
+				.then(Mono.just(Optional.empty()));
+		}
+		final Optional<Item> item = Optional.of(Item.create(id, cached.getPrice()));
+		if (!shouldRefresh(cached.getComputeMillis(), cached.getExpiresAt())) {
+			log.info("The item : [{}] was obtained from cache", id);
+			return Mono.just(item);
+		}
+		return redisTemplate.opsForValue().setIfAbsent(LEASE_PREFIX + id, nodeId, leaseTime)
+			.map(acquired -> {
+				if (acquired) {
+					log.info("The item : [{}] is about to expire, refreshing it", id);
+					return Optional.<Item>empty();
+				}
+				log.info("The item : [{}] is being refreshed by another node", id);
+				return item;
+			})
+			.onErrorReturn(item)
+			.defaultIfEmpty(item);
+	}
+
+	/**
+	 * Decide whether a price has to be refreshed before its expiration, it always has to once
+	 * expired
+	 *
+	 * @param computeMillis the time it took to get the price
+	 * @param expiresAt the instant the price expires, in milliseconds since the epoch
+	 *
+	 * @return true if the price has to be refreshed
+	 */
+	private boolean shouldRefresh(final long computeMillis, final long expiresAt) {
+		return clock.millis() - computeMillis * beta * Math.log(random.getAsDouble()) >= expiresAt;
+	}
+
+	private String encode(final Item item, final Duration computeTime) {
+		if (timeToLive == null) {
+			return PriceCodec.encode(item.getPrice());
+		}
+		return PriceCodec.encode(item.getPrice(), computeTime.toMillis(),
+			clock.millis() + timeToLive.toMillis());
+	}
+
+	private ReactiveHashOperations<String, String, String> hashes() {
+		return redisTemplate.opsForHash();
+	}
+
+	private String bucketOf(final String id) {
+		return BUCKET_PREFIX + id.substring(0, Math.max(0, id.length() - bucketDigits));
+	}
+
+	private String fieldOf(final String id) {
+		return id.substring(Math.max(0, id.length() - bucketDigits));
 	}
 
 	private Optional<Item> buildNotFoundResponse(final String id) {
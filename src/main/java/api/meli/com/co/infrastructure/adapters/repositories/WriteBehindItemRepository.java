@@ -0,0 +1,261 @@
+package api.meli.com.co.infrastructure.adapters.repositories;
+
+import api.meli.com.co.domain.repositories.ItemRepository;
+import api.meli.com.co.domain.vo.Item;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * This repository saves the items in another repository in the background. A saved item is
+ * returned right away and waits in memory, where it can already be found, until a flusher writes
+ * it together with the other pending items. Several saves of the same item before a flush are
+ * written once. When the pending items reach the limit, new items are not saved. Closing it waits
+ * for the pending items to be written, up to {@link #CLOSE_TIMEOUT}, and closes the other
+ * repository
+ *
+ * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
+ * @since 1.0
+ */
+@Slf4j
+public class WriteBehindItemRepository implements ItemRepository, AutoCloseable {
+
+	/**
+	 * Maximum time to wait for the pending items to be written when closing
+	 */
+	static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(10);
+
+	/**
+	 * The repository the items are written to
+	 */
+	private final ItemRepository repository;
+
+	/**
+	 * Maximum number of items written by every flush
+	 */
+	private final int batchSize;
+
+	/**
+	 * Maximum number of items waiting to be written
+	 */
+	private final int maxPending;
+
+	/**
+	 * The scheduler of the flushes
+	 */
+	private final Scheduler scheduler;
+
+	/**
+	 * The items waiting to be written
+	 */
+	private final Map<String, PendingItem> pendingItems = new ConcurrentHashMap<>();
+
+	/**
+	 * The items being written
+	 */
+	private final Map<String, PendingItem> flushingItems = new ConcurrentHashMap<>();
+
+	/**
+	 * Number of items not saved because there were too many pending items
+	 */
+	private final Counter droppedItems;
+
+	/**
+	 * Number of items the repository failed to write
+	 */
+	private final Counter failedItems;
+
+	/**
+	 * Number of items written
+	 */
+	private final Counter flushedItems;
+
+	/**
+	 * The periodic flush
+	 */
+	private final Disposable periodicFlush;
+
+	/**
+	 * Whether a flush for a full batch is already scheduled
+	 */
+	private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+	public WriteBehindItemRepository(final ItemRepository repository,
+		final Duration flushInterval, final int batchSize, final int maxPending,
+		final Scheduler scheduler, final MeterRegistry meterRegistry) {
+		this.repository = repository;
+		this.batchSize = batchSize;
+		this.maxPending = maxPending;
+		this.scheduler = scheduler;
+		this.droppedItems = meterRegistry.counter("items.write-behind.dropped");
+		this.failedItems = meterRegistry.counter("items.write-behind.failed");
+		this.flushedItems = meterRegistry.counter("items.write-behind.flushed");
+		meterRegistry.gaugeMapSize("items.write-behind.pending", Tags.empty(), pendingItems);
+		this.periodicFlush = scheduler.schedulePeriodically(this::flush, flushInterval.toNanos(),
+			flushInterval.toNanos(), TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletionStage<Optional<Item>> findItemById(final String id) {
+		final Optional<Item> pending = findPendingItem(id);
+		if (pending.isPresent()) {
+			return CompletableFuture.completedFuture(pending);
+		}
+		return repository.findItemById(id);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletionStage<Map<String, Item>> findItemsByIds(final Collection<String> ids) {
+		final Map<String, Item> pending = new HashMap<>();
+		ids.forEach(id -> findPendingItem(id).ifPresent(item -> pending.put(id, item)));
+		if (pending.size() == ids.size()) {
+			return CompletableFuture.completedFuture(pending);
+		}
+		final List<String> missingIds = ids.stream()
+			.filter(id -> !pending.containsKey(id))
+			.collect(Collectors.toList());
+		return repository.findItemsByIds(missingIds)
+			.thenApply(found -> {
+				final Map<String, Item> items = new HashMap<>(found);
+				items.putAll(pending);
+				return items;
+			});
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletionStage<Item> persistItem(final Item item) {
+		return persistItem(item, Duration.ZERO);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletionStage<Item> persistItem(final Item item, final Duration computeTime) {
+		if (pendingItems.size() >= maxPending && !pendingItems.containsKey(item.getId())) {
+			log.warn("There are too many items waiting to be saved, the item :[{}] is not saved",
+				item.getId());
+			droppedItems.increment();
+			return CompletableFuture.completedFuture(item);
+		}
+		pendingItems.put(item.getId(), PendingItem.create(item, computeTime));
+		if (pendingItems.size() >= batchSize && flushScheduled.compareAndSet(false, true)) {
+			scheduler.schedule(() -> {
+				flushScheduled.set(false);
+				flush();
+			});
+		}
+		return CompletableFuture.completedFuture(item);
+	}
+
+	/**
+	 * Stop the periodic flush, write the pending items and close the other repository
+	 */
+	@Override
+	public void close() {
+		periodicFlush.dispose();
+		final List<CompletableFuture<Void>> flushes = new ArrayList<>();
+		while (!pendingItems.isEmpty()) {
+			flushes.add(flush());
+		}
+		try {
+			CompletableFuture.allOf(flushes.toArray(new CompletableFuture[0]))
+				.get(CLOSE_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+		} catch (final InterruptedException error) {
+			Thread.currentThread().interrupt();
+			log.error("Interrupted while saving the pending items", error);
+		} catch (final ExecutionException | TimeoutException error) {
+			log.error("The pending items could not be saved before closing", error);
+		}
+		if (repository instanceof AutoCloseable) {
+			try {
+				((AutoCloseable) repository).close();
+			} catch (final Exception error) {
+				log.error("Error closing the repository", error);
+			}
+		}
+	}
+
+	/**
+	 * Write up to {@link #batchSize} pending items with a single call to the repository. The time
+	 * it took to get the items is the longest of them
+	 *
+	 * @return completed when the items are written
+	 */
+	private CompletableFuture<Void> flush() {
+		final List<PendingItem> batch = new ArrayList<>();
+		for (final Map.Entry<String, PendingItem> entry : pendingItems.entrySet()) {
+			if (batch.size() >= batchSize) {
+				break;
+			}
+			if (pendingItems.remove(entry.getKey(), entry.getValue())) {
+				flushingItems.put(entry.getKey(), entry.getValue());
+				batch.add(entry.getValue());
+			}
+		}
+		if (batch.isEmpty()) {
+			return CompletableFuture.completedFuture(null);
+		}
+		final List<Item> items = batch.stream().map(PendingItem::getItem)
+			.collect(Collectors.toList());
+		final Duration computeTime = batch.stream().map(PendingItem::getComputeTime)
+			.max(Duration::compareTo).orElse(Duration.ZERO);
+		log.info("Saving [{}] pending items", items.size());
+		return repository.persistItems(items, computeTime)
+			.whenComplete((saved, error) -> {
+				if (error != null) {
+					log.error("Error saving the pending items :{}", items, error);
+					failedItems.increment(batch.size());
+				} else {
+					flushedItems.increment(batch.size());
+				}
+				batch.forEach(pending -> flushingItems.remove(pending.getItem().getId(), pending));
+			})
+			.toCompletableFuture();
+	}
+
+	private Optional<Item> findPendingItem(final String id) {
+		PendingItem pending = pendingItems.get(id);
+		if (pending == null) {
+			pending = flushingItems.get(id);
+		}
+		return pending == null ? Optional.empty() : Optional.of(pending.getItem());
+	}
+
+	@Getter
+	@AllArgsConstructor(staticName = "create")
+	private static final class PendingItem {
+
+		private final Item item;
+		private final Duration computeTime;
+	}
+}
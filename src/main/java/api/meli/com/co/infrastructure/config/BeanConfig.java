@@ -1,13 +1,43 @@
 package api.meli.com.co.infrastructure.config;
 
 import api.meli.com.co.application.CouponUseCases;
+import api.meli.com.co.domain.repositories.CouponSolutionRepository;
 import api.meli.com.co.domain.repositories.ItemRepository;
 import api.meli.com.co.domain.services.ItemFinderService;
+import api.meli.com.co.domain.services.SolverBufferPool;
+import api.meli.com.co.domain.vo.CouponSettings;
+import api.meli.com.co.domain.vo.Item;
+import api.meli.com.co.infrastructure.adapters.clients.MeliItemRestClient;
+import api.meli.com.co.infrastructure.adapters.repositories.CaffeineCouponSolutionRepository;
 import api.meli.com.co.infrastructure.adapters.repositories.CaffeineItemRepository;
+import api.meli.com.co.infrastructure.adapters.repositories.CaffeineItemRepository.RefreshPolicy;
+import api.meli.com.co.infrastructure.adapters.repositories.EvictableItemRepository;
+import api.meli.com.co.infrastructure.adapters.repositories.InvalidItemCache;
+import api.meli.com.co.infrastructure.adapters.repositories.LayeredCouponSolutionRepository;
+import api.meli.com.co.infrastructure.adapters.repositories.LayeredItemRepository;
+import api.meli.com.co.infrastructure.adapters.repositories.OffHeapItemRepository;
+import api.meli.com.co.infrastructure.adapters.repositories.PriceSnapshotScheduler;
+import api.meli.com.co.infrastructure.adapters.repositories.PriceSnapshotStore;
+import api.meli.com.co.infrastructure.adapters.repositories.RedisCouponSolutionRepository;
 import api.meli.com.co.infrastructure.adapters.repositories.RedisItemRepository;
+import api.meli.com.co.infrastructure.adapters.repositories.WriteBehindItemRepository;
+import api.meli.com.co.infrastructure.services.BatchingItemFinderService;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.math.BigDecimal;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
@@ -18,6 +48,7 @@ import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.web.reactive.config.EnableWebFlux;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.scheduler.Schedulers;
 
 /**
  * The bean configuration
@@ -30,8 +61,38 @@ import org.springframework.web.reactive.function.client.WebClient;
 public class BeanConfig {
 
 	@Bean
-	public CouponUseCases couponUseCases(final ItemFinderService itemService) {
-		return new CouponUseCases(itemService);
+	public CouponUseCases couponUseCases(final ItemFinderService itemService,
+		final CouponSolutionRepository solutionRepository, final CouponSettings couponSettings,
+		@Value("${api.clients.meli.items.batch-window:0ms}") final Duration batchWindow,
+		@Value("${api.clients.meli.items.batch-size:100}") final int batchSize) {
+
+		final ItemFinderService finderService = batchWindow.isZero() ? itemService :
+			new BatchingItemFinderService(itemService, batchWindow, batchSize,
+				Schedulers.parallel());
+		return new CouponUseCases(finderService, solutionRepository, couponSettings);
+	}
+
+	@Bean(destroyMethod = "shutdown")
+	public ForkJoinPool couponParallelPool(final CouponPropertiesConfig properties) {
+		return new ForkJoinPool(Math.max(1, properties.getParallelism()));
+	}
+
+	@Bean
+	public CouponSettings couponSettings(final CouponPropertiesConfig properties,
+		final ForkJoinPool couponParallelPool) {
+		final Map<String, BigDecimal> siteGranularity = new HashMap<>();
+		properties.getSiteGranularity()
+			.forEach((site, granularity) -> siteGranularity.put(site.toUpperCase(), granularity));
+
+		return CouponSettings.builder()
+			.defaultGranularity(properties.getDefaultGranularity())
+			.siteGranularity(siteGranularity)
+			.bufferPool(properties.getBufferPoolMaxWords() > 0 ?
+				new SolverBufferPool(properties.getBufferPoolMaxWords()) : null)
+			.parallelPool(properties.getParallelism() > 1 ? couponParallelPool : null)
+			.parallelThreshold(properties.getParallelThreshold())
+			.solveTimeout(properties.getSolveTimeout())
+			.build();
 	}
 
 	@Bean
@@ -57,15 +118,113 @@ public class BeanConfig {
 		return caffeineCacheManager;
 	}
 
+	@Bean(destroyMethod = "close")
+	@ConditionalOnProperty("api.clients.cache.memory.snapshot.path")
+	public PriceSnapshotScheduler priceSnapshotScheduler(
+		@Value("${api.clients.cache.memory.snapshot.path}") final String snapshotPath,
+		@Value("${api.clients.cache.memory.snapshot.interval:5m}") final Duration snapshotInterval,
+		@Value("${api.clients.cache.memory.time-to-life:20}") final Integer timeToLife) {
+		return new PriceSnapshotScheduler(new PriceSnapshotStore(Paths.get(snapshotPath)),
+			snapshotInterval, Duration.ofMinutes(timeToLife), Schedulers.boundedElastic());
+	}
+
 	@Bean
 	public ItemRepository itemRepository(
 		@Value("${api.clients.cache.redis.enable}") final boolean redisEnable,
+		@Value("${api.clients.cache.redis.near-cache:false}") final boolean nearCache,
+		@Value("${api.clients.cache.redis.invalidation-channel:items-invalidation}")
+		final String invalidationChannel,
+		@Value("${api.clients.cache.redis.time-to-live:0ms}") final Duration redisTimeToLive,
+		@Value("${api.clients.cache.redis.lease-time:5s}") final Duration leaseTime,
+		@Value("${api.clients.cache.redis.early-refresh-beta:1}") final double earlyRefreshBeta,
+		@Value("${api.clients.cache.redis.hash-bucket-digits:0}") final int hashBucketDigits,
 		@Value("${api.clients.cache.memory.time-to-life:20}") final Integer timeToLife,
 		@Value("${api.clients.cache.memory.maximum-size:10}") final Integer maximumSize,
+		@Value("${api.clients.cache.memory.refresh-after:0ms}") final Duration refreshAfter,
+		@Value("${api.clients.cache.memory.refresh-jitter:0}") final double refreshJitter,
+		@Value("${api.clients.cache.memory.off-heap:false}") final boolean offHeap,
+		@Value("${api.clients.cache.write-behind.flush-interval:0ms}") final Duration flushInterval,
+		@Value("${api.clients.cache.write-behind.batch-size:100}") final int flushBatchSize,
+		@Value("${api.clients.cache.write-behind.max-pending:10000}") final int maxPending,
+		final ReactiveStringRedisTemplate redisTemplate,
+		final MeliItemRestClient itemRestClient,
+		final MeterRegistry meterRegistry,
+		final ObjectProvider<PriceSnapshotScheduler> snapshotScheduler) {
+
+		// With a near cache, the refreshed prices are saved through the layered repository
+		final AtomicReference<ItemRepository> refreshedItems = new AtomicReference<>();
+		final EvictableItemRepository memoryRepository;
+		if (offHeap) {
+			if (!refreshAfter.isZero() || snapshotScheduler.getIfAvailable() != null) {
+				throw new IllegalStateException("The off heap memory cache supports neither "
+					+ "refresh-after nor snapshot, remove them or disable off-heap");
+			}
+			final long requiredBytes = OffHeapItemRepository.requiredBytes(maximumSize);
+			final long maxDirectMemory = OffHeapItemRepository.maxDirectMemory();
+			if (requiredBytes > maxDirectMemory) {
+				throw new IllegalStateException(String.format("The off heap memory cache needs "
+					+ "%d bytes of direct memory but the JVM allows %d, raise "
+					+ "-XX:MaxDirectMemorySize or lower maximum-size", requiredBytes,
+					maxDirectMemory));
+			}
+			memoryRepository =
+				new OffHeapItemRepository(Duration.ofMinutes(timeToLife), maximumSize);
+		} else {
+			final CaffeineItemRepository caffeineRepository = new CaffeineItemRepository(
+				timeToLife, maximumSize, Runnable::run, Ticker.systemTicker(),
+				refreshAfter.isZero() ? null : RefreshPolicy.create(refreshAfter, refreshJitter,
+					id -> loadPrice(itemRestClient, refreshedItems.get(), id)));
+			snapshotScheduler.ifAvailable(scheduler -> scheduler.start(caffeineRepository));
+			memoryRepository = caffeineRepository;
+		}
+		if (!redisEnable) {
+			return memoryRepository;
+		}
+		final RedisItemRepository redisRepository = new RedisItemRepository(redisTemplate,
+			redisTimeToLive.isZero() ? null : redisTimeToLive, leaseTime, earlyRefreshBeta,
+			hashBucketDigits);
+		final ItemRepository repository;
+		if (nearCache) {
+			final LayeredItemRepository layeredRepository = new LayeredItemRepository(
+				memoryRepository, redisRepository, redisTemplate, invalidationChannel);
+			layeredRepository.listenInvalidations();
+			refreshedItems.set(layeredRepository);
+			repository = layeredRepository;
+		} else {
+			repository = redisRepository;
+		}
+		return flushInterval.isZero() ? repository :
+			new WriteBehindItemRepository(repository, flushInterval, flushBatchSize, maxPending,
+				Schedulers.parallel(), meterRegistry);
+	}
+
+	private static CompletionStage<Item> loadPrice(final MeliItemRestClient itemRestClient,
+		final ItemRepository repository, final String id) {
+		return itemRestClient.getItemPriceById(id).toFuture()
+			.thenCompose(item -> repository == null || item.getPrice() == null ?
+				CompletableFuture.completedFuture(item) : repository.persistItem(item));
+	}
+
+	@Bean
+	public InvalidItemCache invalidItemCache(
+		@Value("${api.clients.cache.invalid-items.time-to-live:30s}") final Duration timeToLive,
+		@Value("${api.clients.cache.invalid-items.maximum-size:10000}") final long maximumSize,
+		@Value("${api.clients.cache.invalid-items.filter-bits:0}") final int filterBits) {
+		return new InvalidItemCache(timeToLive, maximumSize, filterBits);
+	}
+
+	@Bean
+	public CouponSolutionRepository couponSolutionRepository(
+		@Value("${api.clients.cache.redis.enable}") final boolean redisEnable,
+		@Value("${api.clients.cache.solutions.time-to-life:30}") final Integer timeToLife,
+		@Value("${api.clients.cache.solutions.maximum-size:1000}") final Integer maximumSize,
 		final ReactiveStringRedisTemplate redisTemplate) {
 
+		final CouponSolutionRepository localRepository =
+			new CaffeineCouponSolutionRepository(timeToLife, maximumSize);
 		return redisEnable ?
-			new RedisItemRepository(redisTemplate) :
-			new CaffeineItemRepository(timeToLife, maximumSize);
+			new LayeredCouponSolutionRepository(localRepository,
+				new RedisCouponSolutionRepository(redisTemplate, Duration.ofMinutes(timeToLife))) :
+			localRepository;
 	}
 }
@@ -0,0 +1,28 @@
+package api.meli.com.co.infrastructure.config;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * This configuration class allows to load the coupon calculation settings from the properties file
+ *
+ * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
+ * @since 1.0
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "api.coupon")
+public class CouponPropertiesConfig {
+
+	private BigDecimal defaultGranularity = BigDecimal.ONE;
+	private Map<String, BigDecimal> siteGranularity = new HashMap<>();
+	private int bufferPoolMaxWords;
+	private int parallelism;
+	private long parallelThreshold = Long.MAX_VALUE;
+	private Duration solveTimeout;
+}
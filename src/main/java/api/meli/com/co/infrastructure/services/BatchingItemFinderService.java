@@ -0,0 +1,138 @@
+package api.meli.com.co.infrastructure.services;
+
+import api.meli.com.co.domain.services.ItemFinderService;
+import api.meli.com.co.domain.vo.Item;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * This service groups the item ids asked by concurrent requests during a short window, or until
+ * the group reaches a maximum size, and searches them with a single call to another
+ * {@link ItemFinderService}. Every request then gets the items it asked for
+ *
+ * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
+ * @since 1.0
+ */
+@Slf4j
+public class BatchingItemFinderService implements ItemFinderService {
+
+	/**
+	 * The service that searches every group of ids
+	 */
+	private final ItemFinderService itemService;
+
+	/**
+	 * Time a group waits for more ids since its first request
+	 */
+	private final Duration window;
+
+	/**
+	 * Number of distinct ids that closes a group before its window ends
+	 */
+	private final int maxBatchSize;
+
+	/**
+	 * The scheduler that closes the groups when their window ends
+	 */
+	private final Scheduler scheduler;
+
+	/**
+	 * The group accepting ids, or null if there is none
+	 */
+	private Batch currentBatch;
+
+	public BatchingItemFinderService(final ItemFinderService itemService, final Duration window,
+		final int maxBatchSize, final Scheduler scheduler) {
+		this.itemService = itemService;
+		this.window = window;
+		this.maxBatchSize = maxBatchSize;
+		this.scheduler = scheduler;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletionStage<List<Item>> findPricesByItemIds(final List<String> itemIds) {
+		final Batch batch;
+		final boolean full;
+		synchronized (this) {
+			if (currentBatch == null) {
+				final Batch opened = new Batch();
+				currentBatch = opened;
+				scheduler.schedule(() -> close(opened), window.toNanos(), TimeUnit.NANOSECONDS);
+			}
+			batch = currentBatch;
+			batch.itemIds.addAll(itemIds);
+			full = batch.itemIds.size() >= maxBatchSize;
+			if (full) {
+				currentBatch = null;
+			}
+		}
+		final CompletionStage<List<Item>> response = batch.items
+			.thenApply(items -> itemIds.stream()
+				.filter(items::containsKey)
+				.map(items::get)
+				.collect(Collectors.toList()));
+		if (full) {
+			dispatch(batch);
+		}
+		return response;
+	}
+
+	private void close(final Batch batch) {
+		synchronized (this) {
+			if (currentBatch == batch) {
+				currentBatch = null;
+			}
+		}
+		dispatch(batch);
+	}
+
+	private void dispatch(final Batch batch) {
+		if (!batch.dispatched.compareAndSet(false, true)) {
+			return;
+		}
+		final List<String> itemIds;
+		synchronized (this) {
+			itemIds = new ArrayList<>(batch.itemIds);
+		}
+		log.info("Searching a group of [{}] item ids: {}", itemIds.size(), itemIds);
+		final CompletionStage<List<Item>> found;
+		try {
+			found = itemService.findPricesByItemIds(itemIds);
+		} catch (final RuntimeException error) {
+			log.error("The group of item ids: {} could not be searched", itemIds, error);
+			batch.items.completeExceptionally(error);
+			return;
+		}
+		found
+			.whenComplete((items, error) -> {
+				if (error != null) {
+					batch.items.completeExceptionally(error);
+				} else {
+					batch.items.complete(items.stream()
+						.collect(Collectors.toMap(Item::getId, Function.identity(), (a, b) -> a)));
+				}
+			});
+	}
+
+	private static final class Batch {
+
+		private final Set<String> itemIds = new LinkedHashSet<>();
+		private final CompletableFuture<Map<String, Item>> items = new CompletableFuture<>();
+		private final AtomicBoolean dispatched = new AtomicBoolean();
+	}
+}
@@ -4,17 +4,29 @@ import api.meli.com.co.domain.repositories.ItemRepository;
 import api.meli.com.co.domain.services.ItemFinderService;
 import api.meli.com.co.domain.vo.Item;
 import api.meli.com.co.infrastructure.adapters.clients.MeliItemRestClient;
+import api.meli.com.co.infrastructure.adapters.repositories.InvalidItemCache;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 
 /**
  * This service allows the query of items by implementing port XX and saving the results in cache.
- * First look for the results in cache and if no results are found then invoke the remote service
+ * First look for all the items in cache with a single query and then invoke the remote service for
+ * the ones not found, asking for several of them in every remote request. Concurrent requests
+ * missing the same item share a single remote search. The items the remote service answers as not
+ * found are remembered for a while and skipped without searching them again
  *
  * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
  * @since 1.0
@@ -34,36 +46,123 @@ public class CacheableRemoteItemFinderService implements ItemFinderService {
 	 */
 	private final ItemRepository itemRepository;
 
+	/**
+	 * The ids recently not found in the remote service
+	 */
+	private final InvalidItemCache invalidItems;
+
+	/**
+	 * The items being searched in the remote service, so concurrent requests share the search
+	 */
+	private final Map<String, Mono<Item>> inFlightItems = new ConcurrentHashMap<>();
+
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
 	public CompletionStage<List<Item>> findPricesByItemIds(final List<String> itemIds) {
-		return Flux.fromIterable(itemIds)
-			.flatMap(this::fromCache)
-			.flatMap(this::fromRemoteServiceIfNecessary)
+		return fromCache(itemIds)
+			.flatMap(cached -> fromRemoteServiceIfNecessary(itemIds, cached))
+			.flatMapIterable(items -> itemIds.stream()
+				.filter(items::containsKey)
+				.map(items::get)
+				.collect(Collectors.toList()))
 			.map(item -> {
 				log.info("The item with id :[{}] was found with price [{}]", item.getId(),
 					item.getPrice());
 				return item;
 			})
-			.onErrorContinue((error, item) ->
-				log.error("Error getting item :[{}], error message:[{}]",
-					item, error.getMessage(), error)
-			).collectList().toFuture();
+			.collectList().toFuture();
 	}
 
-	private Mono<Item> fromCache(final String itemId) {
-		return Mono
-			.fromCompletionStage(itemRepository.findItemById(itemId))
-			.map(item -> item.orElse(Item.create(itemId)));
+	private Mono<Map<String, Item>> fromCache(final List<String> itemIds) {
+		return Mono.fromCompletionStage(itemRepository.findItemsByIds(itemIds));
 	}
 
-	private Mono<Item> fromRemoteServiceIfNecessary(final Item item) {
-		if (item.getPrice() == null) {
-			return meliItemRestClient.getItemPriceById(item.getId())
-				.flatMap(result -> Mono.fromCompletionStage(itemRepository.persistItem(result)));
+	private Mono<Map<String, Item>> fromRemoteServiceIfNecessary(final List<String> itemIds,
+		final Map<String, Item> cached) {
+		final List<String> missingIds = itemIds.stream()
+			.filter(itemId -> !cached.containsKey(itemId))
+			.distinct()
+			.filter(itemId -> {
+				if (invalidItems.contains(itemId)) {
+					log.info("The item :[{}] was recently not found, skipping it", itemId);
+					return false;
+				}
+				return true;
+			})
+			.collect(Collectors.toList());
+		if (missingIds.isEmpty()) {
+			return Mono.just(cached);
+		}
+
+		final Map<String, Mono<Item>> claimedItems = new LinkedHashMap<>();
+		final Sinks.One<Map<String, Mono<Item>>> claims = Sinks.one();
+		final Flux<Item> remoteItems = fromRemoteService(claims.asMono());
+		final List<Mono<Item>> pendingItems = missingIds.stream()
+			.map(itemId -> inFlightItems.computeIfAbsent(itemId, id -> {
+				final Mono<Item> item = remoteItems
+					.filter(remoteItem -> id.equals(remoteItem.getId()))
+					.next();
+				claimedItems.put(id, item);
+				return item;
+			}))
+			.collect(Collectors.toList());
+		claims.tryEmitValue(claimedItems);
+		if (claimedItems.size() < missingIds.size()) {
+			log.info("[{}] of the items :{} are already being searched by another request",
+				missingIds.size() - claimedItems.size(), missingIds);
 		}
-		return Mono.just(item);
+
+		return Flux.merge(pendingItems)
+			.collectMap(Item::getId)
+			.map(found -> {
+				found.putAll(cached);
+				return found;
+			});
+	}
+
+	/**
+	 * Search the claimed items in the remote service with a single call shared by every request
+	 * waiting for them. The call starts once the claiming request has claimed all its items, and
+	 * the items are released when it finishes
+	 *
+	 * @param claims the items claimed by the calling request
+	 *
+	 * @return the items found
+	 */
+	private Flux<Item> fromRemoteService(final Mono<Map<String, Mono<Item>>> claims) {
+		return claims
+			.flatMapMany(claimedItems -> {
+				final long startTime = System.nanoTime();
+				final Set<String> notFoundIds = ConcurrentHashMap.newKeySet();
+				return meliItemRestClient
+					.getItemPricesByIds(new ArrayList<>(claimedItems.keySet()))
+					.filter(item -> {
+						if (item.getPrice() == null) {
+							notFoundIds.add(item.getId());
+							return false;
+						}
+						return true;
+					})
+					.flatMap(item -> Mono.fromCompletionStage(itemRepository.persistItem(item,
+						Duration.ofNanos(System.nanoTime() - startTime))))
+					.onErrorContinue((error, item) ->
+						log.error("Error getting item :[{}], error message:[{}]",
+							item, error.getMessage(), error)
+					)
+					.onErrorResume(error -> {
+						log.error("Error getting items :{}, error message:[{}]",
+							claimedItems.keySet(), error.getMessage(), error);
+						return Mono.empty();
+					})
+					.doFinally(signal -> {
+						if (!notFoundIds.isEmpty()) {
+							invalidItems.addAll(notFoundIds);
+						}
+						claimedItems.forEach(inFlightItems::remove);
+					});
+			})
+			.cache();
 	}
 }
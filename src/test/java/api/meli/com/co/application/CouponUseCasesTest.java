@@ -3,21 +3,31 @@ package api.meli.com.co.application;
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import api.meli.com.co.domain.exceptions.InvalidAmountException;
 import api.meli.com.co.domain.exceptions.ItemsNotFoundException;
+import api.meli.com.co.domain.repositories.CouponSolutionRepository;
 import api.meli.com.co.domain.services.ItemFinderService;
 import api.meli.com.co.domain.vo.CalculatedCoupon;
+import api.meli.com.co.domain.vo.CouponSettings;
+import api.meli.com.co.domain.vo.CouponSolution;
 import api.meli.com.co.domain.vo.Item;
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -34,9 +44,22 @@ public class CouponUseCasesTest {
 	@Mock
 	private ItemFinderService itemService;
 
-	@InjectMocks
+	@Mock
+	private CouponSolutionRepository solutionRepository;
+
 	private CouponUseCases useCases;
 
+	@BeforeEach
+	public void setUp() {
+		Mockito.lenient().when(solutionRepository.findSolutionByKey(Mockito.anyString()))
+			.thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+		Mockito.lenient().when(solutionRepository
+			.persistSolution(Mockito.anyString(), Mockito.any(CouponSolution.class)))
+			.thenAnswer(invocation -> CompletableFuture.completedFuture(invocation.getArgument(1)));
+		useCases = new CouponUseCases(itemService, solutionRepository,
+			CouponSettings.builder().build());
+	}
+
 	@Test
 	public void calculateMaximumBenefit_whenCouponIsValidAndApplyItems() throws Exception {
 		when(itemService.findPricesByItemIds(Mockito.anyList()))
@@ -56,10 +79,187 @@ public class CouponUseCasesTest {
 		assertThat(response.getMaximumBenefit(), is(BigDecimal.valueOf(480)));
 		assertThat(response.getAppliedItems(),
 			Matchers.containsInAnyOrder("MLA1", "MLA2", "MLA4", "MLA5"));
+		assertThat(response.isOptimal(), is(true));
+
+		verify(itemService).findPricesByItemIds(Mockito.anyList());
+		verify(solutionRepository)
+			.persistSolution(Mockito.anyString(), Mockito.any(CouponSolution.class));
+	}
+
+	@Test
+	public void calculateMaximumBenefit_whenSolutionIsSaved() throws Exception {
+		final String key = CouponSolution.key(new Item[]{
+			Item.create("MLA9", BigDecimal.valueOf(210)),
+			Item.create("MLA8", BigDecimal.valueOf(100)),
+			Item.create("MLA7", BigDecimal.valueOf(100))
+		}, BigDecimal.valueOf(300));
+		when(solutionRepository.findSolutionByKey(key))
+			.thenReturn(CompletableFuture.completedFuture(
+				Optional.of(CouponSolution.create(200, Arrays.asList(100, 100)))));
+		when(itemService.findPricesByItemIds(Mockito.anyList()))
+			.thenReturn(CompletableFuture.completedFuture(Arrays.asList(
+				Item.create("MLA1", BigDecimal.valueOf(100)),
+				Item.create("MLA2", BigDecimal.valueOf(210)),
+				Item.create("MLA3", BigDecimal.valueOf(100))
+			)));
+
+		final CalculatedCoupon response = useCases
+			.calculateMaximumBenefit(BigDecimal.valueOf(300),
+				Arrays.asList("MLA1", "MLA2", "MLA3")).toCompletableFuture().get();
+
+		assertThat(response.getMaximumBenefit(), is(BigDecimal.valueOf(200)));
+		assertThat(response.getAppliedItems(), Matchers.containsInAnyOrder("MLA1", "MLA3"));
+
+		verify(solutionRepository, never())
+			.persistSolution(Mockito.anyString(), Mockito.any(CouponSolution.class));
+	}
+
+	@Test
+	public void calculateMaximumBenefit_whenSolutionCannotBeSaved() throws Exception {
+		final CompletableFuture<CouponSolution> failure = new CompletableFuture<>();
+		failure.completeExceptionally(new IllegalStateException("unavailable"));
+		when(solutionRepository
+			.persistSolution(Mockito.anyString(), Mockito.any(CouponSolution.class)))
+			.thenReturn(failure);
+		when(itemService.findPricesByItemIds(Mockito.anyList()))
+			.thenReturn(CompletableFuture.completedFuture(Arrays.asList(
+				Item.create("MLA1", BigDecimal.valueOf(100)),
+				Item.create("MLA2", BigDecimal.valueOf(210)),
+				Item.create("MLA3", BigDecimal.valueOf(260))
+			)));
+
+		final CalculatedCoupon response = useCases
+			.calculateMaximumBenefit(BigDecimal.valueOf(370),
+				Arrays.asList("MLA1", "MLA2", "MLA3")).toCompletableFuture().get();
+
+		assertThat(response.getMaximumBenefit(), is(BigDecimal.valueOf(360)));
+		assertThat(response.getAppliedItems(), Matchers.containsInAnyOrder("MLA1", "MLA3"));
+	}
+
+	@Test
+	public void calculateMaximumBenefit_whenCouponAmountIsLarge() throws Exception {
+		when(itemService.findPricesByItemIds(Mockito.anyList()))
+			.thenReturn(CompletableFuture.completedFuture(Arrays.asList(
+				Item.create("MCO1", BigDecimal.valueOf(21_399_000)),
+				Item.create("MCO2", BigDecimal.valueOf(12_500_000)),
+				Item.create("MCO3", BigDecimal.valueOf(9_999_000)),
+				Item.create("MCO4", BigDecimal.valueOf(7_800_000)),
+				Item.create("MCO5", BigDecimal.valueOf(45_000_000))
+			)));
+
+		final CalculatedCoupon response = useCases
+			.calculateMaximumBenefit(BigDecimal.valueOf(40_000_000),
+				Arrays.asList("MCO1", "MCO2", "MCO3", "MCO4", "MCO5")).toCompletableFuture().get();
+
+		assertThat(response.getMaximumBenefit(), is(BigDecimal.valueOf(39_198_000)));
+		assertThat(response.getAppliedItems(),
+			Matchers.containsInAnyOrder("MCO1", "MCO3", "MCO4"));
+
+		verify(itemService).findPricesByItemIds(Mockito.anyList());
+	}
+
+	@Test
+	public void calculateMaximumBenefit_whenSiteHasGranularity() throws Exception {
+		useCases = new CouponUseCases(itemService, solutionRepository, CouponSettings.builder()
+			.siteGranularity(Collections.singletonMap("MCO", BigDecimal.valueOf(50)))
+			.build());
+		when(itemService.findPricesByItemIds(Mockito.anyList()))
+			.thenReturn(CompletableFuture.completedFuture(Arrays.asList(
+				Item.create("MCO1", BigDecimal.valueOf(213_950)),
+				Item.create("MCO2", BigDecimal.valueOf(99_900)),
+				Item.create("MCO3", BigDecimal.valueOf(150_000))
+			)));
+
+		final CalculatedCoupon response = useCases
+			.calculateMaximumBenefit(BigDecimal.valueOf(250_020),
+				Arrays.asList("MCO1", "MCO2", "MCO3")).toCompletableFuture().get();
+
+		assertThat(response.getCouponAmount(), is(BigDecimal.valueOf(250_000)));
+		assertThat(response.getMaximumBenefit(), is(BigDecimal.valueOf(249_900)));
+		assertThat(response.getAppliedItems(), Matchers.containsInAnyOrder("MCO2", "MCO3"));
 
 		verify(itemService).findPricesByItemIds(Mockito.anyList());
 	}
 
+	@Test
+	public void calculateMaximumBenefit_whenSolveTimeoutExpires() throws Exception {
+		useCases = new CouponUseCases(itemService, solutionRepository, CouponSettings.builder()
+			.solveTimeout(Duration.ZERO)
+			.build());
+		final List<Item> items = new ArrayList<>();
+		for (int i = 0; i < 30; i++) {
+			items.add(Item.create("MLA" + i, BigDecimal.valueOf(1002 + 14 * i)));
+		}
+		when(itemService.findPricesByItemIds(Mockito.anyList()))
+			.thenReturn(CompletableFuture.completedFuture(items));
+
+		final CalculatedCoupon response = useCases
+			.calculateMaximumBenefit(BigDecimal.valueOf(15_001), Arrays.asList("MLA0", "MLA1"))
+			.toCompletableFuture().get();
+
+		assertThat(response.isOptimal(), is(false));
+		assertThat(response.getMaximumBenefit(), is(BigDecimal.valueOf(14_718)));
+		assertThat(response.getAppliedItems().size(), is(11));
+	}
+
+	@Test
+	public void calculateMaximumBenefit_whenApproximationIsAccepted() throws Exception {
+		final List<Item> items = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			items.add(Item.create("MCO" + i, BigDecimal.valueOf(10_001 + (i * 7_919L) % 200_000)));
+		}
+		when(itemService.findPricesByItemIds(Mockito.anyList()))
+			.thenReturn(CompletableFuture.completedFuture(items));
+
+		final CalculatedCoupon response = useCases
+			.calculateMaximumBenefit(BigDecimal.valueOf(1_000_000), Arrays.asList("MCO0", "MCO1"),
+				BigDecimal.valueOf(0.1)).toCompletableFuture().get();
+
+		final BigDecimal total = items.stream()
+			.filter(item -> response.getAppliedItems().contains(item.getId()))
+			.map(Item::getPrice)
+			.reduce(BigDecimal.ZERO, BigDecimal::add);
+		assertThat(response.getMaximumBenefit(), is(total));
+		assertThat(response.getMaximumBenefit().intValue(),
+			Matchers.greaterThanOrEqualTo(900_000));
+		assertThat(response.getMaximumBenefit().intValue(),
+			Matchers.lessThanOrEqualTo(1_000_000));
+	}
+
+	@Test
+	public void calculateMaximumBenefit_whenEpsilonIsInvalid() {
+		Assertions.assertThrows(InvalidAmountException.class, () ->
+			useCases.calculateMaximumBenefit(BigDecimal.TEN, Arrays.asList("MLA1"), BigDecimal.ONE)
+		);
+		Assertions.assertThrows(InvalidAmountException.class, () ->
+			useCases.calculateMaximumBenefit(BigDecimal.TEN, Arrays.asList("MLA1"),
+				BigDecimal.ZERO)
+		);
+	}
+
+	@Test
+	public void calculateMaximumBenefit_whenPricesAreRepeated() throws Exception {
+		final List<Item> items = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			items.add(Item.create("MLA" + i, BigDecimal.valueOf(i % 2 == 0 ? 120 : 75)));
+		}
+		when(itemService.findPricesByItemIds(Mockito.anyList()))
+			.thenReturn(CompletableFuture.completedFuture(items));
+
+		final CalculatedCoupon response = useCases
+			.calculateMaximumBenefit(BigDecimal.valueOf(1_000), Arrays.asList("MLA0", "MLA1"))
+			.toCompletableFuture().get();
+
+		// 2 x 120 + 10 x 75 is the largest multiple of 15 that fits
+		assertThat(response.getMaximumBenefit(), is(BigDecimal.valueOf(990)));
+		assertThat(response.getAppliedItems().stream().distinct().count(),
+			is((long) response.getAppliedItems().size()));
+		assertThat(items.stream()
+			.filter(item -> response.getAppliedItems().contains(item.getId()))
+			.map(Item::getPrice)
+			.reduce(BigDecimal.ZERO, BigDecimal::add), is(BigDecimal.valueOf(990)));
+	}
+
 	@Test
 	public void calculateMaximumBenefit_whenCouponIsValidAndNotApplyItems() throws Exception {
 		when(itemService.findPricesByItemIds(Mockito.anyList()))
@@ -82,4 +282,65 @@ public class CouponUseCasesTest {
 
 		verify(itemService).findPricesByItemIds(Mockito.anyList());
 	}
+
+	@Test
+	public void calculateMaximumBenefits_whenThereAreSeveralCoupons() throws Exception {
+		when(itemService.findPricesByItemIds(Mockito.anyList()))
+			.thenReturn(CompletableFuture.completedFuture(Arrays.asList(
+				Item.create("MLA1", BigDecimal.valueOf(100)),
+				Item.create("MLA2", BigDecimal.valueOf(210)),
+				Item.create("MLA3", BigDecimal.valueOf(260)),
+				Item.create("MLA4", BigDecimal.valueOf(80)),
+				Item.create("MLA5", BigDecimal.valueOf(90))
+			)));
+
+		final List<CalculatedCoupon> response = useCases
+			.calculateMaximumBenefits(
+				Arrays.asList(BigDecimal.valueOf(500), BigDecimal.valueOf(70),
+					BigDecimal.valueOf(200)),
+				Arrays.asList("MLA1", "MLA2", "MLA3", "MLA4", "MLA5")).toCompletableFuture().get();
+
+		assertThat(response.size(), is(3));
+		assertThat(response.get(0).getCouponAmount(), is(BigDecimal.valueOf(500)));
+		assertThat(response.get(0).getMaximumBenefit(), is(BigDecimal.valueOf(480)));
+		assertThat(response.get(0).getAppliedItems(),
+			Matchers.containsInAnyOrder("MLA1", "MLA2", "MLA4", "MLA5"));
+		assertThat(response.get(1).getMaximumBenefit(), is(BigDecimal.ZERO));
+		assertThat(response.get(1).getAppliedItems(), Matchers.empty());
+		assertThat(response.get(2).getCouponAmount(), is(BigDecimal.valueOf(200)));
+		assertThat(response.get(2).getMaximumBenefit(), is(BigDecimal.valueOf(190)));
+		assertThat(response.get(2).getAppliedItems(),
+			Matchers.containsInAnyOrder("MLA1", "MLA5"));
+
+		verify(itemService).findPricesByItemIds(Mockito.anyList());
+	}
+
+	@Test
+	public void calculateMaximumBenefits_whenNoCouponApplyItems() {
+		when(itemService.findPricesByItemIds(Mockito.anyList()))
+			.thenReturn(CompletableFuture.completedFuture(Arrays.asList(
+				Item.create("MLA1", BigDecimal.valueOf(600)),
+				Item.create("MLA2", BigDecimal.valueOf(610))
+			)));
+
+		final Throwable error = Assertions.assertThrows(Exception.class, () ->
+			useCases
+				.calculateMaximumBenefits(
+					Arrays.asList(BigDecimal.valueOf(500), BigDecimal.valueOf(300)),
+					Arrays.asList("MLA1", "MLA2")).toCompletableFuture().get()
+		);
+
+		assertThat(error.getCause(), instanceOf(ItemsNotFoundException.class));
+	}
+
+	@Test
+	public void calculateMaximumBenefits_whenThereAreNoCoupons() {
+		Assertions.assertThrows(InvalidAmountException.class, () ->
+			useCases.calculateMaximumBenefits(Collections.emptyList(), Arrays.asList("MLA1"))
+		);
+		Assertions.assertThrows(InvalidAmountException.class, () ->
+			useCases.calculateMaximumBenefits(Arrays.asList(BigDecimal.TEN, BigDecimal.ZERO),
+				Arrays.asList("MLA1"))
+		);
+	}
 }
@@ -0,0 +1,98 @@
+package api.meli.com.co.domain.services;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import api.meli.com.co.domain.vo.CalculatedCoupon;
+import api.meli.com.co.domain.vo.CouponSettings;
+import api.meli.com.co.domain.vo.Item;
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The test cases for {@link ApproximateCouponCalculator}
+ *
+ * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
+ * @since 1.0
+ */
+public class ApproximateCouponCalculatorTest {
+
+	@Test
+	public void calculateMaximumBenefit_whenAccuracyIsHigh() {
+		final Item[] items = new Item[]{
+			Item.create("m1", BigDecimal.valueOf(100)),
+			Item.create("m2", BigDecimal.valueOf(210)),
+			Item.create("m3", BigDecimal.valueOf(260)),
+			Item.create("m4", BigDecimal.valueOf(80)),
+			Item.create("m5", BigDecimal.valueOf(90))
+		};
+
+		final CalculatedCoupon response = ApproximateCouponCalculator
+			.create(items, BigDecimal.valueOf(500), BigDecimal.valueOf(0.01))
+			.calculateMaximumBenefit();
+
+		assertThat(response.getCouponAmount(), is(BigDecimal.valueOf(500)));
+		assertThat(response.getMaximumBenefit().intValue(), is(480));
+		assertThat(response.getAppliedItems(), Matchers.contains("m1", "m2", "m4", "m5"));
+		assertThat(response.isOptimal(), is(false));
+	}
+
+	@Test
+	public void calculateMaximumBenefit_whenCouponIsFullyUsed() {
+		final Item[] items = new Item[]{
+			Item.create("m1", BigDecimal.valueOf(42)),
+			Item.create("m2", BigDecimal.valueOf(23)),
+			Item.create("m3", BigDecimal.valueOf(21)),
+			Item.create("m4", BigDecimal.valueOf(15)),
+			Item.create("m5", BigDecimal.valueOf(7)),
+			Item.create("m6", BigDecimal.valueOf(90))
+		};
+
+		final CalculatedCoupon response = ApproximateCouponCalculator
+			.create(items, BigDecimal.valueOf(65), BigDecimal.valueOf(0.01))
+			.calculateMaximumBenefit();
+
+		assertThat(response.getMaximumBenefit().intValue(), is(65));
+		assertThat(response.isOptimal(), is(true));
+	}
+
+	@Test
+	public void calculateMaximumBenefit_whenResultIsWithinEpsilonOfTheOptimum() {
+		final Random random = new Random(23);
+		for (int test = 0; test < 300; test++) {
+			final int couponAmount = 1 + random.nextInt(5_000);
+			final Item[] items = new Item[random.nextInt(25)];
+			for (int i = 0; i < items.length; i++) {
+				items[i] = Item.create("m" + i, BigDecimal.valueOf(random.nextInt(couponAmount + 1)));
+			}
+			final double epsilon = 0.05 + random.nextDouble() * 0.4;
+
+			final CalculatedCoupon expected = BitsetCouponCalculator
+				.create(items, BigDecimal.valueOf(couponAmount)).calculateMaximumBenefit();
+			final CalculatedCoupon response = ApproximateCouponCalculator
+				.create(items, BigDecimal.valueOf(couponAmount), BigDecimal.valueOf(epsilon))
+				.calculateMaximumBenefit();
+
+			final int total = Stream.of(items)
+				.filter(item -> response.getAppliedItems().contains(item.getId()))
+				.mapToInt(Item::getRoundedPrice)
+				.sum();
+			assertThat(response.getMaximumBenefit().intValue(), is(total));
+			assertThat(total, Matchers.lessThanOrEqualTo(couponAmount));
+			final double minimum = (1 - epsilon) * expected.getMaximumBenefit().intValue();
+			assertThat((double) total, Matchers.greaterThanOrEqualTo(minimum));
+		}
+	}
+
+	@Test
+	public void estimateCost_whenCouponAmountIsLarge() {
+		final double exactCost = CouponCalculatorType.LINEAR_SPACE
+			.estimateCost(50, 1_000_000, CouponSettings.builder().build());
+
+		assertThat(ApproximateCouponCalculator.estimateCost(50, 1_000_000, 0.1),
+			Matchers.lessThan(exactCost));
+	}
+}
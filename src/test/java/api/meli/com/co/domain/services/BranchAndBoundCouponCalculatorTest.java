@@ -0,0 +1,111 @@
+package api.meli.com.co.domain.services;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import api.meli.com.co.domain.vo.CalculatedCoupon;
+import api.meli.com.co.domain.vo.Item;
+import api.meli.com.co.domain.vo.SolveDeadline;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Random;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * The test cases for {@link BranchAndBoundCouponCalculator}
+ *
+ * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
+ * @since 1.0
+ */
+public class BranchAndBoundCouponCalculatorTest {
+
+	@Test
+	public void calculateMaximumBenefit_whenMaxBenefitIs480() {
+		final Item[] items = new Item[]{
+			Item.create("m1", BigDecimal.valueOf(100)),
+			Item.create("m2", BigDecimal.valueOf(210)),
+			Item.create("m3", BigDecimal.valueOf(260)),
+			Item.create("m4", BigDecimal.valueOf(80)),
+			Item.create("m5", BigDecimal.valueOf(90))
+		};
+
+		final CalculatedCoupon response = BranchAndBoundCouponCalculator
+			.create(items, BigDecimal.valueOf(500)).calculateMaximumBenefit();
+
+		assertThat(response.getCouponAmount(), is(BigDecimal.valueOf(500)));
+		assertThat(response.getMaximumBenefit().intValue(), is(480));
+		assertThat(
+			response.getAppliedItems(), Matchers.containsInAnyOrder("m1", "m2", "m4", "m5"));
+	}
+
+	@Test
+	public void calculateMaximumBenefit_whenAllItemsFit() {
+		final Item[] items = new Item[]{
+			Item.create("m1", BigDecimal.valueOf(0.5)),
+			Item.create("m2", BigDecimal.valueOf(3)),
+			Item.create("m3", BigDecimal.valueOf(4))
+		};
+
+		final CalculatedCoupon response = BranchAndBoundCouponCalculator
+			.create(items, BigDecimal.valueOf(8)).calculateMaximumBenefit();
+
+		assertThat(response.getMaximumBenefit().intValue(), is(7));
+		assertThat(response.getAppliedItems(), Matchers.containsInAnyOrder("m2", "m3"));
+	}
+
+	@Test
+	public void calculateMaximumBenefit_whenCouponAmountIsLarge() {
+		final Item[] items = new Item[]{
+			Item.create("MCO1", BigDecimal.valueOf(21_399_000)),
+			Item.create("MCO2", BigDecimal.valueOf(12_500_000)),
+			Item.create("MCO3", BigDecimal.valueOf(9_999_000)),
+			Item.create("MCO4", BigDecimal.valueOf(7_800_000)),
+			Item.create("MCO5", BigDecimal.valueOf(45_000_000))
+		};
+
+		final CalculatedCoupon response = BranchAndBoundCouponCalculator
+			.create(items, BigDecimal.valueOf(40_000_000)).calculateMaximumBenefit();
+
+		assertThat(response.getMaximumBenefit().intValue(), is(39_198_000));
+		assertThat(response.getAppliedItems(),
+			Matchers.containsInAnyOrder("MCO1", "MCO3", "MCO4"));
+	}
+
+	@Test
+	public void calculateMaximumBenefit_whenBenefitMatchesKnapsackCalculator() {
+		final Random random = new Random(13);
+		for (int test = 0; test < 500; test++) {
+			final int couponAmount = 1 + random.nextInt(400);
+			final Item[] items = new Item[random.nextInt(16)];
+			for (int i = 0; i < items.length; i++) {
+				items[i] = Item.create("m" + i, BigDecimal.valueOf(random.nextInt(couponAmount)));
+			}
+
+			final CalculatedCoupon expected = KnapsackCouponCalculator
+				.create(items, BigDecimal.valueOf(couponAmount)).calculateMaximumBenefit();
+			final CalculatedCoupon response = BranchAndBoundCouponCalculator
+				.create(items, BigDecimal.valueOf(couponAmount)).calculateMaximumBenefit();
+
+			assertThat(response.getMaximumBenefit(), is(expected.getMaximumBenefit()));
+		}
+	}
+
+	@Test
+	public void calculateMaximumBenefit_whenDeadlineHasExpired() {
+		final Item[] items = new Item[30];
+		for (int i = 0; i < items.length; i++) {
+			items[i] = Item.create("m" + i, BigDecimal.valueOf(1002 + 14 * i));
+		}
+
+		final CalculatedCoupon response = BranchAndBoundCouponCalculator
+			.create(items, BigDecimal.valueOf(15_001), SolveDeadline.after(Duration.ZERO))
+			.calculateMaximumBenefit();
+
+		assertThat(response.isOptimal(), is(false));
+		assertThat(response.getMaximumBenefit(), is(GreedyCouponCalculator
+			.create(items, BigDecimal.valueOf(15_001)).calculateMaximumBenefit()
+			.getMaximumBenefit()));
+	}
+}
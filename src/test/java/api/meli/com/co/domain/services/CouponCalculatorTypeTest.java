@@ -0,0 +1,90 @@
+package api.meli.com.co.domain.services;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import api.meli.com.co.domain.vo.CouponSettings;
+import api.meli.com.co.domain.vo.Item;
+import java.math.BigDecimal;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The test cases for {@link CouponCalculatorType}
+ *
+ * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
+ * @since 1.0
+ */
+public class CouponCalculatorTypeTest {
+
+	private static final CouponSettings SETTINGS = CouponSettings.builder().build();
+
+	@Test
+	public void cheapest_whenThereAreFewItems() {
+		assertThat(CouponCalculatorType.cheapest(5, 500, SETTINGS),
+			is(CouponCalculatorType.BRANCH_AND_BOUND));
+	}
+
+	@Test
+	public void cheapest_whenThereAreFewItemsAndLargeCoupon() {
+		assertThat(CouponCalculatorType.cheapest(40, 100_000_000, SETTINGS),
+			is(CouponCalculatorType.MEET_IN_THE_MIDDLE));
+	}
+
+	@Test
+	public void cheapest_whenThereAreManyItemsAndSmallCoupon() {
+		assertThat(CouponCalculatorType.cheapest(100, 5_000, SETTINGS),
+			is(CouponCalculatorType.BITSET));
+	}
+
+	@Test
+	public void cheapest_whenSnapshotsAreTooLarge() {
+		assertThat(CouponCalculatorType.cheapest(50, 1_000_000, SETTINGS),
+			is(CouponCalculatorType.LINEAR_SPACE));
+	}
+
+	@Test
+	public void cheapest_whenBufferPoolIsConfigured() {
+		final CouponSettings settings = CouponSettings.builder()
+			.bufferPool(new SolverBufferPool(1024))
+			.build();
+
+		assertThat(CouponCalculatorType.cheapest(100, 5_000, settings),
+			is(CouponCalculatorType.POOLED_BITSET));
+	}
+
+	@Test
+	public void cheapest_whenProblemReachesTheParallelThreshold() {
+		final CouponSettings settings = CouponSettings.builder()
+			.parallelPool(new ForkJoinPool(2))
+			.parallelThreshold(10_000_000)
+			.build();
+
+		assertThat(CouponCalculatorType.cheapest(50, 1_000_000, settings),
+			is(CouponCalculatorType.PARALLEL_LINEAR_SPACE));
+		assertThat(CouponCalculatorType.cheapest(50, 100_000, settings),
+			is(CouponCalculatorType.BITSET));
+	}
+
+	@Test
+	public void create_whenTypeIsChosen() {
+		final Item[] items = new Item[]{Item.create("m1", BigDecimal.TEN)};
+
+		assertThat(CouponCalculatorType.BRANCH_AND_BOUND.create(items, BigDecimal.TEN, SETTINGS),
+			instanceOf(BranchAndBoundCouponCalculator.class));
+		assertThat(
+			CouponCalculatorType.MEET_IN_THE_MIDDLE.create(items, BigDecimal.TEN, SETTINGS),
+			instanceOf(MeetInTheMiddleCouponCalculator.class));
+		assertThat(CouponCalculatorType.BITSET.create(items, BigDecimal.TEN, SETTINGS),
+			instanceOf(BitsetCouponCalculator.class));
+		assertThat(CouponCalculatorType.POOLED_BITSET.create(items, BigDecimal.TEN,
+			CouponSettings.builder().bufferPool(new SolverBufferPool(1024)).build()),
+			instanceOf(PooledBitsetCouponCalculator.class));
+		assertThat(CouponCalculatorType.LINEAR_SPACE.create(items, BigDecimal.TEN, SETTINGS),
+			instanceOf(LinearSpaceCouponCalculator.class));
+		assertThat(CouponCalculatorType.PARALLEL_LINEAR_SPACE.create(items, BigDecimal.TEN,
+			CouponSettings.builder().parallelPool(new ForkJoinPool(2)).build()),
+			instanceOf(LinearSpaceCouponCalculator.class));
+	}
+}
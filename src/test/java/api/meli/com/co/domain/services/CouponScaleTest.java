@@ -0,0 +1,161 @@
+package api.meli.com.co.domain.services;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import api.meli.com.co.domain.vo.CalculatedCoupon;
+import api.meli.com.co.domain.vo.CouponSettings;
+import api.meli.com.co.domain.vo.Item;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The test cases for {@link CouponScale}
+ *
+ * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
+ * @since 1.0
+ */
+public class CouponScaleTest {
+
+	@Test
+	public void create_whenPricesHaveCommonDivisor() {
+		final Item[] items = new Item[]{
+			Item.create("MCO1", BigDecimal.valueOf(213_000)),
+			Item.create("MCO2", BigDecimal.valueOf(99_000)),
+			Item.create("MCO3", BigDecimal.valueOf(150_000))
+		};
+
+		final CouponScale scale = CouponScale
+			.create(items, BigDecimal.valueOf(250_500), CouponSettings.builder().build());
+
+		assertThat(scale.getUnit(), is(BigDecimal.valueOf(3_000)));
+		assertThat(scale.getCouponAmount(), is(BigDecimal.valueOf(83)));
+		assertThat(Stream.of(scale.getItems()).map(Item::getRoundedPrice)
+			.collect(Collectors.toList()), Matchers.contains(71, 33, 50));
+	}
+
+	@Test
+	public void create_whenSiteHasGranularity() {
+		final Item[] items = new Item[]{
+			Item.create("MCO1", BigDecimal.valueOf(213_990)),
+			Item.create("MCO2", BigDecimal.valueOf(99_990))
+		};
+		final CouponSettings settings = CouponSettings.builder()
+			.siteGranularity(Collections.singletonMap("MCO", BigDecimal.TEN))
+			.build();
+
+		final CouponScale scale = CouponScale.create(items, BigDecimal.valueOf(300_000), settings);
+
+		assertThat(scale.getUnit(), is(BigDecimal.valueOf(30)));
+		assertThat(scale.getCouponAmount(), is(BigDecimal.valueOf(10_000)));
+		assertThat(scale.getTruncatedCouponAmount(), is(BigDecimal.valueOf(300_000)));
+	}
+
+	@Test
+	public void create_whenCouponIsNotMultipleOfTheGranularity() {
+		final Item[] items = new Item[]{
+			Item.create("MCO1", BigDecimal.valueOf(213_990)),
+			Item.create("MCO2", BigDecimal.valueOf(99_990))
+		};
+		final CouponSettings settings = CouponSettings.builder()
+			.siteGranularity(Collections.singletonMap("MCO", BigDecimal.TEN))
+			.build();
+
+		final CouponScale scale = CouponScale.create(items, BigDecimal.valueOf(300_005), settings);
+
+		assertThat(scale.getUnit(), is(BigDecimal.valueOf(30)));
+		assertThat(scale.getCouponAmount(), is(BigDecimal.valueOf(10_000)));
+		assertThat(scale.getTruncatedCouponAmount(), is(BigDecimal.valueOf(300_005)));
+	}
+
+	@Test
+	public void create_whenPricesHaveDecimals() {
+		final Item[] items = new Item[]{
+			Item.create("m1", new BigDecimal("19.99")),
+			Item.create("m2", new BigDecimal("40.50"))
+		};
+
+		final CouponScale scale = CouponScale
+			.create(items, new BigDecimal("60.75"), CouponSettings.builder().build());
+
+		assertThat(scale.getUnit(), is(BigDecimal.ONE));
+		assertThat(scale.getCouponAmount(), is(BigDecimal.valueOf(60)));
+		assertThat(Stream.of(scale.getItems()).map(Item::getRoundedPrice)
+			.collect(Collectors.toList()), Matchers.contains(19, 40));
+	}
+
+	@Test
+	public void unscale_whenPricesAreNotMultiplesOfTheGranularity() {
+		final Item[] items = new Item[]{
+			Item.create("MCO1", BigDecimal.valueOf(19)),
+			Item.create("MCO2", BigDecimal.valueOf(19)),
+			Item.create("MCO3", BigDecimal.valueOf(15))
+		};
+		final CouponSettings settings = CouponSettings.builder()
+			.siteGranularity(Collections.singletonMap("MCO", BigDecimal.TEN))
+			.build();
+		final CouponScale scale = CouponScale.create(items, BigDecimal.valueOf(45), settings);
+
+		final CalculatedCoupon response = scale.unscale(BitsetCouponCalculator
+			.create(scale.getItems(), scale.getCouponAmount()).calculateMaximumBenefit());
+
+		assertThat(response.getMaximumBenefit(), is(BigDecimal.valueOf(38)));
+		assertThat(response.getAppliedItems(), Matchers.containsInAnyOrder("MCO1", "MCO2"));
+	}
+
+	@Test
+	public void unscale_whenRoundingToTheGranularityWouldLoseTheOptimum() {
+		final Item[] items = new Item[]{
+			Item.create("MCO1", BigDecimal.valueOf(60)),
+			Item.create("MCO2", BigDecimal.valueOf(49)),
+			Item.create("MCO3", BigDecimal.valueOf(40))
+		};
+		final CouponSettings settings = CouponSettings.builder()
+			.siteGranularity(Collections.singletonMap("MCO", BigDecimal.valueOf(50)))
+			.build();
+		final CouponScale scale = CouponScale.create(items, BigDecimal.valueOf(100), settings);
+
+		final CalculatedCoupon response = scale.unscale(BitsetCouponCalculator
+			.create(scale.getItems(), scale.getCouponAmount()).calculateMaximumBenefit());
+
+		assertThat(response.getMaximumBenefit(), is(BigDecimal.valueOf(100)));
+		assertThat(response.getAppliedItems(), Matchers.containsInAnyOrder("MCO1", "MCO3"));
+		assertThat(response.isOptimal(), is(true));
+	}
+
+	@Test
+	public void create_whenThereAreNoItems() {
+		final CouponScale scale = CouponScale
+			.create(new Item[0], BigDecimal.valueOf(500), CouponSettings.builder().build());
+
+		assertThat(scale.getUnit(), is(BigDecimal.ONE));
+		assertThat(scale.getCouponAmount(), is(BigDecimal.valueOf(500)));
+	}
+
+	@Test
+	public void unscale_whenCouponWasCalculatedInUnits() {
+		final Item[] items = new Item[]{
+			Item.create("m1", BigDecimal.valueOf(100)),
+			Item.create("m2", BigDecimal.valueOf(250))
+		};
+		final CouponScale scale = CouponScale
+			.create(items, BigDecimal.valueOf(300), CouponSettings.builder().build());
+
+		final CalculatedCoupon response = scale.unscale(CalculatedCoupon.builder()
+			.couponAmount(scale.getCouponAmount())
+			.maximumBenefit(BigDecimal.valueOf(5))
+			.appliedItems(Arrays.asList("m2"))
+			.optimal(false)
+			.build());
+
+		assertThat(response.getCouponAmount(), is(BigDecimal.valueOf(300)));
+		assertThat(response.getMaximumBenefit(), is(BigDecimal.valueOf(250)));
+		assertThat(response.getAppliedItems(), Matchers.contains("m2"));
+		assertThat(response.isOptimal(), is(false));
+	}
+}
@@ -0,0 +1,112 @@
+package api.meli.com.co.domain.services;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import api.meli.com.co.domain.vo.CalculatedCoupon;
+import api.meli.com.co.domain.vo.CouponSettings;
+import api.meli.com.co.domain.vo.Item;
+import api.meli.com.co.domain.vo.SolveDeadline;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The test cases for {@link CouponSweepCalculator}
+ *
+ * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
+ * @since 1.0
+ */
+public class CouponSweepCalculatorTest {
+
+	private static final CouponSettings SETTINGS = CouponSettings.builder().build();
+
+	@Test
+	public void calculateMaximumBenefits_whenThereAreSeveralAmounts() {
+		final Item[] items = new Item[]{
+			Item.create("m1", BigDecimal.valueOf(100)),
+			Item.create("m2", BigDecimal.valueOf(210)),
+			Item.create("m3", BigDecimal.valueOf(260)),
+			Item.create("m4", BigDecimal.valueOf(80)),
+			Item.create("m5", BigDecimal.valueOf(90))
+		};
+
+		final List<CalculatedCoupon> response = CouponSweepCalculator
+			.create(items, new int[]{500, 70, 200}, SETTINGS).calculateMaximumBenefits();
+
+		assertThat(response.size(), is(3));
+		assertThat(response.get(0).getCouponAmount(), is(BigDecimal.valueOf(500)));
+		assertThat(response.get(0).getMaximumBenefit().intValue(), is(480));
+		assertThat(response.get(0).getAppliedItems(),
+			Matchers.containsInAnyOrder("m1", "m2", "m4", "m5"));
+		assertThat(response.get(1).getMaximumBenefit().intValue(), is(0));
+		assertThat(response.get(1).getAppliedItems(), Matchers.empty());
+		assertThat(response.get(2).getMaximumBenefit().intValue(), is(190));
+		assertThat(response.get(2).getAppliedItems(), Matchers.containsInAnyOrder("m1", "m5"));
+	}
+
+	@Test
+	public void calculateMaximumBenefits_whenResultMatchesKnapsackCalculator() {
+		final Random random = new Random(17);
+		for (int test = 0; test < 200; test++) {
+			final Item[] items = new Item[random.nextInt(12)];
+			for (int i = 0; i < items.length; i++) {
+				items[i] = Item.create("m" + i, BigDecimal.valueOf(random.nextInt(300)));
+			}
+			final int[] amounts = random.ints(1 + random.nextInt(5), 1, 400).toArray();
+
+			final List<CalculatedCoupon> response = CouponSweepCalculator
+				.create(items, amounts, SETTINGS).calculateMaximumBenefits();
+
+			for (int k = 0; k < amounts.length; k++) {
+				final CalculatedCoupon expected = KnapsackCouponCalculator
+					.create(items, BigDecimal.valueOf(amounts[k])).calculateMaximumBenefit();
+				assertThat(response.get(k).getMaximumBenefit(), is(expected.getMaximumBenefit()));
+				assertThat(response.get(k).getAppliedItems(), is(expected.getAppliedItems()));
+			}
+		}
+	}
+
+	@Test
+	public void calculateMaximumBenefits_whenSnapshotsAreTooLarge() {
+		final Random random = new Random(19);
+		final Item[] items = new Item[50];
+		for (int i = 0; i < items.length; i++) {
+			items[i] = Item.create("MCO" + i, BigDecimal.valueOf(10_000 + random.nextInt(200_000)));
+		}
+
+		final List<CalculatedCoupon> response = CouponSweepCalculator
+			.create(items, new int[]{1_000_000, 250_000}, SETTINGS).calculateMaximumBenefits();
+
+		final CalculatedCoupon expected = LinearSpaceCouponCalculator
+			.create(items, BigDecimal.valueOf(1_000_000)).calculateMaximumBenefit();
+		assertThat(response.get(0).getMaximumBenefit(), is(expected.getMaximumBenefit()));
+		assertThat(response.get(1).getMaximumBenefit(), is(BitsetCouponCalculator
+			.create(items, BigDecimal.valueOf(250_000)).calculateMaximumBenefit()
+			.getMaximumBenefit()));
+	}
+
+	@Test
+	public void calculateMaximumBenefits_whenDeadlineExpires() {
+		final Random random = new Random(19);
+		final Item[] items = new Item[50];
+		for (int i = 0; i < items.length; i++) {
+			items[i] = Item.create("MCO" + i, BigDecimal.valueOf(10_000 + random.nextInt(200_000)));
+		}
+
+		final List<CalculatedCoupon> response = CouponSweepCalculator
+			.create(items, new int[]{1_000_000, 250_000}, SETTINGS,
+				SolveDeadline.after(Duration.ZERO))
+			.calculateMaximumBenefits();
+
+		for (final CalculatedCoupon coupon : response) {
+			final CalculatedCoupon greedy = GreedyCouponCalculator
+				.create(items, coupon.getCouponAmount()).calculateMaximumBenefit();
+			assertThat(coupon.getMaximumBenefit(), is(greedy.getMaximumBenefit()));
+			assertThat(coupon.getAppliedItems(), is(greedy.getAppliedItems()));
+		}
+	}
+}
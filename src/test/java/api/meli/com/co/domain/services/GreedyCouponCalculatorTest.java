@@ -0,0 +1,58 @@
+package api.meli.com.co.domain.services;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import api.meli.com.co.domain.vo.CalculatedCoupon;
+import api.meli.com.co.domain.vo.Item;
+import java.math.BigDecimal;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The test cases for {@link GreedyCouponCalculator}
+ *
+ * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
+ * @since 1.0
+ */
+public class GreedyCouponCalculatorTest {
+
+	private static final Item[] ITEMS = new Item[]{
+		Item.create("m1", BigDecimal.valueOf(100)),
+		Item.create("m2", BigDecimal.valueOf(210)),
+		Item.create("m3", BigDecimal.valueOf(260)),
+		Item.create("m4", BigDecimal.valueOf(80)),
+		Item.create("m5", BigDecimal.valueOf(90))
+	};
+
+	@Test
+	public void calculateMaximumBenefit_whenGreedyFillIsNotProvenOptimal() {
+		final CalculatedCoupon response = GreedyCouponCalculator
+			.create(ITEMS, BigDecimal.valueOf(500)).calculateMaximumBenefit();
+
+		assertThat(response.getCouponAmount(), is(BigDecimal.valueOf(500)));
+		assertThat(response.getMaximumBenefit().intValue(), is(470));
+		assertThat(response.getAppliedItems(), Matchers.contains("m2", "m3"));
+		assertThat(response.isOptimal(), is(false));
+	}
+
+	@Test
+	public void calculateMaximumBenefit_whenCouponIsFullyUsed() {
+		final CalculatedCoupon response = GreedyCouponCalculator
+			.create(ITEMS, BigDecimal.valueOf(470)).calculateMaximumBenefit();
+
+		assertThat(response.getMaximumBenefit().intValue(), is(470));
+		assertThat(response.isOptimal(), is(true));
+	}
+
+	@Test
+	public void calculateMaximumBenefit_whenEveryItemFits() {
+		final CalculatedCoupon response = GreedyCouponCalculator
+			.create(ITEMS, BigDecimal.valueOf(1000)).calculateMaximumBenefit();
+
+		assertThat(response.getMaximumBenefit().intValue(), is(740));
+		assertThat(response.getAppliedItems(),
+			Matchers.contains("m1", "m2", "m3", "m4", "m5"));
+		assertThat(response.isOptimal(), is(true));
+	}
+}
@@ -0,0 +1,169 @@
+package api.meli.com.co.domain.services;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import api.meli.com.co.domain.vo.CalculatedCoupon;
+import api.meli.com.co.domain.vo.Item;
+import api.meli.com.co.domain.vo.SolveDeadline;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * The test cases for {@link LinearSpaceCouponCalculator}
+ *
+ * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
+ * @since 1.0
+ */
+public class LinearSpaceCouponCalculatorTest {
+
+	@Test
+	public void calculateMaximumBenefit_whenMaxBenefitIs480() {
+		final Item[] items = new Item[]{
+			Item.create("m1", BigDecimal.valueOf(100)),
+			Item.create("m2", BigDecimal.valueOf(210)),
+			Item.create("m3", BigDecimal.valueOf(260)),
+			Item.create("m4", BigDecimal.valueOf(80)),
+			Item.create("m5", BigDecimal.valueOf(90))
+		};
+
+		final CalculatedCoupon response = LinearSpaceCouponCalculator
+			.create(items, BigDecimal.valueOf(500)).calculateMaximumBenefit();
+
+		assertThat(response.getCouponAmount(), is(BigDecimal.valueOf(500)));
+		assertThat(response.getMaximumBenefit().intValue(), is(480));
+		assertThat(
+			response.getAppliedItems(), Matchers.containsInAnyOrder("m1", "m2", "m4", "m5"));
+	}
+
+	@Test
+	public void calculateMaximumBenefit_whenMaxBenefitIs700() {
+		final Item[] items = new Item[]{
+			Item.create("m1", BigDecimal.valueOf(100)),
+			Item.create("m2", BigDecimal.valueOf(155)),
+			Item.create("m3", BigDecimal.valueOf(50)),
+			Item.create("m4", BigDecimal.valueOf(112)),
+			Item.create("m5", BigDecimal.valueOf(70)),
+			Item.create("m6", BigDecimal.valueOf(80)),
+			Item.create("m7", BigDecimal.valueOf(60)),
+			Item.create("m8", BigDecimal.valueOf(118)),
+			Item.create("m9", BigDecimal.valueOf(110)),
+			Item.create("m10", BigDecimal.valueOf(55))
+		};
+
+		final CalculatedCoupon response = LinearSpaceCouponCalculator
+			.create(items, BigDecimal.valueOf(700)).calculateMaximumBenefit();
+
+		assertThat(response.getMaximumBenefit().intValue(), is(700));
+		assertThat(response.getAppliedItems(),
+			Matchers.containsInAnyOrder("m1", "m3", "m4", "m5", "m6", "m7", "m8", "m9"));
+	}
+
+	@Test
+	public void calculateMaximumBenefit_whenMaxBenefitIs59() {
+		final Item[] items = new Item[]{
+			Item.create("m1", BigDecimal.valueOf(42)),
+			Item.create("m2", BigDecimal.valueOf(23)),
+			Item.create("m3", BigDecimal.valueOf(21)),
+			Item.create("m4", BigDecimal.valueOf(15)),
+			Item.create("m5", BigDecimal.valueOf(7))
+		};
+
+		final CalculatedCoupon response = LinearSpaceCouponCalculator
+			.create(items, BigDecimal.valueOf(60)).calculateMaximumBenefit();
+
+		assertThat(response.getMaximumBenefit().intValue(), is(59));
+		assertThat(response.getAppliedItems(), Matchers.containsInAnyOrder("m2", "m3", "m4"));
+	}
+
+	@Test
+	public void calculateMaximumBenefit_whenItemsDoNotFit() {
+		final Item[] items = new Item[]{
+			Item.create("m1", BigDecimal.valueOf(0.5)),
+			Item.create("m2", BigDecimal.valueOf(600))
+		};
+
+		final CalculatedCoupon response = LinearSpaceCouponCalculator
+			.create(items, BigDecimal.valueOf(500)).calculateMaximumBenefit();
+
+		assertThat(response.getMaximumBenefit().intValue(), is(0));
+		assertThat(response.getAppliedItems(), Matchers.empty());
+	}
+
+	@Test
+	public void calculateMaximumBenefit_whenResultMatchesKnapsackCalculator() {
+		final Random random = new Random(7);
+		for (int test = 0; test < 500; test++) {
+			final int couponAmount = 1 + random.nextInt(400);
+			final Item[] items = new Item[random.nextInt(12)];
+			for (int i = 0; i < items.length; i++) {
+				items[i] = Item.create("m" + i, BigDecimal.valueOf(random.nextInt(couponAmount)));
+			}
+
+			final CalculatedCoupon expected = KnapsackCouponCalculator
+				.create(items, BigDecimal.valueOf(couponAmount)).calculateMaximumBenefit();
+			final CalculatedCoupon response = LinearSpaceCouponCalculator
+				.create(items, BigDecimal.valueOf(couponAmount)).calculateMaximumBenefit();
+
+			assertThat(response.getMaximumBenefit(), is(expected.getMaximumBenefit()));
+			assertThat(response.getAppliedItems(), is(expected.getAppliedItems()));
+		}
+	}
+
+	@Test
+	public void calculateMaximumBenefit_whenCouponAmountIsLarge() {
+		final Random random = new Random(11);
+		final Item[] items = new Item[50];
+		for (int i = 0; i < items.length; i++) {
+			items[i] = Item.create("MCO" + i, BigDecimal.valueOf(10_000 + random.nextInt(200_000)));
+		}
+
+		final CalculatedCoupon expected = BitsetCouponCalculator
+			.create(items, BigDecimal.valueOf(1_000_000)).calculateMaximumBenefit();
+		final CalculatedCoupon response = LinearSpaceCouponCalculator
+			.create(items, BigDecimal.valueOf(1_000_000)).calculateMaximumBenefit();
+
+		assertThat(response.getMaximumBenefit(), is(expected.getMaximumBenefit()));
+		assertThat(response.getAppliedItems(), is(expected.getAppliedItems()));
+	}
+
+	@Test
+	public void calculateMaximumBenefit_whenRowsAreUpdatedInParallel() {
+		final Random random = new Random(13);
+		final Item[] items = new Item[50];
+		for (int i = 0; i < items.length; i++) {
+			items[i] = Item.create("MCO" + i, BigDecimal.valueOf(10_000 + random.nextInt(200_000)));
+		}
+		final ForkJoinPool pool = new ForkJoinPool(4);
+
+		final CalculatedCoupon expected = BitsetCouponCalculator
+			.create(items, BigDecimal.valueOf(1_000_000)).calculateMaximumBenefit();
+		final CalculatedCoupon response = LinearSpaceCouponCalculator
+			.create(items, BigDecimal.valueOf(1_000_000), pool).calculateMaximumBenefit();
+		pool.shutdown();
+
+		assertThat(response.getMaximumBenefit(), is(expected.getMaximumBenefit()));
+		assertThat(response.getAppliedItems(), is(expected.getAppliedItems()));
+	}
+
+	@Test
+	public void calculateMaximumBenefit_whenDeadlineHasExpired() {
+		final Item[] items = new Item[30];
+		for (int i = 0; i < items.length; i++) {
+			items[i] = Item.create("m" + i, BigDecimal.valueOf(1002 + 14 * i));
+		}
+
+		final CalculatedCoupon response = LinearSpaceCouponCalculator
+			.create(items, BigDecimal.valueOf(15_001), null, SolveDeadline.after(Duration.ZERO))
+			.calculateMaximumBenefit();
+
+		assertThat(response.isOptimal(), is(false));
+		assertThat(response.getMaximumBenefit(), is(BigDecimal.ZERO));
+		assertThat(response.getAppliedItems(), Matchers.empty());
+	}
+}
@@ -0,0 +1,95 @@
+package api.meli.com.co.domain.services;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import api.meli.com.co.domain.vo.CalculatedCoupon;
+import api.meli.com.co.domain.vo.Item;
+import api.meli.com.co.domain.vo.SolveDeadline;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Random;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * The test cases for {@link PooledBitsetCouponCalculator}
+ *
+ * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
+ * @since 1.0
+ */
+public class PooledBitsetCouponCalculatorTest {
+
+	private final SolverBufferPool pool = new SolverBufferPool(256);
+
+	@Test
+	public void calculateMaximumBenefit_whenMaxBenefitIs480() {
+		final Item[] items = new Item[]{
+			Item.create("m1", BigDecimal.valueOf(100)),
+			Item.create("m2", BigDecimal.valueOf(210)),
+			Item.create("m3", BigDecimal.valueOf(260)),
+			Item.create("m4", BigDecimal.valueOf(80)),
+			Item.create("m5", BigDecimal.valueOf(90))
+		};
+
+		final CalculatedCoupon response = PooledBitsetCouponCalculator
+			.create(items, BigDecimal.valueOf(500), pool).calculateMaximumBenefit();
+
+		assertThat(response.getCouponAmount(), is(BigDecimal.valueOf(500)));
+		assertThat(response.getMaximumBenefit().intValue(), is(480));
+		assertThat(
+			response.getAppliedItems(), Matchers.containsInAnyOrder("m1", "m2", "m4", "m5"));
+	}
+
+	@Test
+	public void calculateMaximumBenefit_whenItemsDoNotFit() {
+		final Item[] items = new Item[]{
+			Item.create("m1", BigDecimal.valueOf(0.5)),
+			Item.create("m2", BigDecimal.valueOf(600))
+		};
+
+		final CalculatedCoupon response = PooledBitsetCouponCalculator
+			.create(items, BigDecimal.valueOf(500), pool).calculateMaximumBenefit();
+
+		assertThat(response.getMaximumBenefit().intValue(), is(0));
+		assertThat(response.getAppliedItems(), Matchers.empty());
+	}
+
+	@Test
+	public void calculateMaximumBenefit_whenBuffersAreReused() {
+		final Random random = new Random(17);
+		for (int test = 0; test < 500; test++) {
+			final int couponAmount = 1 + random.nextInt(test % 2 == 0 ? 2_000 : 100);
+			final Item[] items = new Item[random.nextInt(14)];
+			for (int i = 0; i < items.length; i++) {
+				items[i] = Item.create("m" + i, BigDecimal.valueOf(random.nextInt(couponAmount)));
+			}
+
+			final CalculatedCoupon expected = BitsetCouponCalculator
+				.create(items, BigDecimal.valueOf(couponAmount)).calculateMaximumBenefit();
+			final CalculatedCoupon response = PooledBitsetCouponCalculator
+				.create(items, BigDecimal.valueOf(couponAmount), pool).calculateMaximumBenefit();
+
+			assertThat(response.getMaximumBenefit(), is(expected.getMaximumBenefit()));
+			assertThat(response.getAppliedItems(), is(expected.getAppliedItems()));
+		}
+	}
+
+	@Test
+	public void calculateMaximumBenefit_whenDeadlineHasExpired() {
+		final Item[] items = new Item[30];
+		for (int i = 0; i < items.length; i++) {
+			items[i] = Item.create("m" + i, BigDecimal.valueOf(1002 + 14 * i));
+		}
+
+		final CalculatedCoupon response = PooledBitsetCouponCalculator
+			.create(items, BigDecimal.valueOf(15_001), new SolverBufferPool(1024),
+				SolveDeadline.after(Duration.ZERO))
+			.calculateMaximumBenefit();
+
+		assertThat(response.isOptimal(), is(false));
+		assertThat(response.getMaximumBenefit().intValue(), is(0));
+		assertThat(response.getAppliedItems(), Matchers.empty());
+	}
+}
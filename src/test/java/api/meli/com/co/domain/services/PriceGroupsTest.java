@@ -0,0 +1,96 @@
+package api.meli.com.co.domain.services;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import api.meli.com.co.domain.vo.CalculatedCoupon;
+import api.meli.com.co.domain.vo.Item;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The test cases for {@link PriceGroups}
+ *
+ * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
+ * @since 1.0
+ */
+public class PriceGroupsTest {
+
+	@Test
+	public void create_whenPricesAreNotRepeated() {
+		final Item[] items = new Item[]{
+			Item.create("m1", BigDecimal.valueOf(100)),
+			Item.create("m2", BigDecimal.valueOf(250))
+		};
+		final CalculatedCoupon coupon = CalculatedCoupon.builder()
+			.couponAmount(BigDecimal.valueOf(300))
+			.maximumBenefit(BigDecimal.valueOf(250))
+			.appliedItems(Arrays.asList("m2"))
+			.build();
+
+		final PriceGroups groups = PriceGroups.create(items, BigDecimal.valueOf(300));
+
+		assertThat(groups.getItems(), sameInstance(items));
+		assertThat(groups.ungroup(coupon), sameInstance(coupon));
+	}
+
+	@Test
+	public void create_whenPricesAreRepeated() {
+		final Item[] items = new Item[]{
+			Item.create("m1", BigDecimal.valueOf(100)),
+			Item.create("m2", BigDecimal.valueOf(100)),
+			Item.create("m3", BigDecimal.valueOf(250)),
+			Item.create("m4", BigDecimal.valueOf(100)),
+			Item.create("m5", BigDecimal.valueOf(100)),
+			Item.create("m6", BigDecimal.valueOf(100))
+		};
+
+		final PriceGroups groups = PriceGroups.create(items, BigDecimal.valueOf(480));
+
+		// The five items of 100 become bundles of 1, 2 and 2, and the one of 400 does not fit
+		assertThat(Stream.of(groups.getItems()).map(Item::getPrice).toArray(),
+			Matchers.arrayContaining(BigDecimal.valueOf(100), BigDecimal.valueOf(200),
+				BigDecimal.valueOf(200), BigDecimal.valueOf(250)));
+
+		final CalculatedCoupon response = groups.ungroup(BitsetCouponCalculator
+			.create(groups.getItems(), BigDecimal.valueOf(480)).calculateMaximumBenefit());
+
+		assertThat(response.getMaximumBenefit().intValue(), is(450));
+		assertThat(response.getAppliedItems(), Matchers.contains("m1", "m2", "m3"));
+		assertThat(response.isOptimal(), is(true));
+	}
+
+	@Test
+	public void ungroup_whenResultMatchesUngroupedCalculation() {
+		final Random random = new Random(29);
+		for (int test = 0; test < 300; test++) {
+			final int couponAmount = 1 + random.nextInt(3_000);
+			final int[] prices = random.ints(1 + random.nextInt(5), 0, couponAmount / 2 + 2)
+				.toArray();
+			final Item[] items = new Item[random.nextInt(40)];
+			for (int i = 0; i < items.length; i++) {
+				items[i] = Item.create("m" + i,
+					BigDecimal.valueOf(prices[random.nextInt(prices.length)]));
+			}
+
+			final CalculatedCoupon expected = BitsetCouponCalculator
+				.create(items, BigDecimal.valueOf(couponAmount)).calculateMaximumBenefit();
+			final PriceGroups groups = PriceGroups.create(items, BigDecimal.valueOf(couponAmount));
+			final CalculatedCoupon response = groups.ungroup(BitsetCouponCalculator
+				.create(groups.getItems(), BigDecimal.valueOf(couponAmount))
+				.calculateMaximumBenefit());
+
+			final int total = Stream.of(items)
+				.filter(item -> response.getAppliedItems().contains(item.getId()))
+				.mapToInt(Item::getRoundedPrice)
+				.sum();
+			assertThat(response.getMaximumBenefit(), is(expected.getMaximumBenefit()));
+			assertThat(total, is(expected.getMaximumBenefit().intValue()));
+		}
+	}
+}
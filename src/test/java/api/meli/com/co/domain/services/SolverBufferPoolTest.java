@@ -0,0 +1,63 @@
+package api.meli.com.co.domain.services;
+
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The test cases for {@link SolverBufferPool}
+ *
+ * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
+ * @since 1.0
+ */
+public class SolverBufferPoolTest {
+
+	private final SolverBufferPool pool = new SolverBufferPool(100);
+
+	@Test
+	public void words_whenSizeIsUnderTheCap() {
+		final long[] first = pool.words(80);
+		final long[] second = pool.words(50);
+
+		assertThat(second, sameInstance(first));
+		assertThat(pool.words(90).length, greaterThanOrEqualTo(90));
+	}
+
+	@Test
+	public void words_whenSizeIsOverTheCap() {
+		final long[] retained = pool.words(50);
+		final long[] temporary = pool.words(150);
+
+		assertThat(temporary, not(sameInstance(retained)));
+		assertThat(pool.words(50), sameInstance(retained));
+	}
+
+	@Test
+	public void words_whenRequestsAreSmallForAWhile() {
+		final long[] large = pool.words(100);
+		long[] current = large;
+		for (int i = 0; i < 300; i++) {
+			current = pool.words(10);
+		}
+
+		assertThat(current, not(sameInstance(large)));
+	}
+
+	@Test
+	public void ints_whenSizeChanges() {
+		final int[] first = pool.ints(120);
+
+		assertThat(pool.ints(60), sameInstance(first));
+		assertThat(pool.ints(500), not(sameInstance(first)));
+		assertThat(pool.ints(60), sameInstance(first));
+
+		int[] current = first;
+		for (int i = 0; i < 300; i++) {
+			current = pool.ints(10);
+		}
+		assertThat(current, not(sameInstance(first)));
+	}
+}
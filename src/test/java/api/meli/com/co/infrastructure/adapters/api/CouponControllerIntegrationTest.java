@@ -1,6 +1,7 @@
 package api.meli.com.co.infrastructure.adapters.api;
 
 import api.meli.com.co.infrastructure.adapters.api.contracts.CouponRequest;
+import api.meli.com.co.infrastructure.adapters.api.contracts.CouponSweepRequest;
 import api.meli.com.co.infrastructure.runner.CouponsApiApplication;
 import com.github.tomakehurst.wiremock.WireMockServer;
 import java.math.BigDecimal;
@@ -43,7 +44,7 @@ public class CouponControllerIntegrationTest {
 			.header("Authorization", "Basic bWVsaTp0ZXN0")
 			.body(BodyInserters.fromValue(new CouponRequest(BigDecimal.valueOf(500), Arrays.asList(
 				"ML1", "ML2", "ML3", "ML4", "ML5"
-			))))
+			), null)))
 			.exchange()
 			.expectStatus().isOk()
 			.expectBody()
@@ -61,8 +62,29 @@ public class CouponControllerIntegrationTest {
 			.header("Authorization", "Basic bWVsaTp0ZXN0")
 			.body(BodyInserters.fromValue(new CouponRequest(BigDecimal.valueOf(70), Arrays.asList(
 				"ML1", "ML2", "ML3"
-			))))
+			), null)))
 			.exchange()
 			.expectStatus().isNotFound();
 	}
+
+	@Test
+	@DisplayName("should return the items to apply the purchase for every coupon amount")
+	public void calculateItemsToBuyByAmount_whenCouponsAreValid() {
+
+		webClient
+			.post()
+			.uri("/api/coupon/sweep")
+			.header("Authorization", "Basic bWVsaTp0ZXN0")
+			.body(BodyInserters.fromValue(new CouponSweepRequest(
+				Arrays.asList(BigDecimal.valueOf(500), BigDecimal.valueOf(200)), null, null, null,
+				Arrays.asList("ML1", "ML2", "ML3", "ML4", "ML5"))))
+			.exchange()
+			.expectStatus().isOk()
+			.expectBody()
+			.jsonPath("$[0].amount").isEqualTo(BigDecimal.valueOf(500))
+			.jsonPath("$[0].total").isEqualTo(BigDecimal.valueOf(480))
+			.jsonPath("$[0].optimal").isEqualTo(true)
+			.jsonPath("$[1].total").isEqualTo(BigDecimal.valueOf(190))
+			.jsonPath("$[1].item_ids").value(Matchers.containsInAnyOrder("ML1", "ML5"));
+	}
 }
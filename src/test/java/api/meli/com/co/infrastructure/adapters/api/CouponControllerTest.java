@@ -11,8 +11,10 @@ import api.meli.com.co.domain.exceptions.InvalidAmountException;
 import api.meli.com.co.domain.exceptions.ItemsNotFoundException;
 import api.meli.com.co.domain.vo.CalculatedCoupon;
 import api.meli.com.co.infrastructure.adapters.api.contracts.CouponRequest;
+import api.meli.com.co.infrastructure.adapters.api.contracts.CouponSweepRequest;
 import java.math.BigDecimal;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.concurrent.CompletableFuture;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Test;
@@ -42,7 +44,8 @@ public class CouponControllerTest {
 	@Test
 	public void calculateItemsToBuy_whenCouponIsValidAndThereAreItemsToBuy() {
 		when(couponUseCases
-			.calculateMaximumBenefit(Mockito.any(BigDecimal.class), Mockito.anyList()))
+			.calculateMaximumBenefit(Mockito.any(BigDecimal.class), Mockito.anyList(),
+				Mockito.any()))
 			.thenReturn(CompletableFuture.completedFuture(CalculatedCoupon.builder()
 				.couponAmount(BigDecimal.valueOf(500))
 				.appliedItems(Arrays.asList("M1", "M2", "M3", "M4"))
@@ -54,18 +57,42 @@ public class CouponControllerTest {
 			.consumeNextWith(response -> {
 				assertThat(response.getStatusCodeValue(), is(200));
 				assertThat(response.getBody().getTotal(), is(BigDecimal.valueOf(490)));
+				assertThat(response.getBody().getOptimal(), is(true));
 				assertThat(response.getBody().getItemIds(),
 					Matchers.containsInAnyOrder("M1", "M2", "M3", "M4"));
 			}).verifyComplete();
 
 		verify(couponUseCases)
-			.calculateMaximumBenefit(Mockito.any(BigDecimal.class), Mockito.anyList());
+			.calculateMaximumBenefit(Mockito.any(BigDecimal.class), Mockito.anyList(),
+				Mockito.any());
+	}
+
+	@Test
+	public void calculateItemsToBuy_whenEpsilonIsGiven() {
+		when(couponUseCases.calculateMaximumBenefit(BigDecimal.valueOf(500),
+			Arrays.asList("M1", "M2"), BigDecimal.valueOf(0.1)))
+			.thenReturn(CompletableFuture.completedFuture(CalculatedCoupon.builder()
+				.couponAmount(BigDecimal.valueOf(500))
+				.appliedItems(Arrays.asList("M1", "M2"))
+				.maximumBenefit(BigDecimal.valueOf(470))
+				.optimal(false)
+				.build()));
+
+		StepVerifier.create(controller.calculateItemsToBuy(
+			new CouponRequest(BigDecimal.valueOf(500), Arrays.asList("M1", "M2"),
+				BigDecimal.valueOf(0.1)), Mono.just(() -> "client1")))
+			.consumeNextWith(response -> {
+				assertThat(response.getStatusCodeValue(), is(200));
+				assertThat(response.getBody().getTotal(), is(BigDecimal.valueOf(470)));
+				assertThat(response.getBody().getOptimal(), is(false));
+			}).verifyComplete();
 	}
 
 	@Test
 	public void calculateItemsToBuy_whenCouponIsValidAndThereAreNotItemsToBuy() {
 		when(couponUseCases
-			.calculateMaximumBenefit(Mockito.any(BigDecimal.class), Mockito.anyList()))
+			.calculateMaximumBenefit(Mockito.any(BigDecimal.class), Mockito.anyList(),
+				Mockito.any()))
 			.thenReturn(CompletableFuture.supplyAsync(() -> {
 				throw new ItemsNotFoundException();
 			}));
@@ -78,13 +105,15 @@ public class CouponControllerTest {
 			}).verifyComplete();
 
 		verify(couponUseCases)
-			.calculateMaximumBenefit(Mockito.any(BigDecimal.class), Mockito.anyList());
+			.calculateMaximumBenefit(Mockito.any(BigDecimal.class), Mockito.anyList(),
+				Mockito.any());
 	}
 
 	@Test
 	public void calculateItemsToBuy_whenCouponIsInValid() {
 		when(couponUseCases
-			.calculateMaximumBenefit(Mockito.any(BigDecimal.class), Mockito.anyList()))
+			.calculateMaximumBenefit(Mockito.any(BigDecimal.class), Mockito.anyList(),
+				Mockito.any()))
 			.thenReturn(CompletableFuture.supplyAsync(() -> {
 				throw new InvalidAmountException("invalid coupon");
 			}));
@@ -97,13 +126,15 @@ public class CouponControllerTest {
 			}).verifyComplete();
 
 		verify(couponUseCases)
-			.calculateMaximumBenefit(Mockito.any(BigDecimal.class), Mockito.anyList());
+			.calculateMaximumBenefit(Mockito.any(BigDecimal.class), Mockito.anyList(),
+				Mockito.any());
 	}
 
 	@Test
 	public void calculateItemsToBuy_whenUseCaseResponseError() {
 		when(couponUseCases
-			.calculateMaximumBenefit(Mockito.any(BigDecimal.class), Mockito.anyList()))
+			.calculateMaximumBenefit(Mockito.any(BigDecimal.class), Mockito.anyList(),
+				Mockito.any()))
 			.thenReturn(CompletableFuture.supplyAsync(() -> {
 				throw new IllegalArgumentException("error");
 			}));
@@ -116,10 +147,87 @@ public class CouponControllerTest {
 			}).verifyComplete();
 
 		verify(couponUseCases)
-			.calculateMaximumBenefit(Mockito.any(BigDecimal.class), Mockito.anyList());
+			.calculateMaximumBenefit(Mockito.any(BigDecimal.class), Mockito.anyList(),
+				Mockito.any());
+	}
+
+	@Test
+	public void calculateItemsToBuyByAmount_whenAmountsAreListed() {
+		when(couponUseCases.calculateMaximumBenefits(Mockito.anyList(), Mockito.anyList()))
+			.thenReturn(CompletableFuture.completedFuture(Arrays.asList(
+				CalculatedCoupon.builder()
+					.couponAmount(BigDecimal.valueOf(500))
+					.appliedItems(Arrays.asList("M1", "M2"))
+					.maximumBenefit(BigDecimal.valueOf(490))
+					.build(),
+				CalculatedCoupon.builder()
+					.couponAmount(BigDecimal.valueOf(100))
+					.appliedItems(Collections.emptyList())
+					.maximumBenefit(BigDecimal.ZERO)
+					.optimal(false)
+					.build())));
+
+		StepVerifier.create(controller.calculateItemsToBuyByAmount(
+			new CouponSweepRequest(Arrays.asList(BigDecimal.valueOf(500), BigDecimal.valueOf(100)),
+				null, null, null, Arrays.asList("M1", "M2")), Mono.just(() -> "client1")))
+			.consumeNextWith(response -> {
+				assertThat(response.getStatusCodeValue(), is(200));
+				assertThat(response.getBody().size(), is(2));
+				assertThat(response.getBody().get(0).getAmount(), is(BigDecimal.valueOf(500)));
+				assertThat(response.getBody().get(0).getTotal(), is(BigDecimal.valueOf(490)));
+				assertThat(response.getBody().get(0).getItemIds(),
+					Matchers.containsInAnyOrder("M1", "M2"));
+				assertThat(response.getBody().get(0).getOptimal(), is(true));
+				assertThat(response.getBody().get(1).getAmount(), is(BigDecimal.valueOf(100)));
+				assertThat(response.getBody().get(1).getItemIds(), Matchers.empty());
+				assertThat(response.getBody().get(1).getOptimal(), is(false));
+			}).verifyComplete();
+	}
+
+	@Test
+	public void calculateItemsToBuyByAmount_whenAmountsAreARange() {
+		when(couponUseCases.calculateMaximumBenefits(Mockito.anyList(), Mockito.anyList()))
+			.thenReturn(CompletableFuture.completedFuture(Arrays.asList(
+				buildCoupon(BigDecimal.valueOf(100)),
+				buildCoupon(BigDecimal.valueOf(250)),
+				buildCoupon(BigDecimal.valueOf(400)))));
+
+		StepVerifier.create(controller.calculateItemsToBuyByAmount(
+			new CouponSweepRequest(null, BigDecimal.valueOf(100), BigDecimal.valueOf(500),
+				BigDecimal.valueOf(150), Arrays.asList("M1", "M2")), Mono.just(() -> "client1")))
+			.consumeNextWith(response -> {
+				assertThat(response.getStatusCodeValue(), is(200));
+				assertThat(response.getBody().get(2).getAmount(), is(BigDecimal.valueOf(400)));
+			}).verifyComplete();
+
+		verify(couponUseCases).calculateMaximumBenefits(
+			Arrays.asList(BigDecimal.valueOf(100), BigDecimal.valueOf(250),
+				BigDecimal.valueOf(400)), Arrays.asList("M1", "M2"));
+	}
+
+	@Test
+	public void calculateItemsToBuyByAmount_whenAmountsAreInvalid() {
+		when(couponUseCases.calculateMaximumBenefits(Mockito.any(), Mockito.anyList()))
+			.thenThrow(new InvalidAmountException("invalid coupons"));
+
+		StepVerifier.create(controller.calculateItemsToBuyByAmount(
+			new CouponSweepRequest(null, null, null, null, Arrays.asList("M1")),
+			Mono.just(() -> "client1")))
+			.consumeNextWith(response -> {
+				assertThat(response.getStatusCodeValue(), is(400));
+				assertThat(response.getBody(), is(nullValue()));
+			}).verifyComplete();
+	}
+
+	private CalculatedCoupon buildCoupon(final BigDecimal amount) {
+		return CalculatedCoupon.builder()
+			.couponAmount(amount)
+			.appliedItems(Collections.singletonList("M1"))
+			.maximumBenefit(amount)
+			.build();
 	}
 
 	private CouponRequest buildRequest(final BigDecimal amount) {
-		return new CouponRequest(amount, Arrays.asList("M1", "M2", "M3", "M4", "M5"));
+		return new CouponRequest(amount, Arrays.asList("M1", "M2", "M3", "M4", "M5"), null);
 	}
 }
@@ -0,0 +1,74 @@
+package api.meli.com.co.infrastructure.adapters.clients;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.time.Duration;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The test cases for {@link HedgePolicy}
+ *
+ * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
+ * @since 1.0
+ */
+public class HedgePolicyTest {
+
+	@Test
+	public void onRequest_whenThereAreNotEnoughLatencies() {
+		final HedgePolicy policy = new HedgePolicy(0.95, 0.05);
+		policy.record(Duration.ofMillis(10));
+
+		assertThat(policy.onRequest(), is(Optional.empty()));
+	}
+
+	@Test
+	public void onRequest_whenLatenciesWereRecorded() {
+		final HedgePolicy policy = new HedgePolicy(0.95, 0.05);
+		for (int i = 1; i <= 100; i++) {
+			policy.record(Duration.ofMillis(i));
+		}
+
+		assertThat(policy.onRequest(), is(Optional.of(Duration.ofMillis(61))));
+	}
+
+	@Test
+	public void onRequest_whenOldLatenciesWereReplaced() {
+		final HedgePolicy policy = new HedgePolicy(0.5, 0.05);
+		for (int i = 0; i < HedgePolicy.SAMPLES; i++) {
+			policy.record(Duration.ofSeconds(1));
+		}
+		for (int i = 0; i < HedgePolicy.SAMPLES; i++) {
+			policy.record(Duration.ofMillis(10));
+		}
+
+		assertThat(policy.onRequest(), is(Optional.of(Duration.ofMillis(10))));
+	}
+
+	@Test
+	public void tryHedge_whenBudgetIsSpent() {
+		final HedgePolicy policy = new HedgePolicy(0.95, 0.25);
+
+		assertThat(policy.tryHedge(), is(false));
+		for (int i = 0; i < 4; i++) {
+			policy.onRequest();
+		}
+		assertThat(policy.tryHedge(), is(true));
+		assertThat(policy.tryHedge(), is(false));
+	}
+
+	@Test
+	public void tryHedge_whenBudgetWasSavedUpForLong() {
+		final HedgePolicy policy = new HedgePolicy(0.95, 1);
+		for (int i = 0; i < 100; i++) {
+			policy.onRequest();
+		}
+
+		int hedges = 0;
+		while (policy.tryHedge()) {
+			hedges++;
+		}
+		assertThat(hedges, is(10));
+	}
+}
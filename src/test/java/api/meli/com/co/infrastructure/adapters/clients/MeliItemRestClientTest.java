@@ -0,0 +1,115 @@
+package api.meli.com.co.infrastructure.adapters.clients;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.when;
+
+import api.meli.com.co.domain.vo.Item;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreaker;
+import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreakerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+/**
+ * The test cases for {@link MeliItemRestClient}
+ *
+ * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
+ * @since 1.0
+ */
+@ExtendWith(MockitoExtension.class)
+public class MeliItemRestClientTest {
+
+	private static final int WARM_UP_REQUESTS = HedgePolicy.SAMPLES / 8;
+
+	private final AtomicInteger requests = new AtomicInteger();
+	@Mock
+	private ReactiveCircuitBreakerFactory circuitBreakerFactory;
+	@Mock
+	private ReactiveCircuitBreaker circuitBreaker;
+
+	@BeforeEach
+	public void setUp() {
+		when(circuitBreakerFactory.create("items")).thenReturn(circuitBreaker);
+		when(circuitBreaker.run(Mockito.any(Mono.class), Mockito.any()))
+			.thenAnswer(invocation -> invocation.getArgument(0));
+	}
+
+	@Test
+	public void getItemPricesByIds_whenChunkIsSlow() {
+		final MeliItemRestClient client = new MeliItemRestClient(WebClient.builder()
+			.exchangeFunction(request -> {
+				final int number = requests.incrementAndGet();
+				if (number == WARM_UP_REQUESTS + 1) {
+					return Mono.delay(Duration.ofSeconds(4)).map(tick -> response("100"));
+				}
+				return Mono.just(response(number > WARM_UP_REQUESTS ? "200" : "100"));
+			})
+			.build(), circuitBreakerFactory, 5000, 0.5, 1);
+		for (int i = 0; i < WARM_UP_REQUESTS; i++) {
+			client.getItemPricesByIds(Collections.singletonList("m1")).blockLast();
+		}
+
+		final List<Item> items = client.getItemPricesByIds(Collections.singletonList("m1"))
+			.collectList().block(Duration.ofSeconds(2));
+
+		assertThat(items.size(), is(1));
+		assertThat(items.get(0).getPrice(), is(BigDecimal.valueOf(200)));
+		assertThat(requests.get(), is(WARM_UP_REQUESTS + 2));
+	}
+
+	@Test
+	public void getItemPricesByIds_whenOneChunkFails() {
+		final List<String> itemIds = IntStream
+			.rangeClosed(1, MeliItemRestClient.MAX_IDS_PER_REQUEST + 1)
+			.mapToObj(i -> "m" + i)
+			.collect(Collectors.toList());
+		final MeliItemRestClient client = new MeliItemRestClient(WebClient.builder()
+			.exchangeFunction(request -> {
+				final String ids = UriComponentsBuilder.fromUri(request.url()).build()
+					.getQueryParams().getFirst("ids");
+				if (ids.equals(itemIds.get(itemIds.size() - 1))) {
+					return Mono.error(new IllegalStateException("Connection refused"));
+				}
+				return Mono.just(ClientResponse.create(HttpStatus.OK)
+					.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+					.body(Stream.of(ids.split(","))
+						.map(id -> "{\"code\":200,\"body\":{\"id\":\"" + id + "\",\"price\":100}}")
+						.collect(Collectors.joining(",", "[", "]")))
+					.build());
+			})
+			.build(), circuitBreakerFactory, 5000, 0.95, 0);
+
+		StepVerifier.create(client.getItemPricesByIds(itemIds).map(Item::getId).collectList())
+			.consumeNextWith(items -> assertThat(items,
+				Matchers.containsInAnyOrder(itemIds.subList(0, itemIds.size() - 1).toArray())))
+			.verifyComplete();
+	}
+
+	private static ClientResponse response(final String price) {
+		return ClientResponse.create(HttpStatus.OK)
+			.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+			.body("[{\"code\":200,\"body\":{\"id\":\"m1\",\"price\":" + price + "}}]")
+			.build();
+	}
+}
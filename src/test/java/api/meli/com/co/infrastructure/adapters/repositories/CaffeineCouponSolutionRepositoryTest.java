@@ -0,0 +1,106 @@
+package api.meli.com.co.infrastructure.adapters.repositories;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import api.meli.com.co.domain.vo.CouponSolution;
+import com.github.benmanes.caffeine.cache.Cache;
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Optional;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * The test cases for {@link CaffeineCouponSolutionRepository}
+ *
+ * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
+ * @since 1.0
+ */
+@ExtendWith({MockitoExtension.class})
+public class CaffeineCouponSolutionRepositoryTest {
+
+	private final CouponSolution solution = CouponSolution.create(480, Arrays.asList(100, 210));
+	private Cache<String, CouponSolution> cache = Mockito.mock(Cache.class);
+	private CaffeineCouponSolutionRepository repository =
+		new CaffeineCouponSolutionRepository(10, 10);
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		reset(cache);
+		final Field field = CaffeineCouponSolutionRepository.class.getDeclaredField("cache");
+		field.setAccessible(true);
+		field.set(repository, cache);
+	}
+
+	@Test
+	public void findSolutionByKey_whenSolutionExistInCache() throws Exception {
+		when(cache.getIfPresent("k1")).thenReturn(solution);
+
+		final Optional<CouponSolution> response = repository.findSolutionByKey("k1")
+			.toCompletableFuture().get();
+
+		assertThat(response.get(), is(solution));
+
+		verify(cache).getIfPresent("k1");
+	}
+
+	@Test
+	public void findSolutionByKey_whenSolutionNotExistInCache() throws Exception {
+		when(cache.getIfPresent(Mockito.anyString())).thenReturn(null);
+
+		final Optional<CouponSolution> response = repository.findSolutionByKey("k2")
+			.toCompletableFuture().get();
+
+		assertThat(response.isPresent(), is(false));
+
+		verify(cache).getIfPresent(Mockito.anyString());
+	}
+
+	@Test
+	public void findSolutionByKey_whenClientResponseWithError() throws Exception {
+		when(cache.getIfPresent(Mockito.anyString()))
+			.thenThrow(new IllegalArgumentException("Cache error"));
+
+		final Optional<CouponSolution> response = repository.findSolutionByKey("k3")
+			.toCompletableFuture().get();
+
+		assertThat(response.isPresent(), is(false));
+
+		verify(cache).getIfPresent(Mockito.anyString());
+	}
+
+	@Test
+	public void persistSolution_whenClientSuccessResponse() throws Exception {
+		doNothing().when(cache).put("k1", solution);
+
+		final CouponSolution response = repository.persistSolution("k1", solution)
+			.toCompletableFuture().get();
+
+		assertThat(response, is(solution));
+
+		verify(cache).put("k1", solution);
+	}
+
+	@Test
+	public void persistSolution_whenClientErrorResponse() {
+		doThrow(new IllegalArgumentException("client error")).when(cache).put("k1", solution);
+
+		final Throwable error = Assertions.assertThrows(Throwable.class,
+			() -> repository.persistSolution("k1", solution).toCompletableFuture().get());
+
+		assertThat(error.getCause(), instanceOf(IllegalArgumentException.class));
+
+		verify(cache).put("k1", solution);
+	}
+}
@@ -3,17 +3,24 @@ package api.meli.com.co.infrastructure.adapters.repositories;
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
-import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
-import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import api.meli.com.co.domain.vo.Item;
-import com.github.benmanes.caffeine.cache.Cache;
+import api.meli.com.co.infrastructure.adapters.repositories.CaffeineItemRepository.RefreshPolicy;
+import com.github.benmanes.caffeine.cache.AsyncCache;
 import java.lang.reflect.Field;
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -30,42 +37,93 @@ import org.mockito.junit.jupiter.MockitoExtension;
 @ExtendWith({MockitoExtension.class})
 public class CaffeineItemRepositoryTest {
 
-	private Cache<String, Float> cache = Mockito.mock(Cache.class);
-	private CaffeineItemRepository repository = new CaffeineItemRepository(10, 10);
+	private static final Duration REFRESH_AFTER = Duration.ofMinutes(1);
+
+	private final AtomicLong time = new AtomicLong();
+	private CaffeineItemRepository repository;
 
 	@BeforeEach
-	public void setUp() throws Exception {
-		reset(cache);
-		final Field field = CaffeineItemRepository.class.getDeclaredField("cache");
-		field.setAccessible(true);
-		field.set(repository, cache);
+	public void setUp() {
+		repository = new CaffeineItemRepository(10, 10);
 	}
 
 	@Test
 	public void findItemById_whenItemExistInCache() throws Exception {
-		when(cache.getIfPresent(Mockito.anyString())).thenReturn(100F);
+		repository.persistItem(Item.create("m1", BigDecimal.valueOf(100)));
 
 		final Optional<Item> response = repository.findItemById("m1").toCompletableFuture().get();
 
 		assertThat(response.get().getId(), is("m1"));
 		assertThat(response.get().getPrice(), is(BigDecimal.valueOf(100)));
+	}
 
-		verify(cache).getIfPresent(Mockito.anyString());
+	@Test
+	public void findItemsByIds_whenItemsWereSavedTogether() throws Exception {
+		repository.persistItems(Arrays.asList(Item.create("m1", BigDecimal.valueOf(100)),
+			Item.create("m2", BigDecimal.valueOf(200))), Duration.ofMillis(30))
+			.toCompletableFuture().get();
+
+		final Map<String, Item> response = repository.findItemsByIds(Arrays.asList("m1", "m2"))
+			.toCompletableFuture().get();
+
+		assertThat(response.get("m1").getPrice(), is(BigDecimal.valueOf(100)));
+		assertThat(response.get("m2").getPrice(), is(BigDecimal.valueOf(200)));
 	}
 
 	@Test
-	public void findItemById_whenItemNotExistInCache() throws Exception {
-		when(cache.getIfPresent(Mockito.anyString())).thenReturn(null);
+	public void restorePrice_whenPricesAreCopiedToAnotherRepository() throws Exception {
+		repository.persistItem(Item.create("m1", new BigDecimal("10.25")));
+		final CaffeineItemRepository other = new CaffeineItemRepository(10, 10);
+
+		repository.forEachPrice(other::restorePrice);
+
+		final Optional<Item> response = other.findItemById("m1").toCompletableFuture().get();
+		assertThat(response.get().getPrice(), is(new BigDecimal("10.25")));
+	}
+
+	@Test
+	public void restorePrice_whenPriceIsAlreadyOld() throws Exception {
+		repository = new CaffeineItemRepository(10, 10, Runnable::run, time::get, null);
+
+		final boolean restored = repository.restorePrice("m1", 1000, Duration.ofMinutes(8));
+
+		assertThat(restored, is(true));
+		time.addAndGet(Duration.ofMinutes(2).toNanos() - 1);
+		assertThat(repository.findItemById("m1").toCompletableFuture().get().isPresent(),
+			is(true));
+		time.addAndGet(1);
+		assertThat(repository.findItemById("m1").toCompletableFuture().get().isPresent(),
+			is(false));
+	}
+
+	@Test
+	public void restorePrice_whenPriceIsExpired() throws Exception {
+		final boolean restored = repository.restorePrice("m1", 1000, Duration.ofMinutes(10));
+
+		assertThat(restored, is(false));
+		assertThat(repository.findItemById("m1").toCompletableFuture().get().isPresent(),
+			is(false));
+	}
 
+	@Test
+	public void findItemById_whenPriceHasDecimals() throws Exception {
+		repository.persistItem(Item.create("m1", new BigDecimal("19.99500")));
+
+		final Optional<Item> response = repository.findItemById("m1").toCompletableFuture().get();
+
+		assertThat(response.get().getPrice(), is(new BigDecimal("19.995")));
+	}
+
+	@Test
+	public void findItemById_whenItemNotExistInCache() throws Exception {
 		final Optional<Item> response = repository.findItemById("m2").toCompletableFuture().get();
 
 		assertThat(response.isPresent(), is(false));
-
-		verify(cache).getIfPresent(Mockito.anyString());
 	}
 
 	@Test
 	public void findItemById_whenClientResponseWithError() throws Exception {
+		final AsyncCache<String, Object> cache = mockCache();
 		when(cache.getIfPresent(Mockito.anyString()))
 			.thenThrow(new IllegalArgumentException("Cache error"));
 
@@ -76,21 +134,63 @@ public class CaffeineItemRepositoryTest {
 		verify(cache).getIfPresent(Mockito.anyString());
 	}
 
+	@Test
+	public void findItemById_whenValueCompletesWithError() throws Exception {
+		final AsyncCache<String, Object> cache = mockCache();
+		final CompletableFuture<Object> failure = new CompletableFuture<>();
+		failure.completeExceptionally(new IllegalArgumentException("Cache error"));
+		when(cache.getIfPresent(Mockito.anyString())).thenReturn(failure);
+
+		final Optional<Item> response = repository.findItemById("m3").toCompletableFuture().get();
+
+		assertThat(response.isPresent(), is(false));
+	}
+
+	@Test
+	public void findItemsByIds_whenSomeItemsExistInCache() throws Exception {
+		repository.persistItem(Item.create("m1", BigDecimal.valueOf(100)));
+
+		final Map<String, Item> response = repository.findItemsByIds(Arrays.asList("m1", "m2"))
+			.toCompletableFuture().get();
+
+		assertThat(response.size(), is(1));
+		assertThat(response.get("m1").getPrice(), is(BigDecimal.valueOf(100)));
+	}
+
+	@Test
+	public void findItemsByIds_whenClientResponseWithError() throws Exception {
+		final AsyncCache<String, Object> cache = mockCache();
+		when(cache.synchronous()).thenThrow(new IllegalArgumentException("Cache error"));
+
+		final Map<String, Item> response = repository.findItemsByIds(Arrays.asList("m1", "m2"))
+			.toCompletableFuture().get();
+
+		assertThat(response.isEmpty(), is(true));
+	}
+
+	@Test
+	public void evictItem_whenItemExistInCache() throws Exception {
+		repository.persistItem(Item.create("m1", BigDecimal.TEN));
+
+		repository.evictItem("m1");
+
+		assertThat(repository.findItemById("m1").toCompletableFuture().get().isPresent(),
+			is(false));
+	}
+
 	@Test
 	public void persistItem_whenClientSuccessResponse() throws Exception {
-		doNothing().when(cache).put(Mockito.anyString(), Mockito.anyFloat());
-		final Item response = repository.persistItem(Item.create("m1", BigDecimal.TEN))
+		final Item response = repository.persistItem(Item.create("m1", new BigDecimal("10.25")))
 			.toCompletableFuture().get();
 		assertThat(response.getId(), is("m1"));
-		assertThat(response.getPrice(), is(BigDecimal.TEN));
-
-		verify(cache).put(Mockito.anyString(), Mockito.anyFloat());
+		assertThat(response.getPrice(), is(new BigDecimal("10.25")));
 	}
 
 	@Test
 	public void persistItem_whenClientErrorResponse() throws Exception {
+		final AsyncCache<String, Object> cache = mockCache();
 		doThrow(new IllegalArgumentException("client error")).when(cache)
-			.put(Mockito.anyString(), Mockito.anyFloat());
+			.put(Mockito.anyString(), Mockito.any());
 
 		final Throwable error = Assertions.assertThrows(Throwable.class,
 			() -> repository.persistItem(Item.create("m1", BigDecimal.TEN))
@@ -98,6 +198,118 @@ public class CaffeineItemRepositoryTest {
 
 		assertThat(error.getCause(), instanceOf(IllegalArgumentException.class));
 
-		verify(cache).put(Mockito.anyString(), Mockito.anyFloat());
+		verify(cache).put(Mockito.anyString(), Mockito.any());
+	}
+
+	@Test
+	public void findItemById_whenPriceIsStale() throws Exception {
+		final CompletableFuture<Item> refreshed = new CompletableFuture<>();
+		final AtomicInteger loads = new AtomicInteger();
+		repository = refreshingRepository(0, id -> {
+			loads.incrementAndGet();
+			return refreshed;
+		});
+		repository.persistItem(Item.create("m1", BigDecimal.valueOf(100)));
+
+		time.addAndGet(REFRESH_AFTER.toNanos() - 1);
+		assertThat(price("m1"), is(BigDecimal.valueOf(100)));
+		assertThat(loads.get(), is(0));
+
+		time.addAndGet(1);
+		assertThat(price("m1"), is(BigDecimal.valueOf(100)));
+		assertThat(price("m1"), is(BigDecimal.valueOf(100)));
+		assertThat(loads.get(), is(1));
+
+		refreshed.complete(Item.create("m1", BigDecimal.valueOf(120)));
+		assertThat(price("m1"), is(BigDecimal.valueOf(120)));
+		assertThat(loads.get(), is(1));
+	}
+
+	@Test
+	public void findItemsByIds_whenRefreshFails() throws Exception {
+		final CompletableFuture<Item> failure = new CompletableFuture<>();
+		failure.completeExceptionally(new IllegalStateException("Remote error"));
+		final AtomicInteger loads = new AtomicInteger();
+		repository = refreshingRepository(0, id -> {
+			loads.incrementAndGet();
+			return failure;
+		});
+		repository.persistItem(Item.create("m1", BigDecimal.valueOf(100)));
+		time.addAndGet(REFRESH_AFTER.toNanos());
+
+		final Map<String, Item> response = repository.findItemsByIds(Arrays.asList("m1"))
+			.toCompletableFuture().get();
+		repository.findItemsByIds(Arrays.asList("m1")).toCompletableFuture().get();
+
+		assertThat(response.get("m1").getPrice(), is(BigDecimal.valueOf(100)));
+		assertThat(loads.get(), is(2));
+	}
+
+	@Test
+	public void findItemById_whenRefreshedItemHasNoPrice() throws Exception {
+		final AtomicInteger loads = new AtomicInteger();
+		repository = refreshingRepository(0, id -> {
+			loads.incrementAndGet();
+			return CompletableFuture.completedFuture(Item.create(id));
+		});
+		repository.persistItem(Item.create("m1", BigDecimal.valueOf(100)));
+		time.addAndGet(REFRESH_AFTER.toNanos());
+
+		assertThat(price("m1"), is(BigDecimal.valueOf(100)));
+		assertThat(repository.findItemById("m1").toCompletableFuture().get().isPresent(),
+			is(false));
+
+		repository.persistItem(Item.create("m1", BigDecimal.valueOf(100)));
+		time.addAndGet(REFRESH_AFTER.toNanos());
+		price("m1");
+		assertThat(loads.get(), is(2));
+	}
+
+	@Test
+	public void findItemById_whenLoaderThrows() throws Exception {
+		repository = refreshingRepository(0, id -> {
+			throw new IllegalStateException("Remote error");
+		});
+		repository.persistItem(Item.create("m1", BigDecimal.valueOf(100)));
+		time.addAndGet(REFRESH_AFTER.toNanos());
+
+		assertThat(price("m1"), is(BigDecimal.valueOf(100)));
+	}
+
+	@Test
+	public void persistItem_whenRefreshHasJitter() throws Exception {
+		final AtomicInteger loads = new AtomicInteger();
+		repository = refreshingRepository(0.5, id -> {
+			loads.incrementAndGet();
+			return new CompletableFuture<>();
+		});
+		repository.persistItem(Item.create("m1", BigDecimal.valueOf(100)));
+
+		time.addAndGet(REFRESH_AFTER.toNanos() / 2 - 1);
+		price("m1");
+		assertThat(loads.get(), is(0));
+
+		time.addAndGet(REFRESH_AFTER.toNanos());
+		price("m1");
+		assertThat(loads.get(), is(1));
+	}
+
+	private CaffeineItemRepository refreshingRepository(final double jitter,
+		final Function<String, CompletionStage<Item>> loader) {
+		return new CaffeineItemRepository(10, 10, Runnable::run, time::get,
+			RefreshPolicy.create(REFRESH_AFTER, jitter, loader));
+	}
+
+	private BigDecimal price(final String id) throws Exception {
+		return repository.findItemById(id).toCompletableFuture().get().get().getPrice();
+	}
+
+	@SuppressWarnings("unchecked")
+	private <V> AsyncCache<String, V> mockCache() throws Exception {
+		final AsyncCache<String, V> cache = Mockito.mock(AsyncCache.class);
+		final Field field = CaffeineItemRepository.class.getDeclaredField("cache");
+		field.setAccessible(true);
+		field.set(repository, cache);
+		return cache;
 	}
 }
@@ -0,0 +1,79 @@
+package api.meli.com.co.infrastructure.adapters.repositories;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The test cases for {@link InvalidItemCache}
+ *
+ * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
+ * @since 1.0
+ */
+public class InvalidItemCacheTest {
+
+	private static final Duration TIME_TO_LIVE = Duration.ofSeconds(30);
+
+	private final AtomicLong time = new AtomicLong();
+
+	@Test
+	public void contains_whenIdWasAdded() {
+		final InvalidItemCache cache = new InvalidItemCache(TIME_TO_LIVE, 10, 0, time::get);
+
+		cache.addAll(Arrays.asList("m1", "m2"));
+
+		assertThat(cache.contains("m1"), is(true));
+		assertThat(cache.contains("m2"), is(true));
+		assertThat(cache.contains("m3"), is(false));
+	}
+
+	@Test
+	public void contains_whenIdHasExpired() {
+		final InvalidItemCache cache = new InvalidItemCache(TIME_TO_LIVE, 10, 0, time::get);
+
+		cache.addAll(Arrays.asList("m1"));
+		time.addAndGet(TIME_TO_LIVE.plusSeconds(1).toNanos());
+
+		assertThat(cache.contains("m1"), is(false));
+	}
+
+	@Test
+	public void contains_whenThereAreNoIds() {
+		final InvalidItemCache cache = new InvalidItemCache(TIME_TO_LIVE, 10, 1024, time::get);
+
+		cache.addAll(Collections.emptyList());
+
+		assertThat(cache.contains("m1"), is(false));
+	}
+
+	@Test
+	public void contains_whenFilterIsUsed() {
+		final InvalidItemCache cache = new InvalidItemCache(TIME_TO_LIVE, 10, 1024, time::get);
+
+		cache.addAll(Arrays.asList("m1", "m2"));
+
+		assertThat(cache.contains("m1"), is(true));
+		assertThat(cache.contains("m2"), is(true));
+		assertThat(cache.contains("m3"), is(false));
+	}
+
+	@Test
+	public void contains_whenFilterHasBeenRotated() {
+		final InvalidItemCache cache = new InvalidItemCache(TIME_TO_LIVE, 10, 1024, time::get);
+
+		cache.addAll(Arrays.asList("m1"));
+		time.addAndGet(Duration.ofSeconds(20).toNanos());
+		cache.addAll(Arrays.asList("m2"));
+		time.addAndGet(Duration.ofSeconds(20).toNanos());
+		cache.addAll(Arrays.asList("m3"));
+
+		assertThat(cache.contains("m1"), is(false));
+		assertThat(cache.contains("m2"), is(true));
+		assertThat(cache.contains("m3"), is(true));
+	}
+}
@@ -0,0 +1,103 @@
+package api.meli.com.co.infrastructure.adapters.repositories;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import api.meli.com.co.domain.repositories.CouponSolutionRepository;
+import api.meli.com.co.domain.vo.CouponSolution;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * The test cases for {@link LayeredCouponSolutionRepository}
+ *
+ * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
+ * @since 1.0
+ */
+@ExtendWith({MockitoExtension.class})
+public class LayeredCouponSolutionRepositoryTest {
+
+	private final CouponSolution solution = CouponSolution.create(480, Arrays.asList(100, 210));
+	@Mock
+	private CouponSolutionRepository localRepository;
+	@Mock
+	private CouponSolutionRepository sharedRepository;
+	private LayeredCouponSolutionRepository repository;
+
+	@BeforeEach
+	public void setUp() {
+		repository = new LayeredCouponSolutionRepository(localRepository, sharedRepository);
+	}
+
+	@Test
+	public void findSolutionByKey_whenSolutionExistInLocalRepository() throws Exception {
+		when(localRepository.findSolutionByKey("k1"))
+			.thenReturn(CompletableFuture.completedFuture(Optional.of(solution)));
+
+		final Optional<CouponSolution> response = repository.findSolutionByKey("k1")
+			.toCompletableFuture().get();
+
+		assertThat(response.get(), is(solution));
+
+		verify(sharedRepository, never()).findSolutionByKey(Mockito.anyString());
+	}
+
+	@Test
+	public void findSolutionByKey_whenSolutionExistInSharedRepository() throws Exception {
+		when(localRepository.findSolutionByKey("k1"))
+			.thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+		when(sharedRepository.findSolutionByKey("k1"))
+			.thenReturn(CompletableFuture.completedFuture(Optional.of(solution)));
+		when(localRepository.persistSolution("k1", solution))
+			.thenReturn(CompletableFuture.completedFuture(solution));
+
+		final Optional<CouponSolution> response = repository.findSolutionByKey("k1")
+			.toCompletableFuture().get();
+
+		assertThat(response.get(), is(solution));
+
+		verify(localRepository).persistSolution("k1", solution);
+	}
+
+	@Test
+	public void findSolutionByKey_whenSolutionNotExist() throws Exception {
+		when(localRepository.findSolutionByKey("k1"))
+			.thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+		when(sharedRepository.findSolutionByKey("k1"))
+			.thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+
+		final Optional<CouponSolution> response = repository.findSolutionByKey("k1")
+			.toCompletableFuture().get();
+
+		assertThat(response.isPresent(), is(false));
+
+		verify(localRepository, never())
+			.persistSolution(Mockito.anyString(), Mockito.any(CouponSolution.class));
+	}
+
+	@Test
+	public void persistSolution_whenBothRepositoriesSave() throws Exception {
+		when(localRepository.persistSolution("k1", solution))
+			.thenReturn(CompletableFuture.completedFuture(solution));
+		when(sharedRepository.persistSolution("k1", solution))
+			.thenReturn(CompletableFuture.completedFuture(solution));
+
+		final CouponSolution response = repository.persistSolution("k1", solution)
+			.toCompletableFuture().get();
+
+		assertThat(response, is(solution));
+
+		verify(localRepository).persistSolution("k1", solution);
+		verify(sharedRepository).persistSolution("k1", solution);
+	}
+}
@@ -0,0 +1,201 @@
+package api.meli.com.co.infrastructure.adapters.repositories;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import api.meli.com.co.domain.repositories.ItemRepository;
+import api.meli.com.co.domain.vo.Item;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.ReactiveSubscription.ChannelMessage;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * The test cases for {@link LayeredItemRepository}
+ *
+ * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
+ * @since 1.0
+ */
+@ExtendWith({MockitoExtension.class})
+public class LayeredItemRepositoryTest {
+
+	private static final String CHANNEL = "items-invalidation";
+
+	private final Item item = Item.create("m1", BigDecimal.TEN);
+	@Mock
+	private CaffeineItemRepository localRepository;
+	@Mock
+	private ItemRepository sharedRepository;
+	@Mock
+	private ReactiveStringRedisTemplate redisTemplate;
+	private LayeredItemRepository repository;
+
+	@BeforeEach
+	public void setUp() {
+		repository = new LayeredItemRepository(localRepository, sharedRepository, redisTemplate,
+			CHANNEL);
+	}
+
+	@Test
+	public void findItemById_whenItemExistInMemory() throws Exception {
+		when(localRepository.findItemById("m1"))
+			.thenReturn(CompletableFuture.completedFuture(Optional.of(item)));
+
+		final Optional<Item> response = repository.findItemById("m1").toCompletableFuture().get();
+
+		assertThat(response.get(), is(item));
+
+		verify(sharedRepository, never()).findItemById(Mockito.anyString());
+	}
+
+	@Test
+	public void findItemById_whenItemOnlyExistInSharedRepository() throws Exception {
+		when(localRepository.findItemById("m1"))
+			.thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+		when(sharedRepository.findItemById("m1"))
+			.thenReturn(CompletableFuture.completedFuture(Optional.of(item)));
+		when(localRepository.persistItem(item))
+			.thenReturn(CompletableFuture.completedFuture(item));
+
+		final Optional<Item> response = repository.findItemById("m1").toCompletableFuture().get();
+
+		assertThat(response.get(), is(item));
+
+		verify(localRepository).persistItem(item);
+	}
+
+	@Test
+	public void findItemById_whenItemNotExist() throws Exception {
+		when(localRepository.findItemById("m1"))
+			.thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+		when(sharedRepository.findItemById("m1"))
+			.thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+
+		final Optional<Item> response = repository.findItemById("m1").toCompletableFuture().get();
+
+		assertThat(response.isPresent(), is(false));
+
+		verify(localRepository, never()).persistItem(Mockito.any(Item.class));
+	}
+
+	@Test
+	public void findItemsByIds_whenSomeItemsExistInMemory() throws Exception {
+		final Item other = Item.create("m2", BigDecimal.ONE);
+		when(localRepository.findItemsByIds(Arrays.asList("m1", "m2", "m3")))
+			.thenReturn(CompletableFuture.completedFuture(Collections.singletonMap("m1", item)));
+		when(sharedRepository.findItemsByIds(Arrays.asList("m2", "m3")))
+			.thenReturn(CompletableFuture.completedFuture(Collections.singletonMap("m2", other)));
+
+		final Map<String, Item> response = repository
+			.findItemsByIds(Arrays.asList("m1", "m2", "m3")).toCompletableFuture().get();
+
+		assertThat(response.size(), is(2));
+		assertThat(response.get("m1"), is(item));
+		assertThat(response.get("m2"), is(other));
+
+		verify(localRepository).persistItem(other);
+	}
+
+	@Test
+	public void findItemsByIds_whenAllItemsExistInMemory() throws Exception {
+		when(localRepository.findItemsByIds(Arrays.asList("m1")))
+			.thenReturn(CompletableFuture.completedFuture(Collections.singletonMap("m1", item)));
+
+		final Map<String, Item> response = repository
+			.findItemsByIds(Arrays.asList("m1")).toCompletableFuture().get();
+
+		assertThat(response.get("m1"), is(item));
+
+		verify(sharedRepository, never()).findItemsByIds(Mockito.anyCollection());
+	}
+
+	@Test
+	public void persistItem_whenItemIsSavedAndAnnounced() throws Exception {
+		when(sharedRepository.persistItem(item, Duration.ofMillis(30)))
+			.thenReturn(CompletableFuture.completedFuture(item));
+		when(localRepository.persistItem(item)).thenReturn(CompletableFuture.completedFuture(item));
+		when(redisTemplate.convertAndSend(Mockito.eq(CHANNEL), Mockito.anyString()))
+			.thenReturn(Mono.just(1L));
+
+		final Item response = repository.persistItem(item, Duration.ofMillis(30))
+			.toCompletableFuture().get();
+
+		assertThat(response, is(item));
+
+		final ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+		verify(redisTemplate).convertAndSend(Mockito.eq(CHANNEL), message.capture());
+		assertThat(message.getValue().endsWith(":m1"), is(true));
+	}
+
+	@Test
+	public void persistItems_whenItemsAreSavedAndAnnounced() throws Exception {
+		final Item other = Item.create("m2", BigDecimal.ONE);
+		when(sharedRepository.persistItems(Arrays.asList(item, other), Duration.ofMillis(30)))
+			.thenReturn(CompletableFuture.completedFuture(null));
+		when(localRepository.persistItem(item)).thenReturn(CompletableFuture.completedFuture(item));
+		when(localRepository.persistItem(other))
+			.thenReturn(CompletableFuture.completedFuture(other));
+		when(redisTemplate.convertAndSend(Mockito.eq(CHANNEL), Mockito.anyString()))
+			.thenReturn(Mono.just(1L));
+
+		repository.persistItems(Arrays.asList(item, other), Duration.ofMillis(30))
+			.toCompletableFuture().get();
+
+		verify(redisTemplate, times(2)).convertAndSend(Mockito.eq(CHANNEL), Mockito.anyString());
+	}
+
+	@Test
+	public void persistItem_whenAnnouncementFails() throws Exception {
+		when(sharedRepository.persistItem(item, Duration.ZERO))
+			.thenReturn(CompletableFuture.completedFuture(item));
+		when(localRepository.persistItem(item)).thenReturn(CompletableFuture.completedFuture(item));
+		when(redisTemplate.convertAndSend(Mockito.eq(CHANNEL), Mockito.anyString()))
+			.thenReturn(Mono.error(new IllegalStateException("Channel error")));
+
+		final Item response = repository.persistItem(item).toCompletableFuture().get();
+
+		assertThat(response, is(item));
+	}
+
+	@Test
+	public void listenInvalidations_whenAnotherNodeSavesAnItem() throws Exception {
+		when(sharedRepository.persistItem(item, Duration.ZERO))
+			.thenReturn(CompletableFuture.completedFuture(item));
+		when(localRepository.persistItem(item)).thenReturn(CompletableFuture.completedFuture(item));
+		when(redisTemplate.convertAndSend(Mockito.eq(CHANNEL), Mockito.anyString()))
+			.thenReturn(Mono.just(1L));
+		repository.persistItem(item).toCompletableFuture().get();
+		final ArgumentCaptor<String> ownMessage = ArgumentCaptor.forClass(String.class);
+		verify(redisTemplate).convertAndSend(Mockito.eq(CHANNEL), ownMessage.capture());
+
+		Mockito.doReturn(Flux.just(
+			new ChannelMessage<>(CHANNEL, "other-node:m2"),
+			new ChannelMessage<>(CHANNEL, ownMessage.getValue()),
+			new ChannelMessage<>(CHANNEL, "malformed")
+		)).when(redisTemplate).listenToChannel(CHANNEL);
+
+		repository.listenInvalidations();
+		repository.close();
+
+		verify(localRepository).evictItem("m2");
+		verify(localRepository, never()).evictItem("m1");
+	}
+}
@@ -0,0 +1,199 @@
+package api.meli.com.co.infrastructure.adapters.repositories;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import api.meli.com.co.domain.vo.Item;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The test cases for {@link OffHeapItemRepository}
+ *
+ * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
+ * @since 1.0
+ */
+public class OffHeapItemRepositoryTest {
+
+	private final AtomicLong time = new AtomicLong();
+	private OffHeapItemRepository repository;
+
+	@BeforeEach
+	public void setUp() {
+		repository = new OffHeapItemRepository(Duration.ofMinutes(10), 1000, time::get);
+	}
+
+	@Test
+	public void findItemById_whenItemExistInCache() throws Exception {
+		repository.persistItem(Item.create("m1", BigDecimal.valueOf(100)));
+
+		final Optional<Item> response = repository.findItemById("m1").toCompletableFuture().get();
+
+		assertThat(response.get().getId(), is("m1"));
+		assertThat(response.get().getPrice(), is(BigDecimal.valueOf(100)));
+	}
+
+	@Test
+	public void findItemById_whenPriceHasDecimals() throws Exception {
+		repository.persistItem(Item.create("m1", new BigDecimal("10.25")));
+
+		final Optional<Item> response = repository.findItemById("m1").toCompletableFuture().get();
+
+		assertThat(response.get().getPrice(), is(new BigDecimal("10.25")));
+	}
+
+	@Test
+	public void findItemById_whenItemNotExistInCache() throws Exception {
+		final Optional<Item> response = repository.findItemById("m1").toCompletableFuture().get();
+
+		assertThat(response.isPresent(), is(false));
+	}
+
+	@Test
+	public void findItemById_whenItemWasSavedTwice() throws Exception {
+		repository.persistItem(Item.create("m1", BigDecimal.valueOf(100)));
+		repository.persistItem(Item.create("m1", BigDecimal.valueOf(200)));
+
+		final Optional<Item> response = repository.findItemById("m1").toCompletableFuture().get();
+
+		assertThat(response.get().getPrice(), is(BigDecimal.valueOf(200)));
+	}
+
+	@Test
+	public void findItemById_whenItemExpired() throws Exception {
+		repository.persistItem(Item.create("m1", BigDecimal.valueOf(100)));
+		time.addAndGet(Duration.ofMinutes(10).toNanos());
+
+		final Optional<Item> response = repository.findItemById("m1").toCompletableFuture().get();
+
+		assertThat(response.isPresent(), is(false));
+	}
+
+	@Test
+	public void findItemsByIds_whenSomeItemsExistInCache() throws Exception {
+		repository.persistItems(Arrays.asList(Item.create("m1", BigDecimal.valueOf(100)),
+			Item.create("m2", BigDecimal.valueOf(200))), Duration.ofMillis(30))
+			.toCompletableFuture().get();
+
+		final Map<String, Item> response = repository
+			.findItemsByIds(Arrays.asList("m1", "m2", "m3")).toCompletableFuture().get();
+
+		assertThat(response.size(), is(2));
+		assertThat(response.get("m1").getPrice(), is(BigDecimal.valueOf(100)));
+		assertThat(response.get("m2").getPrice(), is(BigDecimal.valueOf(200)));
+	}
+
+	@Test
+	public void evictItem_whenItemExistInCache() throws Exception {
+		for (int i = 0; i < 100; i++) {
+			repository.persistItem(Item.create("m" + i, BigDecimal.valueOf(i)));
+		}
+
+		repository.evictItem("m1");
+
+		assertThat(repository.findItemById("m1").toCompletableFuture().get().isPresent(),
+			is(false));
+		for (int i = 2; i < 100; i++) {
+			assertThat(repository.findItemById("m" + i).toCompletableFuture().get().get()
+				.getPrice(), is(BigDecimal.valueOf(i)));
+		}
+	}
+
+	@Test
+	public void persistItem_whenCacheIsFullKeepsTheItemsRecentlyRead() throws Exception {
+		repository = new OffHeapItemRepository(Duration.ofMinutes(10), 6400, time::get);
+		for (int i = 0; i < 3200; i++) {
+			repository.persistItem(Item.create("hot" + i, BigDecimal.ONE));
+			repository.findItemById("hot" + i);
+		}
+
+		int coldItems = 0;
+		for (int i = 0; i < 3200; i++) {
+			repository.persistItem(Item.create("cold" + i, BigDecimal.ONE));
+		}
+		for (int i = 0; i < 3200; i++) {
+			assertThat(repository.findItemById("hot" + i).toCompletableFuture().get().isPresent(),
+				is(true));
+			if (repository.findItemById("cold" + i).toCompletableFuture().get().isPresent()) {
+				coldItems++;
+			}
+		}
+		Assertions.assertTrue(coldItems < 3200);
+	}
+
+	@Test
+	public void findItemById_whenAnotherItemHasTheSameHash() throws Exception {
+		repository.persistItem(Item.create("m1", BigDecimal.valueOf(100)));
+		changeSecondHashes();
+
+		final Optional<Item> response = repository.findItemById("m1").toCompletableFuture().get();
+		repository.persistItem(Item.create("m1", BigDecimal.valueOf(200)));
+
+		assertThat(response.isPresent(), is(false));
+		assertThat(repository.findItemById("m1").toCompletableFuture().get().get().getPrice(),
+			is(BigDecimal.valueOf(200)));
+	}
+
+	@Test
+	public void persistItem_whenPriceDoesNotFit() {
+		final ExecutionException exception = Assertions.assertThrows(ExecutionException.class,
+			() -> repository.persistItem(Item.create("m1", new BigDecimal("1e40")))
+				.toCompletableFuture().get());
+
+		assertThat(exception.getCause(), instanceOf(ArithmeticException.class));
+	}
+
+	@Test
+	public void requiredBytes_whenSegmentsAreFilledUpToTheirLoad() {
+		assertThat(OffHeapItemRepository.requiredBytes(1000), is(64L * 32 * 28));
+		assertThat(OffHeapItemRepository.requiredBytes(5_000_000), is(64L * 131072 * 28));
+	}
+
+	@Test
+	public void maxDirectMemory_whenItIsSet() {
+		assertThat(OffHeapItemRepository.maxDirectMemory(Arrays.asList("-Xmx1g",
+			"-XX:MaxDirectMemorySize=512m", "-XX:MaxDirectMemorySize=2G"), 1024), is(2L << 30));
+		assertThat(OffHeapItemRepository.maxDirectMemory(
+			Arrays.asList("-XX:MaxDirectMemorySize=300000"), 1024), is(300000L));
+	}
+
+	@Test
+	public void maxDirectMemory_whenItIsNotSet() {
+		assertThat(OffHeapItemRepository.maxDirectMemory(Arrays.asList("-Xmx1g"), 1024),
+			is(1024L));
+		assertThat(OffHeapItemRepository.maxDirectMemory(
+			Arrays.asList("-XX:MaxDirectMemorySize=0"), 1024), is(1024L));
+	}
+
+	/**
+	 * Change the second hash of every saved entry, as if they were other ids with the same hash
+	 */
+	private void changeSecondHashes() throws Exception {
+		final Field segmentsField = OffHeapItemRepository.class.getDeclaredField("segments");
+		segmentsField.setAccessible(true);
+		final Field slotBytesField = OffHeapItemRepository.class.getDeclaredField("SLOT_BYTES");
+		slotBytesField.setAccessible(true);
+		final int slotBytes = slotBytesField.getInt(null);
+		for (final Object segment : (Object[]) segmentsField.get(repository)) {
+			final Field slotsField = segment.getClass().getDeclaredField("slots");
+			slotsField.setAccessible(true);
+			final ByteBuffer slots = (ByteBuffer) slotsField.get(segment);
+			for (int position = 0; position < slots.capacity(); position += slotBytes) {
+				if (slots.getLong(position) != 0) {
+					slots.putLong(position + 8, ~slots.getLong(position + 8));
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,64 @@
+package api.meli.com.co.infrastructure.adapters.repositories;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import api.meli.com.co.infrastructure.adapters.repositories.PriceCodec.CachedPrice;
+import java.math.BigDecimal;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The test cases for {@link PriceCodec}
+ *
+ * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
+ * @since 1.0
+ */
+public class PriceCodecTest {
+
+	@Test
+	public void decode_whenPriceHasNoExpiration() {
+		final String value = PriceCodec.encode(BigDecimal.TEN);
+
+		final CachedPrice price = PriceCodec.decode(value);
+
+		assertThat(value, is("#255s"));
+		assertThat(price.getPrice(), is(BigDecimal.TEN));
+		assertThat(price.getComputeMillis(), is(0L));
+		assertThat(price.getExpiresAt(), is(Long.MAX_VALUE));
+	}
+
+	@Test
+	public void decode_whenPriceHasExpiration() {
+		final CachedPrice price = PriceCodec
+			.decode(PriceCodec.encode(new BigDecimal("10.5"), 30, 1_810_000));
+
+		assertThat(price.getPrice(), is(new BigDecimal("10.5")));
+		assertThat(price.getComputeMillis(), is(30L));
+		assertThat(price.getExpiresAt(), is(1_810_000L));
+	}
+
+	@Test
+	public void decode_whenPriceHasMoreDecimalsThanTheScale() {
+		final CachedPrice price = PriceCodec.decode(PriceCodec.encode(new BigDecimal("19.99995")));
+
+		assertThat(price.getPrice(), is(new BigDecimal("20")));
+	}
+
+	@Test
+	public void decode_whenValueHasThePreviousFormat() {
+		final CachedPrice plain = PriceCodec.decode("10.25");
+		final CachedPrice withExpiration = PriceCodec.decode("100|50|20000");
+
+		assertThat(plain.getPrice(), is(new BigDecimal("10.25")));
+		assertThat(plain.getExpiresAt(), is(Long.MAX_VALUE));
+		assertThat(withExpiration.getPrice(), is(BigDecimal.valueOf(100)));
+		assertThat(withExpiration.getComputeMillis(), is(50L));
+		assertThat(withExpiration.getExpiresAt(), is(20_000L));
+	}
+
+	@Test
+	public void toPrice_whenUnitsAreZero() {
+		assertThat(PriceCodec.toPrice(0), is(BigDecimal.ZERO));
+		assertThat(PriceCodec.toUnits(new BigDecimal("0.00005")), is(0L));
+	}
+}
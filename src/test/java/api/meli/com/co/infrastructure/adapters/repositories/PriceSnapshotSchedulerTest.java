@@ -0,0 +1,92 @@
+package api.meli.com.co.infrastructure.adapters.repositories;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import api.meli.com.co.domain.vo.Item;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+/**
+ * The test cases for {@link PriceSnapshotScheduler}
+ *
+ * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
+ * @since 1.0
+ */
+public class PriceSnapshotSchedulerTest {
+
+	private static final Duration INTERVAL = Duration.ofMinutes(5);
+	private static final Duration MAX_AGE = Duration.ofMinutes(30);
+
+	@TempDir
+	public Path directory;
+	private PriceSnapshotStore store;
+	private VirtualTimeScheduler scheduler;
+	private PriceSnapshotScheduler snapshotScheduler;
+
+	@BeforeEach
+	public void setUp() {
+		store = new PriceSnapshotStore(directory.resolve("prices.snapshot"));
+		scheduler = VirtualTimeScheduler.create();
+		snapshotScheduler = new PriceSnapshotScheduler(store, INTERVAL, MAX_AGE, scheduler);
+	}
+
+	@Test
+	public void start_whenThereIsASnapshot() {
+		final CaffeineItemRepository repository = new CaffeineItemRepository(10, 100);
+		repository.persistItem(Item.create("MLA1", BigDecimal.TEN));
+		store.save(repository);
+
+		final int restored = snapshotScheduler.start(new CaffeineItemRepository(10, 100));
+
+		assertThat(restored, is(1));
+	}
+
+	@Test
+	public void start_whenItIsAlreadyStarted() {
+		snapshotScheduler.start(new CaffeineItemRepository(10, 100));
+
+		assertThrows(IllegalStateException.class,
+			() -> snapshotScheduler.start(new CaffeineItemRepository(10, 100)));
+	}
+
+	@Test
+	public void start_whenIntervalElapses() {
+		final CaffeineItemRepository repository = new CaffeineItemRepository(10, 100);
+		snapshotScheduler.start(repository);
+		repository.persistItem(Item.create("MLA1", BigDecimal.TEN));
+
+		assertThat(Files.exists(directory.resolve("prices.snapshot")), is(false));
+		scheduler.advanceTimeBy(INTERVAL);
+
+		assertThat(store.restore(new CaffeineItemRepository(10, 100), MAX_AGE), is(1));
+	}
+
+	@Test
+	public void close_whenItIsStarted() {
+		final CaffeineItemRepository repository = new CaffeineItemRepository(10, 100);
+		snapshotScheduler.start(repository);
+		repository.persistItem(Item.create("MLA1", BigDecimal.TEN));
+		repository.persistItem(Item.create("MLA2", BigDecimal.ONE));
+
+		snapshotScheduler.close();
+		repository.persistItem(Item.create("MLA3", BigDecimal.ONE));
+		scheduler.advanceTimeBy(INTERVAL);
+
+		assertThat(store.restore(new CaffeineItemRepository(10, 100), MAX_AGE), is(2));
+	}
+
+	@Test
+	public void close_whenItIsNotStarted() {
+		snapshotScheduler.close();
+
+		assertThat(Files.exists(directory.resolve("prices.snapshot")), is(false));
+	}
+}
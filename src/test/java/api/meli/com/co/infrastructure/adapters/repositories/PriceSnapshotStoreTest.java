@@ -0,0 +1,126 @@
+package api.meli.com.co.infrastructure.adapters.repositories;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import api.meli.com.co.domain.vo.Item;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * The test cases for {@link PriceSnapshotStore}
+ *
+ * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
+ * @since 1.0
+ */
+public class PriceSnapshotStoreTest {
+
+	private static final Duration MAX_AGE = Duration.ofMinutes(30);
+
+	@TempDir
+	public Path directory;
+
+	@Test
+	public void restore_whenSnapshotWasSaved() throws Exception {
+		final CaffeineItemRepository repository = new CaffeineItemRepository(10, 100);
+		for (int i = 0; i < 40; i++) {
+			repository.persistItem(Item.create("MLA" + i, BigDecimal.valueOf(i * 10 + 5, 1)));
+		}
+		repository.persistItem(Item.create("MCOñ1", BigDecimal.TEN));
+		final PriceSnapshotStore store = new PriceSnapshotStore(
+			directory.resolve("snapshots").resolve("prices.snapshot"));
+
+		final int saved = store.save(repository);
+		final CaffeineItemRepository restoredRepository = new CaffeineItemRepository(10, 100);
+		final int restored = store.restore(restoredRepository, MAX_AGE);
+
+		assertThat(saved, is(41));
+		assertThat(restored, is(41));
+		final Map<String, Item> items = restoredRepository
+			.findItemsByIds(Arrays.asList("MLA0", "MLA39", "MCOñ1")).toCompletableFuture().get();
+		assertThat(items.get("MLA0").getPrice(), is(new BigDecimal("0.5")));
+		assertThat(items.get("MLA39").getPrice(), is(new BigDecimal("39.5")));
+		assertThat(items.get("MCOñ1").getPrice(), is(BigDecimal.TEN));
+	}
+
+	@Test
+	public void restore_whenPricesAreNearTheirTimeToLife() throws Exception {
+		final Path file = directory.resolve("prices");
+		final CaffeineItemRepository repository = new CaffeineItemRepository(10, 100);
+		repository.persistItem(Item.create("MLA1", BigDecimal.TEN));
+		new PriceSnapshotStore(file).save(repository);
+		final AtomicLong time = new AtomicLong();
+		final CaffeineItemRepository restoredRepository =
+			new CaffeineItemRepository(10, 100, Runnable::run, time::get, null);
+		final PriceSnapshotStore store = new PriceSnapshotStore(file,
+			Clock.offset(Clock.systemUTC(), Duration.ofMinutes(9)));
+
+		final int restored = store.restore(restoredRepository, MAX_AGE);
+
+		assertThat(restored, is(1));
+		assertThat(restoredRepository.findItemById("MLA1").toCompletableFuture().get()
+			.isPresent(), is(true));
+		time.addAndGet(Duration.ofMinutes(2).toNanos());
+		assertThat(restoredRepository.findItemById("MLA1").toCompletableFuture().get()
+			.isPresent(), is(false));
+	}
+
+	@Test
+	public void restore_whenPricesOutlivedTheirTimeToLife() {
+		final Path file = directory.resolve("prices");
+		final CaffeineItemRepository repository = new CaffeineItemRepository(10, 100);
+		repository.persistItem(Item.create("MLA1", BigDecimal.TEN));
+		new PriceSnapshotStore(file).save(repository);
+		final PriceSnapshotStore store = new PriceSnapshotStore(file,
+			Clock.offset(Clock.systemUTC(), Duration.ofMinutes(11)));
+
+		assertThat(store.restore(new CaffeineItemRepository(10, 100), MAX_AGE), is(0));
+	}
+
+	@Test
+	public void restore_whenThereIsNoSnapshot() {
+		final PriceSnapshotStore store = new PriceSnapshotStore(directory.resolve("prices"));
+
+		assertThat(store.restore(new CaffeineItemRepository(10, 100), MAX_AGE), is(0));
+	}
+
+	@Test
+	public void restore_whenSnapshotIsTooOld() {
+		final Path file = directory.resolve("prices");
+		final CaffeineItemRepository repository = new CaffeineItemRepository(10, 100);
+		repository.persistItem(Item.create("MLA1", BigDecimal.TEN));
+		new PriceSnapshotStore(file).save(repository);
+		final PriceSnapshotStore store = new PriceSnapshotStore(file,
+			Clock.offset(Clock.systemUTC(), MAX_AGE.plusMinutes(1)));
+
+		assertThat(store.restore(new CaffeineItemRepository(10, 100), MAX_AGE), is(0));
+	}
+
+	@Test
+	public void restore_whenSnapshotHasUnknownFormat() throws Exception {
+		final Path file = directory.resolve("prices");
+		Files.write(file, "not a snapshot".getBytes());
+		final PriceSnapshotStore store = new PriceSnapshotStore(file);
+
+		assertThat(store.restore(new CaffeineItemRepository(10, 100), MAX_AGE), is(0));
+	}
+
+	@Test
+	public void save_whenDirectoryCannotBeCreated() throws Exception {
+		final Path parent = directory.resolve("file");
+		Files.write(parent, new byte[0]);
+		final CaffeineItemRepository repository = new CaffeineItemRepository(10, 100);
+		repository.persistItem(Item.create("MLA1", BigDecimal.TEN));
+		final PriceSnapshotStore store = new PriceSnapshotStore(parent.resolve("prices"));
+
+		assertThat(store.save(repository), is(0));
+	}
+}
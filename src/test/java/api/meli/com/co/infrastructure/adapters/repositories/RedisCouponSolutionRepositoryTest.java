@@ -0,0 +1,123 @@
+package api.meli.com.co.infrastructure.adapters.repositories;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import api.meli.com.co.domain.vo.CouponSolution;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import reactor.core.publisher.Mono;
+
+/**
+ * The test cases for {@link RedisCouponSolutionRepository}
+ *
+ * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
+ * @since 1.0
+ */
+@ExtendWith({MockitoExtension.class})
+public class RedisCouponSolutionRepositoryTest {
+
+	private static final Duration TIME_TO_LIVE = Duration.ofMinutes(5);
+
+	private final ReactiveValueOperations valueOperations = Mockito
+		.mock(ReactiveValueOperations.class);
+	@Mock
+	private ReactiveStringRedisTemplate redisTemplate;
+	private RedisCouponSolutionRepository repository;
+
+	@BeforeEach
+	public void setUp() {
+		when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+		repository = new RedisCouponSolutionRepository(redisTemplate, TIME_TO_LIVE);
+	}
+
+	@Test
+	public void findSolutionByKey_whenSolutionExistInCache() throws Exception {
+		when(valueOperations.get("k1")).thenReturn(Mono.just("480:100,210,90,80"));
+
+		final Optional<CouponSolution> response = repository.findSolutionByKey("k1")
+			.toCompletableFuture().get();
+
+		assertThat(response.get().getMaximumBenefit(), is(480L));
+		assertThat(response.get().getAppliedPrices(), Matchers.contains(100, 210, 90, 80));
+
+		verify(valueOperations).get("k1");
+	}
+
+	@Test
+	public void findSolutionByKey_whenSolutionHasNoPrices() throws Exception {
+		when(valueOperations.get("k1")).thenReturn(Mono.just("0:"));
+
+		final Optional<CouponSolution> response = repository.findSolutionByKey("k1")
+			.toCompletableFuture().get();
+
+		assertThat(response.get().getMaximumBenefit(), is(0L));
+		assertThat(response.get().getAppliedPrices(), Matchers.empty());
+	}
+
+	@Test
+	public void findSolutionByKey_whenSolutionNotExistInCache() throws Exception {
+		when(valueOperations.get(Mockito.anyString())).thenReturn(Mono.empty());
+
+		final Optional<CouponSolution> response = repository.findSolutionByKey("k2")
+			.toCompletableFuture().get();
+
+		assertThat(response.isPresent(), is(false));
+
+		verify(valueOperations).get(Mockito.anyString());
+	}
+
+	@Test
+	public void findSolutionByKey_whenClientResponseWithError() throws Exception {
+		when(valueOperations.get(Mockito.anyString()))
+			.thenReturn(Mono.error(new IllegalArgumentException("Cache error")));
+
+		final Optional<CouponSolution> response = repository.findSolutionByKey("k3")
+			.toCompletableFuture().get();
+
+		assertThat(response.isPresent(), is(false));
+
+		verify(valueOperations).get(Mockito.anyString());
+	}
+
+	@Test
+	public void persistSolution_whenClientSuccessResponse() throws Exception {
+		when(valueOperations.set("k1", "480:100,210,90,80", TIME_TO_LIVE))
+			.thenReturn(Mono.just(true));
+		final CouponSolution solution = CouponSolution.create(480, Arrays.asList(100, 210, 90, 80));
+
+		final CouponSolution response = repository.persistSolution("k1", solution)
+			.toCompletableFuture().get();
+
+		assertThat(response, is(solution));
+
+		verify(valueOperations).set("k1", "480:100,210,90,80", TIME_TO_LIVE);
+	}
+
+	@Test
+	public void persistSolution_whenClientErrorResponse() {
+		when(valueOperations.set("k1", "0:", TIME_TO_LIVE))
+			.thenReturn(Mono.error(new IllegalArgumentException("error")));
+
+		final Throwable error = Assertions.assertThrows(Throwable.class,
+			() -> repository.persistSolution("k1",
+				CouponSolution.create(0, Collections.emptyList())).toCompletableFuture().get());
+
+		assertThat(error.getCause(), instanceOf(IllegalArgumentException.class));
+	}
+}
@@ -3,22 +3,34 @@ package api.meli.com.co.infrastructure.adapters.repositories;
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import api.meli.com.co.domain.vo.Item;
 import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.ReactiveHashOperations;
 import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
 import org.springframework.data.redis.core.ReactiveValueOperations;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
@@ -30,16 +42,31 @@ import reactor.core.publisher.Mono;
 @ExtendWith({MockitoExtension.class})
 public class RedisItemRepositoryTest {
 
+	private static final Duration TIME_TO_LIVE = Duration.ofMinutes(30);
+	private static final Duration LEASE_TIME = Duration.ofSeconds(5);
+	private static final Clock LATE_CLOCK =
+		Clock.fixed(Instant.ofEpochMilli(4_000_000), ZoneOffset.UTC);
+
 	private final ReactiveValueOperations valueOperations = Mockito
 		.mock(ReactiveValueOperations.class);
+	private final ReactiveHashOperations hashOperations = Mockito
+		.mock(ReactiveHashOperations.class);
+	private final Clock clock = Clock.fixed(Instant.ofEpochMilli(10_000), ZoneOffset.UTC);
 	@Mock
 	private ReactiveStringRedisTemplate redisTemplate;
-	@InjectMocks
 	private RedisItemRepository repository;
+	private RedisItemRepository protectedRepository;
+	private RedisItemRepository bucketRepository;
 
 	@BeforeEach
 	public void setUpdate() {
-		when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+		Mockito.lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+		Mockito.lenient().when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+		repository = new RedisItemRepository(redisTemplate);
+		protectedRepository = new RedisItemRepository(redisTemplate, TIME_TO_LIVE, LEASE_TIME, 1,
+			0, clock, () -> 0.5);
+		bucketRepository = new RedisItemRepository(redisTemplate, TIME_TO_LIVE, LEASE_TIME, 1,
+			2, clock, () -> 0.5);
 	}
 
 	@Test
@@ -85,6 +112,59 @@ public class RedisItemRepositoryTest {
 		verify(redisTemplate).opsForValue();
 	}
 
+	@Test
+	public void findItemsByIds_whenSomeItemsExistInCache() throws Exception {
+
+		when(valueOperations.multiGet(Arrays.asList("m1", "m2", "m3")))
+			.thenReturn(Mono.just(Arrays.asList("100", null, "300")));
+
+		final Map<String, Item> response = repository
+			.findItemsByIds(Arrays.asList("m1", "m2", "m3")).toCompletableFuture().get();
+
+		assertThat(response.size(), is(2));
+		assertThat(response.get("m1").getPrice(), is(BigDecimal.valueOf(100)));
+		assertThat(response.get("m3").getPrice(), is(BigDecimal.valueOf(300)));
+
+		verify(valueOperations).multiGet(Arrays.asList("m1", "m2", "m3"));
+		verify(redisTemplate).opsForValue();
+	}
+
+	@Test
+	public void findItemsByIds_whenAValueCannotBeDecoded() throws Exception {
+
+		when(valueOperations.multiGet(Arrays.asList("m1", "m2")))
+			.thenReturn(Mono.just(Arrays.asList("not a price", "200")));
+
+		final Map<String, Item> response = repository
+			.findItemsByIds(Arrays.asList("m1", "m2")).toCompletableFuture().get();
+
+		assertThat(response.size(), is(1));
+		assertThat(response.get("m2").getPrice(), is(BigDecimal.valueOf(200)));
+	}
+
+	@Test
+	public void findItemsByIds_whenClientResponseWithError() throws Exception {
+
+		when(valueOperations.multiGet(Mockito.anyCollection()))
+			.thenReturn(Mono.error(new IllegalArgumentException("Cache error")));
+
+		final Map<String, Item> response = repository
+			.findItemsByIds(Arrays.asList("m1", "m2")).toCompletableFuture().get();
+
+		assertThat(response.isEmpty(), is(true));
+	}
+
+	@Test
+	public void findItemsByIds_whenThereAreNoIds() throws Exception {
+
+		final Map<String, Item> response = repository
+			.findItemsByIds(Collections.emptyList()).toCompletableFuture().get();
+
+		assertThat(response.isEmpty(), is(true));
+
+		verifyNoInteractions(redisTemplate);
+	}
+
 	@Test
 	public void persistItem_whenClientSuccessResponse() throws Exception {
 		when(valueOperations.set(Mockito.anyString(), Mockito.anyString()))
@@ -113,4 +193,218 @@ public class RedisItemRepositoryTest {
 		verify(valueOperations).set(Mockito.anyString(), Mockito.anyString());
 		verify(redisTemplate).opsForValue();
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void findItemById_whenItemIsFresh() throws Exception {
+
+		when(valueOperations.get("m1"))
+			.thenReturn(Mono.just(PriceCodec.encode(BigDecimal.valueOf(100), 50, 20000)));
+
+		final Optional<Item> response = protectedRepository.findItemById("m1")
+			.toCompletableFuture().get();
+
+		assertThat(response.get().getPrice(), is(BigDecimal.valueOf(100)));
+
+		verify(valueOperations, never())
+			.setIfAbsent(Mockito.anyString(), Mockito.anyString(), Mockito.any(Duration.class));
+	}
+
+	@Test
+	public void findItemById_whenItemIsAboutToExpireAndLeaseIsAcquired() throws Exception {
+
+		when(valueOperations.get("m1"))
+			.thenReturn(Mono.just(PriceCodec.encode(BigDecimal.valueOf(100), 5000, 12000)));
+		when(valueOperations.setIfAbsent(Mockito.eq("lease:m1"), Mockito.anyString(),
+			Mockito.eq(LEASE_TIME))).thenReturn(Mono.just(true));
+
+		final Optional<Item> response = protectedRepository.findItemById("m1")
+			.toCompletableFuture().get();
+
+		assertThat(response.isPresent(), is(false));
+	}
+
+	@Test
+	public void findItemById_whenItemIsAboutToExpireAndLeaseIsTaken() throws Exception {
+
+		when(valueOperations.get("m1"))
+			.thenReturn(Mono.just(PriceCodec.encode(BigDecimal.valueOf(100), 5000, 12000)));
+		when(valueOperations.setIfAbsent(Mockito.eq("lease:m1"), Mockito.anyString(),
+			Mockito.eq(LEASE_TIME))).thenReturn(Mono.just(false));
+
+		final Optional<Item> response = protectedRepository.findItemById("m1")
+			.toCompletableFuture().get();
+
+		assertThat(response.get().getPrice(), is(BigDecimal.valueOf(100)));
+	}
+
+	@Test
+	public void findItemById_whenLeaseCannotBeTaken() throws Exception {
+
+		when(valueOperations.get("m1"))
+			.thenReturn(Mono.just(PriceCodec.encode(BigDecimal.valueOf(100), 0, 5000)));
+		when(valueOperations.setIfAbsent(Mockito.eq("lease:m1"), Mockito.anyString(),
+			Mockito.eq(LEASE_TIME))).thenReturn(Mono.error(new IllegalStateException("error")));
+
+		final Optional<Item> response = protectedRepository.findItemById("m1")
+			.toCompletableFuture().get();
+
+		assertThat(response.get().getPrice(), is(BigDecimal.valueOf(100)));
+	}
+
+	@Test
+	public void findItemsByIds_whenAnItemHasExpiredAndLeaseIsAcquired() throws Exception {
+
+		when(valueOperations.multiGet(Arrays.asList("m1", "m2")))
+			.thenReturn(Mono.just(Arrays.asList(
+				PriceCodec.encode(BigDecimal.valueOf(100), 0, 20000),
+				PriceCodec.encode(BigDecimal.valueOf(200), 0, 5000))));
+		when(valueOperations.setIfAbsent(Mockito.eq("lease:m2"), Mockito.anyString(),
+			Mockito.eq(LEASE_TIME))).thenReturn(Mono.just(true));
+
+		final Map<String, Item> response = protectedRepository
+			.findItemsByIds(Arrays.asList("m1", "m2")).toCompletableFuture().get();
+
+		assertThat(response.size(), is(1));
+		assertThat(response.get("m1").getPrice(), is(BigDecimal.valueOf(100)));
+	}
+
+	@Test
+	public void persistItem_whenItemIsSavedWithItsComputeTime() throws Exception {
+		final String value = PriceCodec.encode(new BigDecimal("10.5"), 30, 1810000);
+		when(valueOperations.set("m1", value, TIME_TO_LIVE.multipliedBy(2)))
+			.thenReturn(Mono.just(true));
+
+		final Item response = protectedRepository
+			.persistItem(Item.create("m1", new BigDecimal("10.5")), Duration.ofMillis(30))
+			.toCompletableFuture().get();
+
+		assertThat(response.getId(), is("m1"));
+
+		verify(valueOperations).set("m1", value, TIME_TO_LIVE.multipliedBy(2));
+	}
+
+	@Test
+	public void persistItems_whenItemsAreSavedWithoutTimeToLive() throws Exception {
+		final Map<String, String> values = new HashMap<>();
+		values.put("m1", PriceCodec.encode(BigDecimal.TEN));
+		values.put("m2", PriceCodec.encode(BigDecimal.valueOf(20)));
+		when(valueOperations.multiSet(values)).thenReturn(Mono.just(true));
+
+		repository.persistItems(Arrays.asList(Item.create("m1", BigDecimal.TEN),
+			Item.create("m2", BigDecimal.valueOf(20))), Duration.ZERO).toCompletableFuture().get();
+
+		verify(valueOperations).multiSet(values);
+	}
+
+	@Test
+	public void persistItems_whenItemsAreSavedWithTheirComputeTime() throws Exception {
+		when(valueOperations.set(Mockito.anyString(), Mockito.anyString(),
+			Mockito.eq(TIME_TO_LIVE.multipliedBy(2)))).thenReturn(Mono.just(true));
+
+		protectedRepository.persistItems(Arrays.asList(Item.create("m1", BigDecimal.TEN),
+			Item.create("m2", BigDecimal.valueOf(20))), Duration.ofMillis(30))
+			.toCompletableFuture().get();
+
+		verify(valueOperations).set("m1", PriceCodec.encode(BigDecimal.TEN, 30, 1810000),
+			TIME_TO_LIVE.multipliedBy(2));
+		verify(valueOperations).set("m2", PriceCodec.encode(BigDecimal.valueOf(20), 30, 1810000),
+			TIME_TO_LIVE.multipliedBy(2));
+	}
+
+	@Test
+	public void findItemById_whenItemIsInItsBucket() throws Exception {
+
+		when(hashOperations.get("items:MLA1234", "56"))
+			.thenReturn(Mono.just(PriceCodec.encode(new BigDecimal("99.90"), 0, 20000)));
+
+		final Optional<Item> response = bucketRepository.findItemById("MLA123456")
+			.toCompletableFuture().get();
+
+		assertThat(response.get().getId(), is("MLA123456"));
+		assertThat(response.get().getPrice(), is(new BigDecimal("99.9")));
+	}
+
+	@Test
+	public void findItemsByIds_whenItemsAreInSeveralBuckets() throws Exception {
+
+		when(hashOperations.multiGet("items:MLA1", Arrays.asList("00", "01")))
+			.thenReturn(Mono.just(Arrays.asList(
+				PriceCodec.encode(BigDecimal.TEN, 0, 20000), null)));
+		when(hashOperations.multiGet("items:MLA2", Arrays.asList("00")))
+			.thenReturn(Mono.just(Arrays.asList(PriceCodec.encode(BigDecimal.ONE, 0, 20000))));
+
+		final Map<String, Item> response = bucketRepository
+			.findItemsByIds(Arrays.asList("MLA100", "MLA101", "MLA200"))
+			.toCompletableFuture().get();
+
+		assertThat(response.size(), is(2));
+		assertThat(response.get("MLA100").getPrice(), is(BigDecimal.TEN));
+		assertThat(response.get("MLA200").getPrice(), is(BigDecimal.ONE));
+	}
+
+	@Test
+	public void persistItems_whenItemsAreSavedInTheirBuckets() throws Exception {
+		when(hashOperations.putAll(Mockito.anyString(), Mockito.anyMap()))
+			.thenReturn(Mono.just(true));
+		when(redisTemplate.expire(Mockito.anyString(), Mockito.eq(TIME_TO_LIVE.multipliedBy(2))))
+			.thenReturn(Mono.just(true));
+
+		final Item response = bucketRepository
+			.persistItem(Item.create("MLA100", BigDecimal.TEN), Duration.ofMillis(30))
+			.toCompletableFuture().get();
+		bucketRepository.persistItems(Arrays.asList(Item.create("MLA200", BigDecimal.ONE),
+			Item.create("MLA201", BigDecimal.ONE)), Duration.ZERO).toCompletableFuture().get();
+
+		assertThat(response.getId(), is("MLA100"));
+
+		verify(hashOperations).putAll("items:MLA1",
+			Collections.singletonMap("00", PriceCodec.encode(BigDecimal.TEN, 30, 1810000)));
+		final Map<String, String> values = new HashMap<>();
+		values.put("00", PriceCodec.encode(BigDecimal.ONE, 0, 1810000));
+		values.put("01", PriceCodec.encode(BigDecimal.ONE, 0, 1810000));
+		verify(hashOperations).putAll("items:MLA2", values);
+		verify(redisTemplate).expire("items:MLA2", TIME_TO_LIVE.multipliedBy(2));
+	}
+
+	@Test
+	public void findItemById_whenItemInItsBucketExpiredLongAgo() throws Exception {
+		final RedisItemRepository lateRepository = new RedisItemRepository(redisTemplate,
+			TIME_TO_LIVE, LEASE_TIME, 1, 2, LATE_CLOCK, () -> 0.5);
+		when(hashOperations.get("items:MLA1234", "56"))
+			.thenReturn(Mono.just(PriceCodec.encode(BigDecimal.TEN, 0, 20000)));
+		when(hashOperations.remove("items:MLA1234", "56")).thenReturn(Mono.just(1L));
+
+		final Optional<Item> response = lateRepository.findItemById("MLA123456")
+			.toCompletableFuture().get();
+
+		assertThat(response.isPresent(), is(false));
+		verify(hashOperations).remove("items:MLA1234", "56");
+	}
+
+	@Test
+	public void persistItems_whenBucketIsSwept() throws Exception {
+		final RedisItemRepository sweepingRepository = new RedisItemRepository(redisTemplate,
+			TIME_TO_LIVE, LEASE_TIME, 1, 2, LATE_CLOCK,
+			() -> RedisItemRepository.SWEEP_PROBABILITY);
+		when(hashOperations.putAll(Mockito.anyString(), Mockito.anyMap()))
+			.thenReturn(Mono.just(true));
+		when(redisTemplate.expire("items:MLA1", TIME_TO_LIVE.multipliedBy(2)))
+			.thenReturn(Mono.just(true));
+		when(hashOperations.entries("items:MLA1")).thenReturn(Flux.just(
+			new SimpleEntry<>("00", PriceCodec.encode(BigDecimal.ONE, 0, 4_000_000)),
+			new SimpleEntry<>("01", PriceCodec.encode(BigDecimal.ONE, 0, 20000)),
+			new SimpleEntry<>("02", "not a price")));
+		when(hashOperations.remove("items:MLA1", "01", "02")).thenReturn(Mono.just(2L));
+
+		sweepingRepository.persistItem(Item.create("MLA100", BigDecimal.ONE))
+			.toCompletableFuture().get();
+
+		verify(hashOperations).remove("items:MLA1", "01", "02");
+	}
+
+	@Test
+	public void create_whenBucketsHaveNoTimeToLive() {
+		Assertions.assertThrows(IllegalArgumentException.class, () ->
+			new RedisItemRepository(redisTemplate, null, LEASE_TIME, 1, 2, clock, () -> 0.5));
+	}
+}
@@ -0,0 +1,245 @@
+package api.meli.com.co.infrastructure.adapters.repositories;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import api.meli.com.co.domain.repositories.ItemRepository;
+import api.meli.com.co.domain.vo.Item;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+/**
+ * The test cases for {@link WriteBehindItemRepository}
+ *
+ * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
+ * @since 1.0
+ */
+@ExtendWith(MockitoExtension.class)
+public class WriteBehindItemRepositoryTest {
+
+	private static final Duration FLUSH_INTERVAL = Duration.ofMillis(50);
+
+	private final Item item1 = Item.create("m1", BigDecimal.valueOf(100));
+	private final Item item2 = Item.create("m2", BigDecimal.valueOf(200));
+	private final Item item3 = Item.create("m3", BigDecimal.valueOf(300));
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	@Mock
+	private ItemRepository itemRepository;
+	private VirtualTimeScheduler scheduler;
+	private WriteBehindItemRepository repository;
+
+	@BeforeEach
+	public void setUp() {
+		scheduler = VirtualTimeScheduler.create();
+		repository = new WriteBehindItemRepository(itemRepository, FLUSH_INTERVAL, 2, 3,
+			scheduler, meterRegistry);
+	}
+
+	@Test
+	public void persistItem_whenItemsAreFlushedTogether() throws Exception {
+		when(itemRepository.persistItems(Mockito.anyCollection(), Mockito.any(Duration.class)))
+			.thenReturn(CompletableFuture.completedFuture(null));
+
+		final Item response = repository.persistItem(item1, Duration.ofMillis(10))
+			.toCompletableFuture().get();
+		repository.persistItem(item1, Duration.ofMillis(30));
+
+		assertThat(response, is(item1));
+		verifyNoInteractions(itemRepository);
+
+		scheduler.advanceTimeBy(FLUSH_INTERVAL);
+
+		final ArgumentCaptor<Collection<Item>> items = ArgumentCaptor.forClass(Collection.class);
+		verify(itemRepository).persistItems(items.capture(), Mockito.eq(Duration.ofMillis(30)));
+		assertThat(items.getValue(), Matchers.contains(item1));
+		assertThat(meterRegistry.counter("items.write-behind.flushed").count(), is(1.0));
+	}
+
+	@Test
+	public void persistItem_whenBatchIsFull() {
+		when(itemRepository.persistItems(Mockito.anyCollection(), Mockito.any(Duration.class)))
+			.thenReturn(CompletableFuture.completedFuture(null));
+
+		repository.persistItem(item1);
+		repository.persistItem(item2);
+		scheduler.advanceTime();
+
+		final ArgumentCaptor<Collection<Item>> items = ArgumentCaptor.forClass(Collection.class);
+		verify(itemRepository).persistItems(items.capture(), Mockito.eq(Duration.ZERO));
+		assertThat(items.getValue(), Matchers.containsInAnyOrder(item1, item2));
+	}
+
+	@Test
+	public void persistItem_whenBatchIsFullAndAFlushIsScheduled() {
+		when(itemRepository.persistItems(Mockito.anyCollection(), Mockito.any(Duration.class)))
+			.thenReturn(CompletableFuture.completedFuture(null));
+
+		repository.persistItem(item1);
+		repository.persistItem(item2);
+		repository.persistItem(item3);
+		scheduler.advanceTime();
+
+		verify(itemRepository).persistItems(Mockito.anyCollection(), Mockito.eq(Duration.ZERO));
+		assertThat(meterRegistry.get("items.write-behind.pending").gauge().value(), is(1.0));
+	}
+
+	@Test
+	public void persistItem_whenThereAreTooManyPendingItems() throws Exception {
+		final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		repository = new WriteBehindItemRepository(itemRepository, FLUSH_INTERVAL, 10, 2,
+			scheduler, registry);
+
+		repository.persistItem(item1);
+		repository.persistItem(item2);
+		final Item response = repository.persistItem(item3).toCompletableFuture().get();
+
+		assertThat(response, is(item3));
+		assertThat(registry.counter("items.write-behind.dropped").count(), is(1.0));
+		assertThat(registry.get("items.write-behind.pending").gauge().value(), is(2.0));
+	}
+
+	@Test
+	public void persistItem_whenRepositoryFails() throws Exception {
+		final CompletableFuture<Void> failure = new CompletableFuture<>();
+		failure.completeExceptionally(new IllegalStateException("Cache error"));
+		when(itemRepository.persistItems(Mockito.anyCollection(), Mockito.any(Duration.class)))
+			.thenReturn(failure);
+		when(itemRepository.findItemById("m1"))
+			.thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+
+		repository.persistItem(item1);
+		scheduler.advanceTimeBy(FLUSH_INTERVAL);
+
+		assertThat(meterRegistry.counter("items.write-behind.failed").count(), is(1.0));
+		assertThat(repository.findItemById("m1").toCompletableFuture().get().isPresent(),
+			is(false));
+	}
+
+	@Test
+	public void findItemById_whenItemIsPending() throws Exception {
+		repository.persistItem(item1);
+
+		final Optional<Item> response = repository.findItemById("m1").toCompletableFuture().get();
+
+		assertThat(response.get(), is(item1));
+		verify(itemRepository, never()).findItemById(Mockito.anyString());
+	}
+
+	@Test
+	public void findItemById_whenItemIsBeingFlushed() throws Exception {
+		when(itemRepository.persistItems(Mockito.anyCollection(), Mockito.any(Duration.class)))
+			.thenReturn(new CompletableFuture<>());
+
+		repository.persistItem(item1);
+		scheduler.advanceTimeBy(FLUSH_INTERVAL);
+
+		final Optional<Item> response = repository.findItemById("m1").toCompletableFuture().get();
+
+		assertThat(response.get(), is(item1));
+		verify(itemRepository, never()).findItemById(Mockito.anyString());
+	}
+
+	@Test
+	public void findItemById_whenItemIsNotPending() throws Exception {
+		when(itemRepository.findItemById("m1"))
+			.thenReturn(CompletableFuture.completedFuture(Optional.of(item1)));
+
+		final Optional<Item> response = repository.findItemById("m1").toCompletableFuture().get();
+
+		assertThat(response.get(), is(item1));
+	}
+
+	@Test
+	public void findItemsByIds_whenSomeItemsArePending() throws Exception {
+		when(itemRepository.findItemsByIds(Arrays.asList("m2", "m3")))
+			.thenReturn(CompletableFuture.completedFuture(Collections.singletonMap("m2", item2)));
+
+		repository.persistItem(item1);
+
+		final Map<String, Item> response = repository
+			.findItemsByIds(Arrays.asList("m1", "m2", "m3")).toCompletableFuture().get();
+
+		assertThat(response.size(), is(2));
+		assertThat(response.get("m1"), is(item1));
+		assertThat(response.get("m2"), is(item2));
+	}
+
+	@Test
+	public void findItemsByIds_whenAllItemsArePending() throws Exception {
+		repository.persistItem(item1);
+
+		final Map<String, Item> response = repository
+			.findItemsByIds(Arrays.asList("m1")).toCompletableFuture().get();
+
+		assertThat(response.get("m1"), is(item1));
+		verify(itemRepository, never()).findItemsByIds(Mockito.anyCollection());
+	}
+
+	@Test
+	public void close_whenThereArePendingItems() {
+		when(itemRepository.persistItems(Mockito.anyCollection(), Mockito.any(Duration.class)))
+			.thenReturn(CompletableFuture.completedFuture(null));
+
+		repository.persistItem(item1);
+		repository.close();
+
+		verify(itemRepository).persistItems(Mockito.anyCollection(), Mockito.eq(Duration.ZERO));
+	}
+
+	@Test
+	public void close_whenPendingItemsAreBeingWritten() {
+		final CompletableFuture<Void> write = new CompletableFuture<>();
+		when(itemRepository.persistItems(Mockito.anyCollection(), Mockito.any(Duration.class)))
+			.thenReturn(write);
+
+		repository.persistItem(item1);
+		CompletableFuture.runAsync(() -> {
+			sleep(Duration.ofMillis(100));
+			write.complete(null);
+		});
+		repository.close();
+
+		assertThat(write.isDone(), is(true));
+		assertThat(meterRegistry.counter("items.write-behind.flushed").count(), is(1.0));
+	}
+
+	@Test
+	public void close_whenRepositoryIsCloseable() throws Exception {
+		final ItemRepository closeableRepository = Mockito.mock(ItemRepository.class,
+			Mockito.withSettings().extraInterfaces(AutoCloseable.class));
+		repository = new WriteBehindItemRepository(closeableRepository, FLUSH_INTERVAL, 2, 3,
+			scheduler, meterRegistry);
+
+		repository.close();
+
+		verify((AutoCloseable) closeableRepository).close();
+	}
+
+	private static void sleep(final Duration duration) {
+		try {
+			Thread.sleep(duration.toMillis());
+		} catch (final InterruptedException error) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,139 @@
+package api.meli.com.co.infrastructure.services;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import api.meli.com.co.domain.services.ItemFinderService;
+import api.meli.com.co.domain.vo.Item;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+/**
+ * The test cases for {@link BatchingItemFinderService}
+ *
+ * @author <a href="ing.josefabian@gmail.com">José Fabián Mejía</a>
+ * @since 1.0
+ */
+@ExtendWith(MockitoExtension.class)
+public class BatchingItemFinderServiceTest {
+
+	private static final Duration WINDOW = Duration.ofMillis(2);
+
+	@Mock
+	private ItemFinderService itemService;
+
+	private VirtualTimeScheduler scheduler;
+
+	private BatchingItemFinderService service;
+
+	@BeforeEach
+	public void setUp() {
+		scheduler = VirtualTimeScheduler.create();
+		service = new BatchingItemFinderService(itemService, WINDOW, 4, scheduler);
+	}
+
+	@Test
+	public void findPricesByItemIds_whenRequestsArriveInTheSameWindow() throws Exception {
+		when(itemService.findPricesByItemIds(Arrays.asList("m1", "m2", "m3")))
+			.thenReturn(CompletableFuture.completedFuture(Arrays.asList(
+				Item.create("m1", BigDecimal.valueOf(100)),
+				Item.create("m2", BigDecimal.valueOf(200)))));
+
+		final CompletableFuture<List<Item>> response1 = service
+			.findPricesByItemIds(Arrays.asList("m1", "m2")).toCompletableFuture();
+		final CompletableFuture<List<Item>> response2 = service
+			.findPricesByItemIds(Arrays.asList("m2", "m3", "m2")).toCompletableFuture();
+
+		assertThat(response1.isDone(), is(false));
+		verifyNoInteractions(itemService);
+
+		scheduler.advanceTimeBy(WINDOW);
+
+		assertThat(ids(response1.get()), Matchers.contains("m1", "m2"));
+		assertThat(ids(response2.get()), Matchers.contains("m2", "m2"));
+
+		verify(itemService).findPricesByItemIds(Arrays.asList("m1", "m2", "m3"));
+	}
+
+	@Test
+	public void findPricesByItemIds_whenBatchReachesMaximumSize() throws Exception {
+		when(itemService.findPricesByItemIds(Mockito.anyList()))
+			.thenReturn(CompletableFuture.completedFuture(Arrays.asList(
+				Item.create("m1", BigDecimal.valueOf(100)),
+				Item.create("m4", BigDecimal.valueOf(400)))))
+			.thenReturn(CompletableFuture.completedFuture(Arrays.asList(
+				Item.create("m5", BigDecimal.valueOf(500)))));
+
+		final CompletableFuture<List<Item>> response1 = service
+			.findPricesByItemIds(Arrays.asList("m1", "m2")).toCompletableFuture();
+		final CompletableFuture<List<Item>> response2 = service
+			.findPricesByItemIds(Arrays.asList("m3", "m4")).toCompletableFuture();
+		final CompletableFuture<List<Item>> response3 = service
+			.findPricesByItemIds(Arrays.asList("m5")).toCompletableFuture();
+
+		assertThat(ids(response1.get()), Matchers.contains("m1"));
+		assertThat(ids(response2.get()), Matchers.contains("m4"));
+		assertThat(response3.isDone(), is(false));
+
+		scheduler.advanceTimeBy(WINDOW);
+
+		assertThat(ids(response3.get()), Matchers.contains("m5"));
+
+		verify(itemService).findPricesByItemIds(Arrays.asList("m1", "m2", "m3", "m4"));
+		verify(itemService).findPricesByItemIds(Arrays.asList("m5"));
+	}
+
+	@Test
+	public void findPricesByItemIds_whenSearchFails() {
+		final CompletableFuture<List<Item>> failure = new CompletableFuture<>();
+		failure.completeExceptionally(new IllegalStateException("Error searching items"));
+		when(itemService.findPricesByItemIds(Mockito.anyList())).thenReturn(failure);
+
+		final CompletableFuture<List<Item>> response = service
+			.findPricesByItemIds(Arrays.asList("m1")).toCompletableFuture();
+		scheduler.advanceTimeBy(WINDOW);
+
+		final Throwable error = Assertions.assertThrows(Exception.class, response::get);
+
+		assertThat(error.getCause(), instanceOf(IllegalStateException.class));
+	}
+
+	@Test
+	public void findPricesByItemIds_whenSearchThrows() {
+		when(itemService.findPricesByItemIds(Mockito.anyList()))
+			.thenThrow(new IllegalStateException("Error searching items"));
+
+		final CompletableFuture<List<Item>> response1 = service
+			.findPricesByItemIds(Arrays.asList("m1")).toCompletableFuture();
+		final CompletableFuture<List<Item>> response2 = service
+			.findPricesByItemIds(Arrays.asList("m2")).toCompletableFuture();
+		scheduler.advanceTimeBy(WINDOW);
+
+		final Throwable error1 = Assertions.assertThrows(Exception.class, response1::get);
+		final Throwable error2 = Assertions.assertThrows(Exception.class, response2::get);
+
+		assertThat(error1.getCause(), instanceOf(IllegalStateException.class));
+		assertThat(error2.getCause(), instanceOf(IllegalStateException.class));
+	}
+
+	private static List<String> ids(final List<Item> items) {
+		return items.stream().map(Item::getId).collect(Collectors.toList());
+	}
+}
@@ -1,6 +1,7 @@
 package api.meli.com.co.infrastructure.services;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -10,12 +11,17 @@ import static org.mockito.Mockito.when;
 import api.meli.com.co.domain.repositories.ItemRepository;
 import api.meli.com.co.domain.vo.Item;
 import api.meli.com.co.infrastructure.adapters.clients.MeliItemRestClient;
+import api.meli.com.co.infrastructure.adapters.repositories.InvalidItemCache;
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -23,7 +29,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
-import reactor.core.publisher.Mono;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
 
 /**
  * The test cases for {@link CacheableRemoteItemFinderService}
@@ -40,6 +47,9 @@ public class CacheableRemoteItemFinderServiceTest {
 	@Mock
 	private ItemRepository itemRepository;
 
+	@Mock
+	private InvalidItemCache invalidItems;
+
 	@InjectMocks
 	private CacheableRemoteItemFinderService service;
 
@@ -47,60 +57,51 @@ public class CacheableRemoteItemFinderServiceTest {
 	public void findPricesByItemIds_whenItemsAreNotInCacheAndRemoteServiceResponseSuccess()
 		throws Exception {
 
-		when(itemRepository.findItemById(Mockito.anyString()))
-			.thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+		when(itemRepository.findItemsByIds(Mockito.anyList()))
+			.thenReturn(cached());
 
-		when(itemRepository.persistItem(Mockito.any(Item.class)))
-			.thenReturn(
-				CompletableFuture.completedFuture(Item.create("m1", BigDecimal.valueOf(100))))
-			.thenReturn(
-				CompletableFuture.completedFuture(Item.create("m2", BigDecimal.valueOf(200))))
-			.thenReturn(
-				CompletableFuture.completedFuture(Item.create("m3", BigDecimal.valueOf(300))))
-			.thenReturn(
-				CompletableFuture.completedFuture(Item.create("m4", BigDecimal.valueOf(400))));
+		when(itemRepository.persistItem(Mockito.any(Item.class), Mockito.any(Duration.class)))
+			.thenAnswer(invocation -> CompletableFuture.completedFuture(invocation.getArgument(0)));
 
-		when(itemRestClient.getItemPriceById(Mockito.anyString()))
-			.thenReturn(Mono.just(Item.create("m1", BigDecimal.valueOf(100))))
-			.thenReturn(Mono.just(Item.create("m2", BigDecimal.valueOf(200))))
-			.thenReturn(Mono.just(Item.create("m3", BigDecimal.valueOf(300))))
-			.thenReturn(Mono.just(Item.create("m4", BigDecimal.valueOf(400))));
+		when(itemRestClient.getItemPricesByIds(Arrays.asList("m1", "m2", "m3", "m4")))
+			.thenReturn(Flux.just(
+				Item.create("m1", BigDecimal.valueOf(100)),
+				Item.create("m2", BigDecimal.valueOf(200)),
+				Item.create("m3", BigDecimal.valueOf(300)),
+				Item.create("m4", BigDecimal.valueOf(400))));
 
 		final List<Item> response = service
 			.findPricesByItemIds(Arrays.asList("m1", "m2", "m3", "m4"))
 			.toCompletableFuture().get();
 
 		assertThat(response.stream().map(Item::getId).collect(Collectors.toList()),
-			Matchers.containsInAnyOrder("m1", "m2", "m3", "m4"));
+			Matchers.contains("m1", "m2", "m3", "m4"));
 		assertThat(response.stream().map(Item::getPrice).collect(Collectors.toList()),
-			Matchers.containsInAnyOrder(BigDecimal.valueOf(100), BigDecimal.valueOf(200),
+			Matchers.contains(BigDecimal.valueOf(100), BigDecimal.valueOf(200),
 				BigDecimal.valueOf(300), BigDecimal.valueOf(400)));
 
-		verify(itemRepository, times(4)).findItemById(Mockito.anyString());
-		verify(itemRepository, times(4)).persistItem(Mockito.any(Item.class));
-		verify(itemRestClient, times(4)).getItemPriceById(Mockito.anyString());
+		verify(itemRepository).findItemsByIds(Mockito.anyList());
+		verify(itemRepository, times(4))
+			.persistItem(Mockito.any(Item.class), Mockito.any(Duration.class));
+		verify(itemRestClient).getItemPricesByIds(Mockito.anyList());
 	}
 
 	@Test
 	public void findPricesByItemIds_whenItemsAreNotInCacheAndRemoteServiceResponseWithOneError()
 		throws Exception {
 
-		when(itemRepository.findItemById(Mockito.anyString()))
-			.thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+		when(itemRepository.findItemsByIds(Mockito.anyList()))
+			.thenReturn(cached());
 
-		when(itemRepository.persistItem(Mockito.any(Item.class)))
-			.thenReturn(
-				CompletableFuture.completedFuture(Item.create("m1", BigDecimal.valueOf(100))))
-			.thenReturn(
-				CompletableFuture.completedFuture(Item.create("m2", BigDecimal.valueOf(200))))
-			.thenReturn(
-				CompletableFuture.completedFuture(Item.create("m4", BigDecimal.valueOf(400))));
+		when(itemRepository.persistItem(Mockito.any(Item.class), Mockito.any(Duration.class)))
+			.thenAnswer(invocation -> CompletableFuture.completedFuture(invocation.getArgument(0)));
 
-		when(itemRestClient.getItemPriceById(Mockito.anyString()))
-			.thenReturn(Mono.just(Item.create("m1", BigDecimal.valueOf(100))))
-			.thenReturn(Mono.just(Item.create("m2", BigDecimal.valueOf(200))))
-			.thenReturn(Mono.error(() -> new IllegalArgumentException("Error from remote service")))
-			.thenReturn(Mono.just(Item.create("m4", BigDecimal.valueOf(400))));
+		when(itemRestClient.getItemPricesByIds(Mockito.anyList()))
+			.thenReturn(Flux.just(
+				Item.create("m1", BigDecimal.valueOf(100)),
+				Item.create("m2", BigDecimal.valueOf(200)),
+				Item.create("m3"),
+				Item.create("m4", BigDecimal.valueOf(400))));
 
 		final List<Item> response = service
 			.findPricesByItemIds(Arrays.asList("m1", "m2", "m3", "m4"))
@@ -112,90 +113,132 @@ public class CacheableRemoteItemFinderServiceTest {
 			Matchers.containsInAnyOrder(BigDecimal.valueOf(100), BigDecimal.valueOf(200)
 				, BigDecimal.valueOf(400)));
 
-		verify(itemRepository, times(4)).findItemById(Mockito.anyString());
-		verify(itemRepository, times(3)).persistItem(Mockito.any(Item.class));
-		verify(itemRestClient, times(4)).getItemPriceById(Mockito.anyString());
+		verify(itemRepository).findItemsByIds(Mockito.anyList());
+		verify(itemRepository, times(3))
+			.persistItem(Mockito.any(Item.class), Mockito.any(Duration.class));
+		verify(itemRestClient).getItemPricesByIds(Mockito.anyList());
+		verify(invalidItems).addAll(Collections.singleton("m3"));
 	}
 
 	@Test
-	public void findPricesByItemIds_whenItemsAreNotInCacheAndRemoteServiceResponseWithAllErrors()
+	public void findPricesByItemIds_whenAnItemWasRecentlyNotFound() throws Exception {
+
+		when(itemRepository.findItemsByIds(Mockito.anyList()))
+			.thenReturn(cached());
+
+		when(itemRepository.persistItem(Mockito.any(Item.class), Mockito.any(Duration.class)))
+			.thenAnswer(invocation -> CompletableFuture.completedFuture(invocation.getArgument(0)));
+
+		when(invalidItems.contains("m2")).thenReturn(true);
+
+		when(itemRestClient.getItemPricesByIds(Arrays.asList("m1")))
+			.thenReturn(Flux.just(Item.create("m1", BigDecimal.valueOf(100))));
+
+		final List<Item> response = service.findPricesByItemIds(Arrays.asList("m1", "m2"))
+			.toCompletableFuture().get();
+
+		assertThat(response.stream().map(Item::getId).collect(Collectors.toList()),
+			Matchers.contains("m1"));
+
+		verify(itemRestClient).getItemPricesByIds(Arrays.asList("m1"));
+		verify(invalidItems, never()).addAll(Mockito.anyCollection());
+	}
+
+	@Test
+	public void findPricesByItemIds_whenAllMissingItemsWereRecentlyNotFound() throws Exception {
+
+		when(itemRepository.findItemsByIds(Mockito.anyList()))
+			.thenReturn(cached(Item.create("m1", BigDecimal.valueOf(100))));
+
+		when(invalidItems.contains("m2")).thenReturn(true);
+
+		final List<Item> response = service.findPricesByItemIds(Arrays.asList("m1", "m2"))
+			.toCompletableFuture().get();
+
+		assertThat(response.stream().map(Item::getId).collect(Collectors.toList()),
+			Matchers.contains("m1"));
+
+		verifyNoInteractions(itemRestClient);
+	}
+
+	@Test
+	public void findPricesByItemIds_whenItemsAreNotInCacheAndOneRemoteRequestFails()
 		throws Exception {
 
-		when(itemRepository.findItemById(Mockito.anyString()))
-			.thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+		when(itemRepository.findItemsByIds(Mockito.anyList()))
+			.thenReturn(cached());
 
-		when(itemRestClient.getItemPriceById(Mockito.anyString()))
-			.thenReturn(Mono.error(() -> new IllegalArgumentException("Error from remote service")))
-			.thenReturn(Mono.error(() -> new IllegalArgumentException("Error from remote service")))
-			.thenReturn(
-				Mono.error(() -> new IllegalArgumentException("Error from remote service")));
+		when(itemRepository.persistItem(Mockito.any(Item.class), Mockito.any(Duration.class)))
+			.thenAnswer(invocation -> CompletableFuture.completedFuture(invocation.getArgument(0)));
+
+		when(itemRestClient.getItemPricesByIds(Mockito.anyList()))
+			.thenReturn(Flux.concat(
+				Flux.just(Item.create("m1", BigDecimal.valueOf(100))),
+				Flux.error(() -> new IllegalArgumentException("Error from remote service"))));
 
 		final List<Item> response = service
 			.findPricesByItemIds(Arrays.asList("m1", "m2", "m3"))
 			.toCompletableFuture().get();
 
-		assertThat(response, Matchers.empty());
+		assertThat(response.stream().map(Item::getId).collect(Collectors.toList()),
+			Matchers.contains("m1"));
 
-		verify(itemRepository, times(3)).findItemById(Mockito.anyString());
-		verifyNoMoreInteractions(itemRepository);
-		verify(itemRestClient, times(3)).getItemPriceById(Mockito.anyString());
+		verify(itemRepository).findItemsByIds(Mockito.anyList());
+		verify(itemRepository).persistItem(Mockito.any(Item.class), Mockito.any(Duration.class));
+		verify(itemRestClient).getItemPricesByIds(Mockito.anyList());
+		verify(invalidItems, never()).addAll(Mockito.anyCollection());
 	}
 
 	@Test
 	public void findPricesByItemIds_whenSomeItemsAreInCache() throws Exception {
 
-		when(itemRepository.findItemById(Mockito.anyString()))
-			.thenReturn(CompletableFuture.completedFuture(Optional.empty()))
-			.thenReturn(CompletableFuture
-				.completedFuture(Optional.of(Item.create("m2", BigDecimal.valueOf(200)))))
-			.thenReturn(CompletableFuture.completedFuture(Optional.empty()))
-			.thenReturn(CompletableFuture
-				.completedFuture(Optional.of(Item.create("m4", BigDecimal.valueOf(400)))));
+		when(itemRepository.findItemsByIds(Mockito.anyList()))
+			.thenReturn(cached(Item.create("m2", BigDecimal.valueOf(200)),
+				Item.create("m4", BigDecimal.valueOf(400))));
 
-		when(itemRepository.persistItem(Mockito.any(Item.class)))
-			.thenReturn(
-				CompletableFuture.completedFuture(Item.create("m1", BigDecimal.valueOf(100))))
-			.thenReturn(
-				CompletableFuture.completedFuture(Item.create("m3", BigDecimal.valueOf(300))));
+		when(itemRepository.persistItem(Mockito.any(Item.class), Mockito.any(Duration.class)))
+			.thenAnswer(invocation -> CompletableFuture.completedFuture(invocation.getArgument(0)));
 
-		when(itemRestClient.getItemPriceById(Mockito.anyString()))
-			.thenReturn(Mono.just(Item.create("m1", BigDecimal.valueOf(100))))
-			.thenReturn(Mono.just(Item.create("m3", BigDecimal.valueOf(300))));
+		when(itemRestClient.getItemPricesByIds(Arrays.asList("m1", "m3")))
+			.thenReturn(Flux.just(
+				Item.create("m1", BigDecimal.valueOf(100)),
+				Item.create("m3", BigDecimal.valueOf(300))));
 
 		final List<Item> response = service
 			.findPricesByItemIds(Arrays.asList("m1", "m2", "m3", "m4"))
 			.toCompletableFuture().get();
 
 		assertThat(response.stream().map(Item::getId).collect(Collectors.toList()),
-			Matchers.containsInAnyOrder("m1", "m2", "m3", "m4"));
+			Matchers.contains("m1", "m2", "m3", "m4"));
 		assertThat(response.stream().map(Item::getPrice).collect(Collectors.toList()),
-			Matchers.containsInAnyOrder(BigDecimal.valueOf(100), BigDecimal.valueOf(200),
+			Matchers.contains(BigDecimal.valueOf(100), BigDecimal.valueOf(200),
 				BigDecimal.valueOf(300), BigDecimal.valueOf(400)));
 
-		verify(itemRepository, times(4)).findItemById(Mockito.anyString());
-		verify(itemRepository, times(2)).persistItem(Mockito.any(Item.class));
-		verify(itemRestClient, times(2)).getItemPriceById(Mockito.anyString());
+		verify(itemRepository).findItemsByIds(Mockito.anyList());
+		verify(itemRepository, times(2))
+			.persistItem(Mockito.any(Item.class), Mockito.any(Duration.class));
+		verify(itemRestClient).getItemPricesByIds(Mockito.anyList());
 	}
 
 	@Test
-	public void findPricesByItemIds_whenSomeItemsAreInCacheAndRemoteServiceResponseWithOneError()
+	public void findPricesByItemIds_whenSomeItemsAreInCacheAndPersistResponseWithOneError()
 		throws Exception {
 
-		when(itemRepository.findItemById(Mockito.anyString()))
-			.thenReturn(CompletableFuture.completedFuture(Optional.empty()))
-			.thenReturn(CompletableFuture
-				.completedFuture(Optional.of(Item.create("m2", BigDecimal.valueOf(200)))))
-			.thenReturn(CompletableFuture.completedFuture(Optional.empty()))
-			.thenReturn(CompletableFuture
-				.completedFuture(Optional.of(Item.create("m4", BigDecimal.valueOf(400)))));
+		when(itemRepository.findItemsByIds(Mockito.anyList()))
+			.thenReturn(cached(Item.create("m2", BigDecimal.valueOf(200)),
+				Item.create("m4", BigDecimal.valueOf(400))));
 
-		when(itemRepository.persistItem(Mockito.any(Item.class)))
+		final CompletableFuture<Item> failure = new CompletableFuture<>();
+		failure.completeExceptionally(new IllegalArgumentException("Error from cache"));
+		when(itemRepository.persistItem(Mockito.any(Item.class), Mockito.any(Duration.class)))
+			.thenReturn(failure)
 			.thenReturn(
 				CompletableFuture.completedFuture(Item.create("m3", BigDecimal.valueOf(300))));
 
-		when(itemRestClient.getItemPriceById(Mockito.anyString()))
-			.thenReturn(Mono.error(() -> new IllegalArgumentException("Error from remote service")))
-			.thenReturn(Mono.just(Item.create("m3", BigDecimal.valueOf(300))));
+		when(itemRestClient.getItemPricesByIds(Arrays.asList("m1", "m3")))
+			.thenReturn(Flux.just(
+				Item.create("m1", BigDecimal.valueOf(100)),
+				Item.create("m3", BigDecimal.valueOf(300))));
 
 		final List<Item> response = service
 			.findPricesByItemIds(Arrays.asList("m1", "m2", "m3", "m4"))
@@ -207,23 +250,20 @@ public class CacheableRemoteItemFinderServiceTest {
 			Matchers.containsInAnyOrder(BigDecimal.valueOf(200), BigDecimal.valueOf(300),
 				BigDecimal.valueOf(400)));
 
-		verify(itemRepository, times(4)).findItemById(Mockito.anyString());
-		verify(itemRepository).persistItem(Mockito.any(Item.class));
-		verify(itemRestClient, times(2)).getItemPriceById(Mockito.anyString());
+		verify(itemRepository).findItemsByIds(Mockito.anyList());
+		verify(itemRepository, times(2))
+			.persistItem(Mockito.any(Item.class), Mockito.any(Duration.class));
+		verify(itemRestClient).getItemPricesByIds(Mockito.anyList());
 	}
 
 	@Test
 	public void findPricesByItemIds_whenAllItemsAreInCache() throws Exception {
 
-		when(itemRepository.findItemById(Mockito.anyString()))
-			.thenReturn(CompletableFuture
-				.completedFuture(Optional.of(Item.create("m1", BigDecimal.valueOf(100)))))
-			.thenReturn(CompletableFuture
-				.completedFuture(Optional.of(Item.create("m2", BigDecimal.valueOf(200)))))
-			.thenReturn(CompletableFuture
-				.completedFuture(Optional.of(Item.create("m3", BigDecimal.valueOf(300)))))
-			.thenReturn(CompletableFuture
-				.completedFuture(Optional.of(Item.create("m4", BigDecimal.valueOf(400)))));
+		when(itemRepository.findItemsByIds(Mockito.anyList()))
+			.thenReturn(cached(Item.create("m1", BigDecimal.valueOf(100)),
+				Item.create("m2", BigDecimal.valueOf(200)),
+				Item.create("m3", BigDecimal.valueOf(300)),
+				Item.create("m4", BigDecimal.valueOf(400))));
 
 		final List<Item> response = service
 			.findPricesByItemIds(Arrays.asList("m1", "m2", "m3", "m4"))
@@ -235,31 +275,86 @@ public class CacheableRemoteItemFinderServiceTest {
 			Matchers.containsInAnyOrder(BigDecimal.valueOf(100), BigDecimal.valueOf(200),
 				BigDecimal.valueOf(300), BigDecimal.valueOf(400)));
 
-		verify(itemRepository, times(4)).findItemById(Mockito.anyString());
+		verify(itemRepository).findItemsByIds(Mockito.anyList());
 		verifyNoMoreInteractions(itemRepository);
 		verifyNoInteractions(itemRestClient);
 	}
 
+	@Test
+	public void findPricesByItemIds_whenItemIdsAreRepeated() throws Exception {
+
+		when(itemRepository.findItemsByIds(Mockito.anyList()))
+			.thenReturn(cached());
+
+		when(itemRepository.persistItem(Mockito.any(Item.class), Mockito.any(Duration.class)))
+			.thenAnswer(invocation -> CompletableFuture.completedFuture(invocation.getArgument(0)));
+
+		when(itemRestClient.getItemPricesByIds(Arrays.asList("m1", "m2")))
+			.thenReturn(Flux.just(
+				Item.create("m1", BigDecimal.valueOf(100)),
+				Item.create("m2", BigDecimal.valueOf(200))));
+
+		final List<Item> response = service.findPricesByItemIds(Arrays.asList("m1", "m2", "m1"))
+			.toCompletableFuture().get();
+
+		assertThat(response.stream().map(Item::getId).collect(Collectors.toList()),
+			Matchers.contains("m1", "m2", "m1"));
+
+		verify(itemRepository, times(2))
+			.persistItem(Mockito.any(Item.class), Mockito.any(Duration.class));
+		verify(itemRestClient).getItemPricesByIds(Mockito.anyList());
+	}
+
+	@Test
+	public void findPricesByItemIds_whenConcurrentRequestsMissTheSameItem() throws Exception {
+
+		when(itemRepository.findItemsByIds(Mockito.anyList()))
+			.thenReturn(cached());
+
+		when(itemRepository.persistItem(Mockito.any(Item.class), Mockito.any(Duration.class)))
+			.thenAnswer(invocation -> CompletableFuture.completedFuture(invocation.getArgument(0)));
+
+		final Sinks.Many<Item> firstSearch = Sinks.many().replay().all();
+		when(itemRestClient.getItemPricesByIds(Arrays.asList("m1", "m2")))
+			.thenReturn(firstSearch.asFlux());
+		when(itemRestClient.getItemPricesByIds(Arrays.asList("m3")))
+			.thenReturn(Flux.just(Item.create("m3", BigDecimal.valueOf(300))));
+
+		final CompletableFuture<List<Item>> response1 = service
+			.findPricesByItemIds(Arrays.asList("m1", "m2")).toCompletableFuture();
+		final CompletableFuture<List<Item>> response2 = service
+			.findPricesByItemIds(Arrays.asList("m2", "m3")).toCompletableFuture();
+
+		firstSearch.tryEmitNext(Item.create("m1", BigDecimal.valueOf(100)));
+		firstSearch.tryEmitNext(Item.create("m2", BigDecimal.valueOf(200)));
+		firstSearch.tryEmitComplete();
+
+		assertThat(response1.get().stream().map(Item::getId).collect(Collectors.toList()),
+			Matchers.contains("m1", "m2"));
+		assertThat(response2.get().stream().map(Item::getId).collect(Collectors.toList()),
+			Matchers.contains("m2", "m3"));
+
+		verify(itemRestClient).getItemPricesByIds(Arrays.asList("m1", "m2"));
+		verify(itemRestClient).getItemPricesByIds(Arrays.asList("m3"));
+		verify(itemRepository, times(3))
+			.persistItem(Mockito.any(Item.class), Mockito.any(Duration.class));
+	}
+
 	@Test
 	public void findPricesByItemIds_whenItemsAreNotInCacheTheFirstTime() throws Exception {
 
-		when(itemRepository.findItemById(Mockito.anyString()))
-			.thenReturn(CompletableFuture.completedFuture(Optional.empty()))
-			.thenReturn(CompletableFuture.completedFuture(Optional.empty()))
-			.thenReturn(CompletableFuture
-				.completedFuture(Optional.of(Item.create("m1", BigDecimal.valueOf(100)))))
-			.thenReturn(CompletableFuture
-				.completedFuture(Optional.of(Item.create("m2", BigDecimal.valueOf(200)))));
+		when(itemRepository.findItemsByIds(Mockito.anyList()))
+			.thenReturn(cached())
+			.thenReturn(cached(Item.create("m1", BigDecimal.valueOf(100)),
+				Item.create("m2", BigDecimal.valueOf(200))));
 
-		when(itemRepository.persistItem(Mockito.any(Item.class)))
-			.thenReturn(
-				CompletableFuture.completedFuture(Item.create("m1", BigDecimal.valueOf(100))))
-			.thenReturn(
-				CompletableFuture.completedFuture(Item.create("m2", BigDecimal.valueOf(200))));
+		when(itemRepository.persistItem(Mockito.any(Item.class), Mockito.any(Duration.class)))
+			.thenAnswer(invocation -> CompletableFuture.completedFuture(invocation.getArgument(0)));
 
-		when(itemRestClient.getItemPriceById(Mockito.anyString()))
-			.thenReturn(Mono.just(Item.create("m1", BigDecimal.valueOf(100))))
-			.thenReturn(Mono.just(Item.create("m2", BigDecimal.valueOf(200))));
+		when(itemRestClient.getItemPricesByIds(Mockito.anyList()))
+			.thenReturn(Flux.just(
+				Item.create("m1", BigDecimal.valueOf(100)),
+				Item.create("m2", BigDecimal.valueOf(200))));
 
 		final List<Item> response1 = service.findPricesByItemIds(Arrays.asList("m1", "m2"))
 			.toCompletableFuture().get();
@@ -277,8 +372,14 @@ public class CacheableRemoteItemFinderServiceTest {
 		assertThat(response2.stream().map(Item::getPrice).collect(Collectors.toList()),
 			Matchers.containsInAnyOrder(BigDecimal.valueOf(100), BigDecimal.valueOf(200)));
 
-		verify(itemRepository, times(4)).findItemById(Mockito.anyString());
-		verify(itemRepository, times(2)).persistItem(Mockito.any(Item.class));
-		verify(itemRestClient, times(2)).getItemPriceById(Mockito.anyString());
+		verify(itemRepository, times(2)).findItemsByIds(Mockito.anyList());
+		verify(itemRepository, times(2))
+			.persistItem(Mockito.any(Item.class), Mockito.any(Duration.class));
+		verify(itemRestClient).getItemPricesByIds(Mockito.anyList());
+	}
+
+	private static CompletableFuture<Map<String, Item>> cached(final Item... items) {
+		return CompletableFuture.completedFuture(
+			Stream.of(items).collect(Collectors.toMap(Item::getId, Function.identity())));
 	}
-}
\ No newline at end of file
+}